@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client;
+
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusListResponse;
+import com.nike.cerberus.client.model.CerberusResponse;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures whole client calls against a local MockWebServer that answers immediately with canned responses, so the
+ * result is dominated by the client: building the request, OkHttp, and decoding the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientRoundTripBenchmark {
+
+    private MockWebServer mockWebServer;
+
+    private CerberusClient client;
+
+    @Setup
+    public void setup() throws IOException {
+        final String secret = readResource("secret");
+        final String list = readResource("list");
+        final String listFiles = readResource("list-files");
+
+        mockWebServer = new MockWebServer();
+        mockWebServer.setServerSocketFactory(new NoDelayServerSocketFactory());
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                final String path = request.getPath();
+                if (path.startsWith("/v1/secure-file/")) {
+                    return new MockResponse().setResponseCode(204);
+                } else if (path.startsWith("/v1/secure-files/")) {
+                    return new MockResponse().setResponseCode(200).setBody(listFiles);
+                } else if (path.contains("list=true")) {
+                    return new MockResponse().setResponseCode(200).setBody(list);
+                }
+                return new MockResponse().setResponseCode(200).setBody(secret);
+            }
+        });
+        mockWebServer.start();
+
+        client = CerberusClientFactory.getClient(mockWebServer.url("/").toString(),
+                () -> (CerberusCredentials) () -> "token", new HashMap<>());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Benchmark
+    public CerberusResponse read() {
+        return client.read("app/my-sdb/config");
+    }
+
+    @Benchmark
+    public CerberusListResponse list() {
+        return client.list("app/my-sdb/");
+    }
+
+    @Benchmark
+    public CerberusListFilesResponse listFiles() {
+        return client.listFiles("app/my-sdb/");
+    }
+
+    @Benchmark
+    public void writeFile(FileState state) {
+        client.writeFile("app/my-sdb/cert.pem", state.file);
+    }
+
+    @State(Scope.Benchmark)
+    public static class FileState {
+
+        @Param({"1024", "65536"})
+        public int fileSize;
+
+        private byte[] file;
+
+        @Setup
+        public void setup() {
+            file = new byte[fileSize];
+            ThreadLocalRandom.current().nextBytes(file);
+        }
+    }
+
+    private static String readResource(String title) throws IOException {
+        try (InputStream inputStream = ClientRoundTripBenchmark.class.getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title))) {
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        }
+    }
+}
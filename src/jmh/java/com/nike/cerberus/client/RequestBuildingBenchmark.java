@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client;
+
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.http.HttpMethod;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work the client does for every call before anything is sent: building the URL and the request,
+ * including the default headers, the token header and, for writes, wrapping the body to serialize.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuildingBenchmark {
+
+    private static final String PATH = "app/my-sdb/config/database";
+
+    private CerberusClient client;
+
+    private HttpUrl url;
+
+    private Map<String, String> secret;
+
+    @Setup
+    public void setup() {
+        final Map<String, String> defaultHeaders = new HashMap<>();
+        defaultHeaders.put("X-Cerberus-Client", "CerberusJavaClient/benchmark");
+        client = CerberusClientFactory.getClient("https://cerberus.example.com",
+                () -> (CerberusCredentials) () -> "token", defaultHeaders);
+        url = client.buildUrl(CerberusClient.SECRET_PATH_PREFIX, PATH);
+
+        secret = new HashMap<>();
+        secret.put("username", "application");
+        secret.put("password", "correct horse battery staple");
+    }
+
+    @Benchmark
+    public HttpUrl buildUrl() {
+        return client.buildUrl(CerberusClient.SECRET_PATH_PREFIX, PATH);
+    }
+
+    @Benchmark
+    public Request buildReadRequest() {
+        return client.buildRequest(url, HttpMethod.GET, null);
+    }
+
+    @Benchmark
+    public Request buildWriteRequest() {
+        return client.buildRequest(url, HttpMethod.POST, secret);
+    }
+}
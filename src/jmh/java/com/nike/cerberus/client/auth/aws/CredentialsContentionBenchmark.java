@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.auth.aws;
+
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.TokenCerberusCredentials;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link BaseAwsCredentialsProvider#getCredentials()} called from many threads, which every client call
+ * does. With a valid token only the read lock is taken; with an expiring token threads regularly queue on the write
+ * lock while one of them re-authenticates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class CredentialsContentionBenchmark {
+
+    /**
+     * How long, in milliseconds, a token stays valid; 0 means it never expires during the run.
+     */
+    @Param({"0", "1"})
+    public int tokenLifetimeMillis;
+
+    private BaseAwsCredentialsProvider provider;
+
+    @Setup
+    public void setup() {
+        provider = new BaseAwsCredentialsProvider("https://cerberus.example.com") {
+            @Override
+            protected void authenticate() {
+                credentials = new TokenCerberusCredentials("token");
+                expireDateTime = tokenLifetimeMillis == 0
+                        ? DateTime.now().plusYears(1)
+                        : DateTime.now().plusMillis(tokenLifetimeMillis);
+            }
+        };
+    }
+
+    @Benchmark
+    public CerberusCredentials getCredentials() {
+        return provider.getCredentials();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.json;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding the model classes with the Gson and Jackson codecs, from a String and from a stream.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"secret", "safe-deposit-box", "list-safe-deposit-boxes", "list-files"})
+    public String payload;
+
+    @Param({"gson", "jackson"})
+    public String codec;
+
+    private CerberusJsonCodec jsonCodec;
+
+    private String json;
+
+    private byte[] jsonBytes;
+
+    private Type type;
+
+    @Setup
+    public void setup() throws IOException {
+        jsonCodec = "jackson".equals(codec) ? new JacksonCerberusJsonCodec() : new GsonCerberusJsonCodec();
+        json = ModelDecodingBenchmark.readResource(payload);
+        jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        type = ModelDecodingBenchmark.typeOf(payload);
+    }
+
+    @Benchmark
+    public Object fromString() {
+        return jsonCodec.fromJson(json, type);
+    }
+
+    @Benchmark
+    public Object fromStream() throws IOException {
+        return jsonCodec.fromJson(new ByteArrayInputStream(jsonBytes), type);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.reflect.TypeToken;
+import com.nike.cerberus.client.model.CerberusCategoryResponse;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusResponse;
+import com.nike.cerberus.client.model.CerberusRoleResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import org.apache.commons.io.IOUtils;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the hand-written model adapters in {@link CerberusTypeAdapterFactory} against Gson's reflective
+ * adapters configured the way the client used to configure them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelDecodingBenchmark {
+
+    @Param({"secret", "safe-deposit-box", "list-safe-deposit-boxes", "list-files", "category", "role"})
+    public String payload;
+
+    private Gson reflectiveGson;
+
+    private Gson adapterGson;
+
+    private String json;
+
+    private Type type;
+
+    @Setup
+    public void setup() throws IOException {
+        reflectiveGson = new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .disableHtmlEscaping()
+                .registerTypeAdapter(DateTime.class,
+                        (JsonDeserializer<DateTime>) (json, typeOfT, context) -> new DateTime(json.getAsString()))
+                .create();
+
+        adapterGson = new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .disableHtmlEscaping()
+                .registerTypeAdapterFactory(new CerberusTypeAdapterFactory())
+                .create();
+
+        json = readResource(payload);
+        type = typeOf(payload);
+    }
+
+    @Benchmark
+    public Object reflective() {
+        return reflectiveGson.fromJson(json, type);
+    }
+
+    @Benchmark
+    public Object typeAdapter() {
+        return adapterGson.fromJson(json, type);
+    }
+
+    static Type typeOf(String payload) {
+        switch (payload) {
+            case "secret":
+                return CerberusResponse.class;
+            case "safe-deposit-box":
+                return CerberusSafeDepositBoxResponse.class;
+            case "list-safe-deposit-boxes":
+                return new TypeToken<List<CerberusSafeDepositBoxSummaryResponse>>(){}.getType();
+            case "list-files":
+                return CerberusListFilesResponse.class;
+            case "category":
+                return new TypeToken<List<CerberusCategoryResponse>>(){}.getType();
+            case "role":
+                return new TypeToken<List<CerberusRoleResponse>>(){}.getType();
+            default:
+                throw new IllegalArgumentException("Unknown payload: " + payload);
+        }
+    }
+
+    static String readResource(String title) throws IOException {
+        try (InputStream inputStream = ModelDecodingBenchmark.class.getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title))) {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        }
+    }
+}
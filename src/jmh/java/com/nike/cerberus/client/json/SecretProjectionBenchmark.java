@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.json;
+
+import com.nike.cerberus.client.model.CerberusResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reading one key of a secret with many large values by de-serializing the whole response versus
+ * {@link CerberusJsonCodec#readSecretData}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecretProjectionBenchmark {
+
+    @Param({"10", "200"})
+    public int keys;
+
+    @Param({"gson", "jackson"})
+    public String codec;
+
+    private CerberusJsonCodec jsonCodec;
+
+    private byte[] json;
+
+    private String key;
+
+    @Setup
+    public void setup() {
+        jsonCodec = "jackson".equals(codec) ? new JacksonCerberusJsonCodec() : new GsonCerberusJsonCodec();
+
+        final String pem = "-----BEGIN CERTIFICATE-----\\n" + StringUtils.repeat("MIIDdzCCAl+gAwIBAgIE", 100)
+                + "\\n-----END CERTIFICATE-----";
+        final StringBuilder builder = new StringBuilder("{\"renewable\":false,\"data\":{");
+        for (int i = 0; i < keys; i++) {
+            builder.append(i == 0 ? "" : ",").append("\"key-").append(i).append("\":\"").append(pem).append('"');
+        }
+        builder.append("}}");
+        json = builder.toString().getBytes(StandardCharsets.UTF_8);
+        key = "key-" + (keys / 2);
+    }
+
+    @Benchmark
+    public String fullResponse() throws IOException {
+        final CerberusResponse response = jsonCodec.fromJson(new ByteArrayInputStream(json), CerberusResponse.class);
+        return response.getData().get(key);
+    }
+
+    @Benchmark
+    public String projected() throws IOException {
+        final String[] value = new String[1];
+        jsonCodec.readSecretData(new ByteArrayInputStream(json), key::equals, (k, v) -> value[0] = v);
+        return value[0];
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import java.util.Random;
+
+/**
+ * Distribution the stand-in server draws its response delays from, in milliseconds.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    /**
+     * @param random Source of randomness, confined to the calling thread
+     * @return The next delay in milliseconds
+     */
+    long nextMillis(Random random);
+
+    static LatencyDistribution none() {
+        return random -> 0;
+    }
+
+    static LatencyDistribution fixed(long millis) {
+        return random -> millis;
+    }
+
+    static LatencyDistribution uniform(long minMillis, long maxMillis) {
+        return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+    }
+
+    /**
+     * Log-normal delays, the usual shape of service latencies: most are close to the median, with a long tail.
+     *
+     * @param medianMillis Median delay
+     * @param sigma        Standard deviation of the underlying normal distribution; 0.5 gives a p99 of ~3x the
+     *                     median, 1.0 of ~10x
+     * @return The distribution
+     */
+    static LatencyDistribution logNormal(double medianMillis, double sigma) {
+        return random -> Math.round(medianMillis * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    /**
+     * Parses a distribution: <code>none</code>, <code>fixed:MS</code>, <code>uniform:MIN,MAX</code> or
+     * <code>lognormal:MEDIAN,SIGMA</code>.
+     *
+     * @param value The specification
+     * @return The distribution
+     */
+    static LatencyDistribution parse(String value) {
+        final String[] parts = value.split(":", 2);
+        final String[] arguments = parts.length > 1 ? parts[1].split(",") : new String[0];
+        switch (parts[0]) {
+            case "none":
+                return none();
+            case "fixed":
+                return fixed(Long.parseLong(arguments[0]));
+            case "uniform":
+                return uniform(Long.parseLong(arguments[0]), Long.parseLong(arguments[1]));
+            case "lognormal":
+                return logNormal(Double.parseDouble(arguments[0]), Double.parseDouble(arguments[1]));
+            default:
+                throw new IllegalArgumentException("Unknown latency distribution: " + value);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MockWebServer dispatcher standing in for Cerberus: it answers secret, list and file calls with fixed payloads
+ * after a delay drawn from a {@link LatencyDistribution}, and fails or slows down a configurable fraction of calls.
+ * <p>
+ * MockWebServer serves each connection on its own thread, so delays only hold up the connection they are on, like
+ * a real server with a thread per request.
+ * </p>
+ */
+public class LatencyInjectingDispatcher extends Dispatcher {
+
+    private static final String SECRET = "{\"data\":{\"username\":\"load-test\",\"password\":\"hunter2\"}}";
+
+    private static final String ERROR = "{\"error_id\":\"load-test\",\"errors\":[{\"code\":99999,\"message\":\"Injected error\"}]}";
+
+    private final LatencyDistribution latency;
+
+    private final double serverErrorRate;
+
+    private final double throttleRate;
+
+    private final double slowBodyRate;
+
+    private final long slowBodyBytesPerSecond;
+
+    private final String list;
+
+    private final String listFiles;
+
+    private final byte[] file;
+
+    /**
+     * @param latency                Delay before the response headers are sent
+     * @param serverErrorRate        Fraction of calls answered with a 503
+     * @param throttleRate           Fraction of calls answered with a 429
+     * @param slowBodyRate           Fraction of successful calls whose body is trickled out
+     * @param slowBodyBytesPerSecond Speed of a trickled body
+     * @param fileSize               Size of the file returned for file reads
+     */
+    public LatencyInjectingDispatcher(LatencyDistribution latency,
+                                      double serverErrorRate,
+                                      double throttleRate,
+                                      double slowBodyRate,
+                                      long slowBodyBytesPerSecond,
+                                      int fileSize) {
+        this.latency = latency;
+        this.serverErrorRate = serverErrorRate;
+        this.throttleRate = throttleRate;
+        this.slowBodyRate = slowBodyRate;
+        this.slowBodyBytesPerSecond = slowBodyBytesPerSecond;
+
+        final StringBuilder keys = new StringBuilder("{\"data\":{\"keys\":[");
+        final StringBuilder files = new StringBuilder("{\"has_next\":false,\"next_offset\":null,\"limit\":100,\"offset\":0,"
+                + "\"file_count_in_result\":100,\"total_file_count\":100,\"secure_file_summaries\":[");
+        for (int i = 0; i < 100; i++) {
+            keys.append(i == 0 ? "" : ",").append("\"secret-").append(i).append('"');
+            files.append(i == 0 ? "" : ",").append("{\"sdbox_id\":\"load-test\",\"path\":\"")
+                    .append(Operation.SDB_PATH).append("file-").append(i)
+                    .append("\",\"size_in_bytes\":").append(fileSize).append(",\"name\":\"file-").append(i)
+                    .append("\",\"created_by\":\"load-test\",\"created_ts\":\"2020-01-01T00:00:00Z\"")
+                    .append(",\"last_updated_by\":\"load-test\",\"last_updated_ts\":\"2020-01-01T00:00:00Z\"}");
+        }
+        list = keys.append("]}}").toString();
+        listFiles = files.append("]}").toString();
+        file = new byte[fileSize];
+        new Random(0).nextBytes(file);
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long delay = Math.max(0, latency.nextMillis(random));
+
+        final double roll = random.nextDouble();
+        if (roll < serverErrorRate) {
+            return delayed(new MockResponse().setResponseCode(503).setBody(ERROR), delay);
+        } else if (roll < serverErrorRate + throttleRate) {
+            return delayed(new MockResponse().setResponseCode(429).setBody(ERROR), delay);
+        }
+
+        final MockResponse response = respond(request);
+        if (random.nextDouble() < slowBodyRate) {
+            // a tenth of the rate every 100ms
+            response.throttleBody(Math.max(1, slowBodyBytesPerSecond / 10), 100, TimeUnit.MILLISECONDS);
+        }
+        return delayed(response, delay);
+    }
+
+    private MockResponse respond(RecordedRequest request) {
+        final String path = request.getPath();
+        if ("POST".equals(request.getMethod()) || "DELETE".equals(request.getMethod())) {
+            return new MockResponse().setResponseCode(204);
+        } else if (path.startsWith("/v1/secure-files/")) {
+            return new MockResponse().setResponseCode(200).setBody(listFiles);
+        } else if (path.startsWith("/v1/secure-file/")) {
+            return new MockResponse().setResponseCode(200).setBody(new Buffer().write(file));
+        } else if (path.contains("list=true")) {
+            return new MockResponse().setResponseCode(200).setBody(list);
+        }
+        return new MockResponse().setResponseCode(200).setBody(SECRET);
+    }
+
+    private static MockResponse delayed(MockResponse response, long delayMillis) {
+        return delayMillis == 0 ? response : response.setHeadersDelay(delayMillis, TimeUnit.MILLISECONDS);
+    }
+}
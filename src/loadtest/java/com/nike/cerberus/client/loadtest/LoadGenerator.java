@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusServerApiException;
+import com.nike.cerberus.client.CerberusServerException;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a {@link CerberusClient} with a mix of operations and records each call's latency, in microseconds, in an
+ * HdrHistogram per operation.
+ * <ul>
+ *     <li><b>Closed model</b>: each thread starts its next call as soon as the previous one returns, so the load
+ *     adapts to the client's speed and the result is its throughput ceiling.</li>
+ *     <li><b>Open model</b>: calls arrive at a fixed rate whether or not earlier ones have finished, like requests to a
+ *     service. Latency is measured from when the call was due, so time spent waiting for a free thread counts, which
+ *     avoids coordinated omission.</li>
+ * </ul>
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final CerberusClient client;
+
+    private final OperationMix mix;
+
+    private final int threads;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    public LoadGenerator(CerberusClient client, OperationMix mix, int threads) {
+        this.client = client;
+        this.mix = mix;
+        this.threads = threads;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+        }
+    }
+
+    /**
+     * Runs the closed model.
+     *
+     * @param warmup   Time to run before recording
+     * @param duration Time to record
+     * @return The results of the recorded period
+     */
+    public LoadTestResults runClosed(Duration warmup, Duration duration) throws InterruptedException {
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                final ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    call(mix.next(random), System.nanoTime());
+                }
+            }, "load-test-" + i);
+            workers[i].start();
+        }
+
+        final LoadTestResults results = record(warmup, duration);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return results;
+    }
+
+    /**
+     * Runs the open model. Arrivals stop when the recorded period ends; the calls still queued or in flight then,
+     * which under overload are the slowest, are waited for and recorded before the results are taken.
+     *
+     * @param ratePerSecond Calls started per second, from 1 to 1,000,000,000
+     * @param warmup        Time to run before recording
+     * @param duration      Time to record
+     * @return The results of the recorded period
+     */
+    public LoadTestResults runOpen(int ratePerSecond, Duration warmup, Duration duration) throws InterruptedException {
+        if (ratePerSecond < 1 || ratePerSecond > TimeUnit.SECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("Rate per second must be between 1 and 1000000000.");
+        }
+
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        final long start = System.nanoTime();
+        final long end = start + warmup.toNanos() + duration.toNanos();
+
+        final Thread arrivals = new Thread(() -> {
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (long due = start; due < end; due += intervalNanos) {
+                final long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                executor.execute(new Arrival(mix.next(random), due));
+            }
+        }, "load-test-arrivals");
+        arrivals.start();
+
+        final long startedAt = startRecording(warmup);
+        arrivals.join();
+        final long elapsedNanos = System.nanoTime() - startedAt;
+
+        executor.shutdown();
+        if (!executor.awaitTermination(HIGHEST_TRACKABLE_MICROS, TimeUnit.MICROSECONDS)) {
+            // record the calls that never started at the latency they have reached, so they are not omitted
+            for (Runnable queued : executor.shutdownNow()) {
+                final Arrival arrival = (Arrival) queued;
+                error(arrival.operation + " NOT_STARTED");
+                record(arrival.operation, arrival.intendedStart);
+            }
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        }
+        return results(elapsedNanos);
+    }
+
+    private LoadTestResults record(Duration warmup, Duration duration) throws InterruptedException {
+        final long startedAt = startRecording(warmup);
+        Thread.sleep(duration.toMillis());
+        return results(System.nanoTime() - startedAt);
+    }
+
+    private long startRecording(Duration warmup) throws InterruptedException {
+        Thread.sleep(warmup.toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.clear();
+        return System.nanoTime();
+    }
+
+    private LoadTestResults results(long elapsedNanos) {
+        final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        final Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((error, count) -> errorCounts.put(error, count.sum()));
+        return new LoadTestResults(histograms, errorCounts, elapsedNanos);
+    }
+
+    private void call(Operation operation, long intendedStart) {
+        try {
+            operation.run(client, ThreadLocalRandom.current());
+        } catch (CerberusServerApiException e) {
+            error(operation + " " + e.getCode());
+        } catch (CerberusServerException e) {
+            error(operation + " " + e.getCode());
+        } catch (RuntimeException e) {
+            error(operation + " " + e.getClass().getSimpleName());
+        }
+        record(operation, intendedStart);
+    }
+
+    private void record(Operation operation, long intendedStart) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedStart);
+        recorders.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private void error(String key) {
+        errors.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * A call of the open model, due at its intended start.
+     */
+    private final class Arrival implements Runnable {
+
+        private final Operation operation;
+
+        private final long intendedStart;
+
+        private Arrival(Operation operation, long intendedStart) {
+            this.operation = operation;
+            this.intendedStart = intendedStart;
+        }
+
+        @Override
+        public void run() {
+            call(operation, intendedStart);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.NoDelayServerSocketFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import okhttp3.mockwebserver.MockWebServer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs {@link CerberusClient} against a local {@link LatencyInjectingDispatcher} and prints HdrHistogram latency
+ * percentiles per operation. Settings are passed as <code>name=value</code> arguments:
+ * <pre>
+ * threads=16                   client threads, and the size of the client's connection pool
+ * model=closed                 closed (threads call back to back) or open (calls arrive at a fixed rate)
+ * rate=1000                    calls per second in the open model
+ * warmup=5                     seconds to run before recording
+ * duration=30                  seconds to record
+ * mix=read:80,list:10,write:10 weighted operations: read, list, list_files, read_file, write
+ * latency=none                 server delay: none, fixed:MS, uniform:MIN,MAX or lognormal:MEDIAN,SIGMA
+ * errorRate=0                  fraction of calls answered with a 503, which the client retries
+ * throttleRate=0               fraction of calls answered with a 429
+ * slowBodyRate=0               fraction of calls whose body is sent at slowBodyBytesPerSecond
+ * slowBodyBytesPerSecond=16384
+ * fileSize=1024                size of files returned by read_file
+ * </pre>
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        final Map<String, String> settings = parse(args);
+        final int threads = Integer.parseInt(settings.getOrDefault("threads", "16"));
+        final String model = settings.getOrDefault("model", "closed");
+        final int rate = Integer.parseInt(settings.getOrDefault("rate", "1000"));
+        final Duration warmup = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("warmup", "5")));
+        final Duration duration = Duration.ofSeconds(Long.parseLong(settings.getOrDefault("duration", "30")));
+        final OperationMix mix = OperationMix.parse(settings.getOrDefault("mix", "read:80,list:10,write:10"));
+
+        final MockWebServer server = new MockWebServer();
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(new LatencyInjectingDispatcher(
+                LatencyDistribution.parse(settings.getOrDefault("latency", "none")),
+                Double.parseDouble(settings.getOrDefault("errorRate", "0")),
+                Double.parseDouble(settings.getOrDefault("throttleRate", "0")),
+                Double.parseDouble(settings.getOrDefault("slowBodyRate", "0")),
+                Long.parseLong(settings.getOrDefault("slowBodyBytesPerSecond", "16384")),
+                Integer.parseInt(settings.getOrDefault("fileSize", "1024"))));
+        server.start();
+
+        try {
+            final CerberusClient client = CerberusClientFactory.getClient(server.url("/").toString(),
+                    () -> (CerberusCredentials) () -> "load-test-token",
+                    Math.max(threads, 64),
+                    threads,
+                    CerberusClientFactory.DEFAULT_TIMEOUT,
+                    CerberusClientFactory.DEFAULT_TIMEOUT,
+                    CerberusClientFactory.DEFAULT_TIMEOUT,
+                    new HashMap<>());
+            final LoadGenerator generator = new LoadGenerator(client, mix, threads);
+
+            System.out.printf("Running %s model with %d threads%s for %ds after %ds of warmup, settings %s%n",
+                    model, threads, "open".equals(model) ? " at " + rate + " calls/s" : "",
+                    duration.getSeconds(), warmup.getSeconds(), settings);
+            final LoadTestResults results;
+            if ("open".equals(model)) {
+                results = generator.runOpen(rate, warmup, duration);
+            } else if ("closed".equals(model)) {
+                results = generator.runClosed(warmup, duration);
+            } else {
+                throw new IllegalArgumentException("Unknown model: " + model);
+            }
+
+            System.out.println("Latencies in milliseconds:");
+            results.print(System.out);
+        } finally {
+            server.shutdown();
+        }
+    }
+
+    static Map<String, String> parse(String[] args) {
+        final Map<String, String> settings = new HashMap<>();
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Expected name=value but got: " + arg);
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        return settings;
+    }
+}
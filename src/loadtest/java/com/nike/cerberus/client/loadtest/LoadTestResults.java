@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencies and errors of a load test run.
+ */
+public class LoadTestResults {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+
+    private final Map<Operation, Histogram> histograms;
+
+    private final Map<String, Long> errors;
+
+    private final long elapsedNanos;
+
+    LoadTestResults(Map<Operation, Histogram> histograms, Map<String, Long> errors, long elapsedNanos) {
+        this.histograms = histograms;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Latencies in microseconds per operation, including failed calls
+     */
+    public Map<Operation, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * @return Number of failed calls by operation and status code or exception
+     */
+    public Map<String, Long> getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return Calls per second over all operations
+     */
+    public double getThroughput() {
+        final long calls = histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+        return calls / (elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Prints a table of throughput and latency percentiles in milliseconds per operation, followed by the errors.
+     *
+     * @param out Where to print
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-12s %10s %9s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "calls", "ops/s", "p50", "p90", "p99", "p99.9", "p99.99", "max");
+        final Histogram total = new Histogram(3);
+        histograms.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                printRow(out, operation.name(), histogram);
+                total.add(histogram);
+            }
+        });
+        printRow(out, "all", total);
+
+        if (!errors.isEmpty()) {
+            out.println();
+            out.println("errors:");
+            errors.forEach((error, count) -> out.printf(Locale.ROOT, "  %-30s %10d%n", error, count));
+        }
+    }
+
+    private void printRow(PrintStream out, String name, Histogram histogram) {
+        final double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        out.printf(Locale.ROOT, "%-12s %10d %9.1f", name, histogram.getTotalCount(), histogram.getTotalCount() / seconds);
+        for (double percentile : PERCENTILES) {
+            out.printf(Locale.ROOT, " %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf(Locale.ROOT, " %9.2f%n", histogram.getMaxValue() / 1000.0);
+    }
+}
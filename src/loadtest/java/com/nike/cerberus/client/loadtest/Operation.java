@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import com.nike.cerberus.client.CerberusClient;
+
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * Client calls the load test can make.
+ */
+public enum Operation {
+
+    READ {
+        @Override
+        void run(CerberusClient client, Random random) {
+            client.read(SDB_PATH + "secret-" + random.nextInt(KEYS));
+        }
+    },
+    LIST {
+        @Override
+        void run(CerberusClient client, Random random) {
+            client.list(SDB_PATH);
+        }
+    },
+    LIST_FILES {
+        @Override
+        void run(CerberusClient client, Random random) {
+            client.listFiles(SDB_PATH);
+        }
+    },
+    READ_FILE {
+        @Override
+        void run(CerberusClient client, Random random) {
+            client.readFileAsBytes(SDB_PATH + "file-" + random.nextInt(KEYS));
+        }
+    },
+    WRITE {
+        @Override
+        void run(CerberusClient client, Random random) {
+            client.write(SDB_PATH + "secret-" + random.nextInt(KEYS),
+                    Collections.singletonMap("value", Long.toHexString(random.nextLong())));
+        }
+    };
+
+    static final String SDB_PATH = "app/load-test/";
+
+    private static final int KEYS = 1000;
+
+    abstract void run(CerberusClient client, Random random);
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Weighted choice of the operation to run next, e.g. <code>read:80,list:10,write:10</code>.
+ */
+public class OperationMix {
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final int totalWeight;
+
+    public OperationMix(Map<Operation, Integer> weights) {
+        operations = new Operation[weights.size()];
+        cumulativeWeights = new int[weights.size()];
+        int total = 0;
+        int i = 0;
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            if (weight.getValue() <= 0) {
+                throw new IllegalArgumentException("Weights must be positive: " + weight);
+            }
+            total += weight.getValue();
+            operations[i] = weight.getKey();
+            cumulativeWeights[i++] = total;
+        }
+
+        if (total == 0) {
+            throw new IllegalArgumentException("The mix needs at least one operation.");
+        }
+        totalWeight = total;
+    }
+
+    /**
+     * @param random Source of randomness, confined to the calling thread
+     * @return The next operation
+     */
+    public Operation next(Random random) {
+        final int value = random.nextInt(totalWeight);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        throw new IllegalStateException("Unreachable");
+    }
+
+    /**
+     * @param value Comma separated <code>operation:weight</code> pairs
+     * @return The mix
+     */
+    public static OperationMix parse(String value) {
+        final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            final String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)),
+                    parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1);
+        }
+        return new OperationMix(weights);
+    }
+}
@@ -16,16 +16,32 @@
 
 package com.nike.cerberus.client;
 
-import com.google.gson.FieldNamingPolicy;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.auth.aws.BaseAwsCredentialsProvider;
+import com.nike.cerberus.client.bind.SecretBinder;
+import com.nike.cerberus.client.bind.SecretBindingException;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.cache.CategoryRegistry;
+import com.nike.cerberus.client.cache.ContentFingerprint;
+import com.nike.cerberus.client.cache.RefreshingValue;
+import com.nike.cerberus.client.cache.RoleRegistry;
+import com.nike.cerberus.client.cache.SafeDepositBoxIndex;
+import com.nike.cerberus.client.cache.SecretCache;
 import com.nike.cerberus.client.http.HttpHeader;
 import com.nike.cerberus.client.http.HttpMethod;
 import com.nike.cerberus.client.http.HttpStatus;
+import com.nike.cerberus.client.http.JsonRequestBody;
+import com.nike.cerberus.client.jfr.CerberusFlightRecorder;
+import com.nike.cerberus.client.jfr.CerberusFlightRecorder.RequestRecording;
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import com.nike.cerberus.client.json.GsonCerberusJsonCodec;
+import com.nike.cerberus.client.json.JsonCodecException;
+import com.nike.cerberus.client.metrics.CerberusMetrics;
+import com.nike.cerberus.client.metrics.CerberusOperation;
+import com.nike.cerberus.client.metrics.SlowCallLog;
 import com.nike.cerberus.client.model.CerberusCategoryResponse;
 import com.nike.cerberus.client.model.CerberusListFilesResponse;
 import com.nike.cerberus.client.model.CerberusListResponse;
@@ -37,9 +53,12 @@ import com.nike.cerberus.client.model.CerberusRoleResponse;
 import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
 import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
 import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.tracing.CerberusSpan;
+import com.nike.cerberus.client.tracing.CerberusTracer;
 import io.github.resilience4j.core.IntervalFunction;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryConfig;
+import okhttp3.Dispatcher;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.MediaType;
@@ -48,8 +67,8 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.apache.commons.lang3.StringUtils;
-import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,10 +77,19 @@ import java.io.IOException;
 import java.lang.reflect.Type;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
 
 /**
  * Client for interacting with a Cerberus.
@@ -84,6 +112,18 @@ public class CerberusClient {
 
     protected static final int DEFAULT_NUM_RETRIES = 3;
 
+    public static final Duration DEFAULT_METADATA_CACHE_TTL = Duration.ofMinutes(1);
+
+    private static final long UNKNOWN_FILE_SIZE = -2;
+
+    private static final String SECRET_CACHE_NAME = "secret";
+
+    /**
+     * The retry attempt being made on this thread, so that the tracing span and slow call trace reach
+     * {@link #execute(Request)} through the overridable {@link #execute(HttpUrl, String, Object)}.
+     */
+    private static final ThreadLocal<Attempt> CURRENT_ATTEMPT = new ThreadLocal<>();
+
     private static final RetryConfig RETRY_CONFIG =
             RetryConfig.<Response>custom()
                     .maxAttempts(DEFAULT_NUM_RETRIES)
@@ -102,20 +142,57 @@ public class CerberusClient {
 
     private final Headers defaultHeaders;
 
-    private final Gson gson = new GsonBuilder()
-            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-            .disableHtmlEscaping()
-            .registerTypeAdapter(DateTime.class,
-                    (JsonDeserializer<DateTime>) (json, typeOfT, context) -> new DateTime(json.getAsString()))
-            .create();
+    private final CerberusJsonCodec jsonCodec;
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final RefreshingValue<SafeDepositBoxIndex> safeDepositBoxIndex =
+            new RefreshingValue<>(() -> new SafeDepositBoxIndex(listSafeDepositBoxes()), DEFAULT_METADATA_CACHE_TTL);
+
+    private final RefreshingValue<CategoryRegistry> categoryRegistry =
+            new RefreshingValue<>(() -> new CategoryRegistry(listCategories()), DEFAULT_METADATA_CACHE_TTL);
+
+    private final RefreshingValue<RoleRegistry> roleRegistry =
+            new RefreshingValue<>(() -> new RoleRegistry(listRoles()), DEFAULT_METADATA_CACHE_TTL);
+
+    private final Map<String, String> secretFingerprints = new ConcurrentHashMap<>();
+
+    private final Map<String, String> fileFingerprints = new ConcurrentHashMap<>();
+
+    private volatile boolean fingerprintCacheEnabled;
+
+    private volatile SecretCache secretCache;
+
+    private volatile CerberusMetrics metrics = CerberusMetrics.NOOP;
+
+    private volatile CerberusTracer tracer = CerberusTracer.NOOP;
+
+    private volatile SlowCallLog slowCallLog;
+
     public CerberusClient(final String cerberusUrl,
                           final CerberusCredentialsProvider credentialsProvider,
                           final OkHttpClient httpClient,
                           final Headers defaultHeaders) {
 
+        this(cerberusUrl, credentialsProvider, httpClient, defaultHeaders, new GsonCerberusJsonCodec());
+    }
+
+    /**
+     * Explicit constructor that allows for full control over construction of the Cerberus client, including how
+     * requests and responses are (de)serialized.
+     *
+     * @param cerberusUrl          URL for Cerberus
+     * @param credentialsProvider  Credential provider for acquiring a token for interacting with Cerberus
+     * @param httpClient           HTTP client for calling Cerberus
+     * @param defaultHeaders       Headers to add to every HTTP request
+     * @param jsonCodec            Codec for serializing requests and de-serializing responses
+     */
+    public CerberusClient(final String cerberusUrl,
+                          final CerberusCredentialsProvider credentialsProvider,
+                          final OkHttpClient httpClient,
+                          final Headers defaultHeaders,
+                          final CerberusJsonCodec jsonCodec) {
+
         if (cerberusUrl == null) {
             throw new IllegalArgumentException("Cerberus URL cannot be null.");
         }
@@ -132,10 +209,15 @@ public class CerberusClient {
             throw new IllegalArgumentException("Default headers cannot be null.");
         }
 
+        if (jsonCodec == null) {
+            throw new IllegalArgumentException("JSON codec cannot be null.");
+        }
+
         this.url = cerberusUrl;
         this.credentialsProvider = credentialsProvider;
         this.httpClient = httpClient;
         this.defaultHeaders = defaultHeaders;
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -165,6 +247,7 @@ public class CerberusClient {
         this.credentialsProvider = credentialsProvider;
         this.httpClient = httpClient;
         this.defaultHeaders = new Headers.Builder().build();
+        this.jsonCodec = new GsonCerberusJsonCodec();
     }
 
     /**
@@ -180,16 +263,28 @@ public class CerberusClient {
      * @return Map containing the keys at that path
      */
     public CerberusListResponse list(final String path) {
+        final SecretCache cache = secretCache;
+        if (cache == null) {
+            return listFromCerberus(path);
+        }
+
+        final List<String> cachedKeys = cache.getKeys(path);
+        recordSecretCacheAccess(HttpMethod.GET, SECRET_PATH_PREFIX, path + "?list=true", cachedKeys != null);
+        if (cachedKeys != null) {
+            return new CerberusListResponse().setKeys(new ArrayList<>(cachedKeys));
+        }
+
+        final long version = cache.getVersion(SecretCache.EntryType.LIST, path);
+        final CerberusListResponse response = listFromCerberus(path);
+        cache.putKeys(path, response.getKeys(), version);
+        return response;
+    }
 
+    private CerberusListResponse listFromCerberus(final String path) {
         final HttpUrl httpUrl = buildUrl(SECRET_PATH_PREFIX, path + "?list=true");
         logger.debug("list: requestUrl={}", httpUrl);
 
-        final Response response = ofSupplier(
-                    () -> execute(httpUrl, HttpMethod.GET, null)
-            )
-            .withRetry(RETRY)
-            .decorate()
-            .get();
+        final Response response = executeWithRetry(httpUrl, HttpMethod.GET, null);
 
         if (response.code() == HttpStatus.NOT_FOUND) {
             response.close();
@@ -198,10 +293,7 @@ public class CerberusClient {
             parseAndThrowApiErrorResponse(response);
         }
 
-        final Type mapType = new TypeToken<Map<String, Object>>() {
-        }.getType();
-        final Map<String, Object> rootData = parseResponseBody(response, mapType);
-        return gson.fromJson(gson.toJson(rootData.get("data")), CerberusListResponse.class);
+        return parseResponseBody(response, ListResponse.class).getData();
     }
 
     /**
@@ -240,12 +332,7 @@ public class CerberusClient {
         final HttpUrl httpUrl = buildUrl("v1/secure-files/", path, limit, offset);
 
         logger.debug("list: requestUrl={}, limit={}, offset={}", httpUrl, limit, offset);
-        final Response response = ofSupplier(
-                () -> execute(httpUrl, HttpMethod.GET, null)
-        )
-                .withRetry(RETRY)
-                .decorate()
-                .get();
+        final Response response = executeWithRetry(httpUrl, HttpMethod.GET, null);
 
         if (response.code() != HttpStatus.OK) {
             parseAndThrowApiErrorResponse(response);
@@ -264,9 +351,127 @@ public class CerberusClient {
      * @return Map of the data
      */
     public CerberusResponse read(final String path) {
+        final SecretCache cache = secretCache;
+        if (cache == null) {
+            return readUncached(path);
+        }
+
+        final Map<String, String> cachedData = cache.getSecret(path);
+        recordSecretCacheAccess(HttpMethod.GET, SECRET_PATH_PREFIX, path, cachedData != null);
+        if (cachedData != null) {
+            return new CerberusResponse().setData(new LinkedHashMap<>(cachedData));
+        }
+
+        final long version = cache.getVersion(SecretCache.EntryType.SECRET, path);
+        final CerberusResponse response = readUncached(path);
+        if (response.getData() != null) {
+            cache.putSecret(path, response.getData(), version);
+        }
+        return response;
+    }
+
+    /**
+     * Read operation for a specified path that always reads from Cerberus, bypassing the
+     * {@link #setSecretCache(SecretCache) secret cache}, e.g. to read the current data before modifying it and
+     * writing it back. The cache is not updated with the data read.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path to the data
+     * @return Map of the data
+     */
+    public CerberusResponse readUncached(final String path) {
         return buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.GET, null, CerberusResponse.class);
     }
 
+    /**
+     * Read specific keys of the data at the specified path. Only the values of the requested keys are de-serialized,
+     * the rest of the response is skipped. Keys that are not stored at the path are not included in the result.
+     * The data is always read from Cerberus, the {@link #setSecretCache(SecretCache) secret cache} is not used.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path to the data
+     * @param keys Keys to read
+     * @return Map of the requested data
+     */
+    public CerberusResponse read(final String path, final Set<String> keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Keys cannot be null.");
+        }
+
+        final Response response = buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.GET, null);
+        return new CerberusResponse().setData(parseSecretData(response, keys::contains));
+    }
+
+    /**
+     * Read the data at the specified path and bind it to a new instance of the specified class, see
+     * {@link SecretBinder} for how keys are mapped to fields. The data is bound while the response is streamed and
+     * only the values of keys that are bound to a field are de-serialized. The data is always read from Cerberus,
+     * the {@link #setSecretCache(SecretCache) secret cache} is not used.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path to the data
+     * @param type Class to bind the data to
+     * @param <T>  The class to bind the data to
+     * @return Instance of the class with the data bound to it
+     * @throws SecretBindingException if the class cannot be bound to or a value cannot be converted
+     */
+    public <T> T read(final String path, final Class<T> type) {
+        final SecretBinder<T> binder = SecretBinder.of(type);
+        final T instance = binder.newInstance();
+
+        final Response response = buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.GET, null);
+        readSecretData(response, binder::isBound, (key, value) -> binder.bind(instance, key, value));
+        return instance;
+    }
+
+    /**
+     * Read a single value of the data at the specified path. Only the value of the requested key is de-serialized,
+     * the rest of the response is skipped. The data is always read from Cerberus, the
+     * {@link #setSecretCache(SecretCache) secret cache} is not used.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path to the data
+     * @param key  Key to read
+     * @return The value, or null if the key is not stored at the path
+     */
+    public String readValue(final String path, final String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key cannot be null.");
+        }
+
+        final Response response = buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.GET, null);
+        return parseSecretData(response, key::equals).get(key);
+    }
+
+    /**
+     * Read the key names of the data at the specified path. None of the values are de-serialized, which makes this
+     * suitable for audits that must not handle secret values. The data is always read from Cerberus, the
+     * {@link #setSecretCache(SecretCache) secret cache} is not used.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path to the data
+     * @return Key names in the order they are stored
+     */
+    public Set<String> readKeys(final String path) {
+        final Set<String> keys = new LinkedHashSet<>();
+        final Response response = buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.GET, null);
+        readSecretData(response, key -> {
+            keys.add(key);
+            return false;
+        }, (key, value) -> { });
+        return keys;
+    }
+
     /**
      * Read the binary contents of the file at the specified path. Will return the file contents stored at the specified path.
      * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
@@ -277,8 +482,23 @@ public class CerberusClient {
      * @return File contents
      */
     public byte[] readFileAsBytes(final String path) {
+        final SecretCache cache = secretCache;
+        if (cache == null) {
+            Response response = buildAndExecuteRequest(SECURE_FILE_PATH_PREFIX, path, HttpMethod.GET, null);
+            return responseBodyAsBytes(response);
+        }
+
+        final byte[] cachedContents = cache.getFile(path);
+        recordSecretCacheAccess(HttpMethod.GET, SECURE_FILE_PATH_PREFIX, path, cachedContents != null);
+        if (cachedContents != null) {
+            return cachedContents;
+        }
+
+        final long version = cache.getVersion(SecretCache.EntryType.FILE, path);
         Response response = buildAndExecuteRequest(SECURE_FILE_PATH_PREFIX, path, HttpMethod.GET, null);
-        return responseBodyAsBytes(response);
+        final byte[] contents = responseBodyAsBytes(response);
+        cache.putFile(path, contents, version);
+        return contents;
     }
 
     /**
@@ -290,7 +510,94 @@ public class CerberusClient {
      * @param data Data to be stored
      */
     public void write(final String path, final Map<String, String> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+
         buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.POST, data);
+        if (fingerprintCacheEnabled) {
+            secretFingerprints.put(path, ContentFingerprint.of(data));
+        }
+        final SecretCache cache = secretCache;
+        if (cache != null) {
+            cache.secretWritten(path, data);
+        }
+    }
+
+    /**
+     * Writes the data only if it differs from the data stored at the path, compared by {@link ContentFingerprint}.
+     * The stored data is read to compare it, unless the {@link #setFingerprintCacheEnabled(boolean) fingerprint
+     * cache} already holds the fingerprint of the data this client last wrote to or compared at the path.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path Path for where to store the data
+     * @param data Data to be stored
+     * @return Whether the data was written
+     */
+    public boolean writeIfChanged(final String path, final Map<String, String> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+
+        final String fingerprint = ContentFingerprint.of(data);
+        if (fingerprintCacheEnabled && fingerprint.equals(secretFingerprints.get(path))) {
+            return false;
+        }
+
+        final Map<String, String> current = readIfExists(path);
+        if (current != null && fingerprint.equals(ContentFingerprint.of(current))) {
+            if (fingerprintCacheEnabled) {
+                secretFingerprints.put(path, fingerprint);
+            }
+            return false;
+        }
+
+        write(path, data);
+        return true;
+    }
+
+    /**
+     * Writes the data of many paths concurrently, with the concurrency and rate limits of the bulk executor, and
+     * waits until all writes are done. A failed write does not stop the others.
+     *
+     * @param data         Map of path to the data to be stored at that path
+     * @param bulkExecutor Executor that runs the writes
+     * @return One result per path, in the iteration order of the map. Failed results hold the
+     * {@link CerberusServerApiException} or {@link CerberusClientException} of the write
+     */
+    public List<BulkResult<String, Void>> writeAll(final Map<String, Map<String, String>> data,
+                                                   final BulkExecutor bulkExecutor) {
+        return writeAll(data, bulkExecutor, false);
+    }
+
+    /**
+     * Writes the data of many paths concurrently, with the concurrency and rate limits of the bulk executor, and
+     * waits until all writes are done. When stopping on the first failure, writes that have not been started once a
+     * write fails are skipped and their results hold a {@link java.util.concurrent.CancellationException}.
+     *
+     * @param data               Map of path to the data to be stored at that path
+     * @param bulkExecutor       Executor that runs the writes
+     * @param stopOnFirstFailure Whether to skip the remaining writes after a failure
+     * @return One result per path, in the iteration order of the map. Failed results hold the
+     * {@link CerberusServerApiException} or {@link CerberusClientException} of the write
+     */
+    public List<BulkResult<String, Void>> writeAll(final Map<String, Map<String, String>> data,
+                                                   final BulkExecutor bulkExecutor,
+                                                   final boolean stopOnFirstFailure) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+
+        if (bulkExecutor == null) {
+            throw new IllegalArgumentException("Bulk executor cannot be null.");
+        }
+
+        return bulkExecutor.execute(data.keySet(), path -> {
+            write(path, data.get(path));
+            return null;
+        }, stopOnFirstFailure);
     }
 
     /**
@@ -302,6 +609,10 @@ public class CerberusClient {
      * @param contents File contents to be stored
      */
     public void writeFile(final String path, final byte[] contents) {
+        if (contents == null) {
+            throw new IllegalArgumentException("Contents cannot be null.");
+        }
+
         final String fileName = StringUtils.substringAfterLast(path, "/");
         final HttpUrl httpUrl = buildUrl(SECURE_FILE_PATH_PREFIX, path);
         logger.debug("write: requestUrl={}", httpUrl);
@@ -325,6 +636,54 @@ public class CerberusClient {
         if (response.code() != HttpStatus.NO_CONTENT) {
             parseAndThrowApiErrorResponse(response);
         }
+        response.close();
+
+        if (fingerprintCacheEnabled) {
+            fileFingerprints.put(path, ContentFingerprint.of(contents));
+        }
+        final SecretCache cache = secretCache;
+        if (cache != null) {
+            cache.fileWritten(path, contents);
+        }
+    }
+
+    /**
+     * Writes the file only if its contents differ from the file stored at the path. The size of the stored file is
+     * requested first and the file is written without downloading it if the size differs; otherwise the stored file
+     * is downloaded and compared by {@link ContentFingerprint}, unless the
+     * {@link #setFingerprintCacheEnabled(boolean) fingerprint cache} already holds the fingerprint of the contents
+     * this client last wrote to or compared at the path.
+     * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
+     * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
+     * wrapping the underlying exception.
+     *
+     * @param path     Path for where to store the data
+     * @param contents File contents to be stored
+     * @return Whether the file was written
+     */
+    public boolean writeFileIfChanged(final String path, final byte[] contents) {
+        if (contents == null) {
+            throw new IllegalArgumentException("Contents cannot be null.");
+        }
+
+        final String fingerprint = ContentFingerprint.of(contents);
+        if (fingerprintCacheEnabled && fingerprint.equals(fileFingerprints.get(path))) {
+            return false;
+        }
+
+        final long currentSize = getFileSize(path);
+        if (currentSize == contents.length || currentSize == UNKNOWN_FILE_SIZE) {
+            final byte[] current = readFileIfExists(path);
+            if (current != null && fingerprint.equals(ContentFingerprint.of(current))) {
+                if (fingerprintCacheEnabled) {
+                    fileFingerprints.put(path, fingerprint);
+                }
+                return false;
+            }
+        }
+
+        writeFile(path, contents);
+        return true;
     }
 
     /**
@@ -336,6 +695,11 @@ public class CerberusClient {
      */
     public void deleteFile(final String path) {
         buildAndExecuteRequest(SECURE_FILE_PATH_PREFIX, path, HttpMethod.DELETE, null);
+        fileFingerprints.remove(path);
+        final SecretCache cache = secretCache;
+        if (cache != null) {
+            cache.fileDeleted(path);
+        }
     }
 
     /**
@@ -347,6 +711,11 @@ public class CerberusClient {
      */
     public void delete(final String path) {
         buildAndExecuteRequest(SECRET_PATH_PREFIX, path, HttpMethod.DELETE, null);
+        secretFingerprints.remove(path);
+        final SecretCache cache = secretCache;
+        if (cache != null) {
+            cache.secretDeleted(path);
+        }
     }
 
     /**
@@ -362,15 +731,35 @@ public class CerberusClient {
     }
 
     /**
-     * Gets all roles that Cerberus supports in a more usable {@link CerberusRolePermission} to ID map.
+     * Gets all roles that Cerberus supports in a more usable {@link CerberusRolePermission} to ID map. The roles are
+     * always listed from Cerberus, which also refreshes the cached {@link #getRoleRegistry() role registry}.
      * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
      * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
      * wrapping the underlying exception.
      *
-     * @return Map of role permission to ID
+     * @return Map of role permission to ID, which the caller may modify
      */
     public Map<CerberusRolePermission, String> getRolePermissionMap() {
-        return listRoles().stream().collect(Collectors.toMap(roleResponse -> CerberusRolePermission.fromString(roleResponse.getName()), CerberusRoleResponse::getId));
+        return new HashMap<>(refreshRoleRegistry().getIdsByPermission());
+    }
+
+    /**
+     * Gets the roles that Cerberus supports. The registry is loaded with {@link #listRoles()} on first use and
+     * re-loaded once it is older than the {@link #setMetadataCacheTtl(Duration) metadata cache TTL}.
+     *
+     * @return Immutable role registry
+     */
+    public RoleRegistry getRoleRegistry() {
+        return getCached("role-registry", roleRegistry);
+    }
+
+    /**
+     * Re-loads the role registry now.
+     *
+     * @return The freshly loaded registry
+     */
+    public RoleRegistry refreshRoleRegistry() {
+        return roleRegistry.refresh();
     }
 
     /**
@@ -386,15 +775,35 @@ public class CerberusClient {
     }
 
     /**
-     * Gets all categories that Cerberus supports in a more usable category path to ID map.
+     * Gets all categories that Cerberus supports in a more usable category path to ID map. The categories are always
+     * listed from Cerberus, which also refreshes the cached {@link #getCategoryRegistry() category registry}.
      * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
      * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
      * wrapping the underlying exception.
      *
-     * @return Map of category path to ID
+     * @return Map of category path to ID, which the caller may modify
      */
     public Map<String, String> getCategoryMap() {
-        return listCategories().stream().collect(Collectors.toMap(CerberusCategoryResponse::getPath, CerberusCategoryResponse::getId));
+        return new HashMap<>(refreshCategoryRegistry().getIdsByPath());
+    }
+
+    /**
+     * Gets the categories that Cerberus supports. The registry is loaded with {@link #listCategories()} on first
+     * use and re-loaded once it is older than the {@link #setMetadataCacheTtl(Duration) metadata cache TTL}.
+     *
+     * @return Immutable category registry
+     */
+    public CategoryRegistry getCategoryRegistry() {
+        return getCached("category-registry", categoryRegistry);
+    }
+
+    /**
+     * Re-loads the category registry now.
+     *
+     * @return The freshly loaded registry
+     */
+    public CategoryRegistry refreshCategoryRegistry() {
+        return categoryRegistry.refresh();
     }
 
     /**
@@ -407,7 +816,7 @@ public class CerberusClient {
      * @return Map of category path to ID
      */
     public String getCategoryIdByPath(String path) {
-        return getCategoryMap().get(path);
+        return getCategoryRegistry().getIdByPath(path);
     }
 
     /**
@@ -427,7 +836,8 @@ public class CerberusClient {
 
 
     /**
-     * Gets the safe deposit box metadata by its name.
+     * Gets the safe deposit box metadata by its name. The name is resolved to an ID with the cached
+     * {@link #getSafeDepositBoxIndex() safe deposit box index}, which is re-loaded once if it does not know the name.
      * If Cerberus returns an unexpected response code, a {@link CerberusServerException} will be thrown with the code
      * and error details.  If an unexpected I/O error is encountered, a {@link CerberusClientException} will be thrown
      * wrapping the underlying exception.
@@ -436,13 +846,59 @@ public class CerberusClient {
      * @return The safe deposit box metadata
      */
     public CerberusSafeDepositBoxResponse getSafeDepositBoxByName(String name) {
-        List<CerberusSafeDepositBoxSummaryResponse> responses = listSafeDepositBoxes().stream()
-                .filter(sdb -> sdb.getName().equals(name))
-                .collect(Collectors.toList());
-        if (responses.isEmpty()) {
+        final String id = getSafeDepositBoxIdByName(name);
+        if (id == null) {
             throw new CerberusClientException("ERROR cannot find safe deposit box with the name " + name);
         }
-        return getSafeDepositBoxById(responses.get(0).getId());
+        return getSafeDepositBoxById(id);
+    }
+
+    /**
+     * Gets the ID of the safe deposit box with the name from the cached
+     * {@link #getSafeDepositBoxIndex() safe deposit box index}. If the index does not know the name, it is re-loaded
+     * once, so a safe deposit box created elsewhere since the last load is found.
+     *
+     * @param name The name of the safe deposit box
+     * @return The ID of the safe deposit box, or null if the client cannot see one with the name
+     */
+    public String getSafeDepositBoxIdByName(String name) {
+        final String id = getSafeDepositBoxIndex().getIdByName(name);
+        return id != null ? id : refreshSafeDepositBoxIndex().getIdByName(name);
+    }
+
+    /**
+     * Gets the ID of the safe deposit box with the path from the cached
+     * {@link #getSafeDepositBoxIndex() safe deposit box index}. If the index does not know the path, it is re-loaded
+     * once, so a safe deposit box created elsewhere since the last load is found.
+     *
+     * @param path The path of the safe deposit box (e.g. "app/my-sdb/")
+     * @return The ID of the safe deposit box, or null if the client cannot see one with the path
+     */
+    public String getSafeDepositBoxIdByPath(String path) {
+        final String id = getSafeDepositBoxIndex().getIdByPath(path);
+        return id != null ? id : refreshSafeDepositBoxIndex().getIdByPath(path);
+    }
+
+    /**
+     * Gets the index of the safe deposit boxes the authenticated IAM principal has access to. The index is loaded
+     * with {@link #listSafeDepositBoxes()} on first use and re-loaded once it is older than the
+     * {@link #setMetadataCacheTtl(Duration) metadata cache TTL}. Safe deposit boxes created, updated or deleted
+     * through this client are reflected immediately; changes made elsewhere are picked up by the next load or
+     * {@link #refreshSafeDepositBoxIndex()}.
+     *
+     * @return Immutable safe deposit box index
+     */
+    public SafeDepositBoxIndex getSafeDepositBoxIndex() {
+        return getCached("safe-deposit-box-index", safeDepositBoxIndex);
+    }
+
+    /**
+     * Re-loads the safe deposit box index now.
+     *
+     * @return The freshly loaded index
+     */
+    public SafeDepositBoxIndex refreshSafeDepositBoxIndex() {
+        return safeDepositBoxIndex.refresh();
     }
 
     /**
@@ -468,7 +924,9 @@ public class CerberusClient {
      * @return The metadata of the created safe deposit box
      */
     public CerberusSafeDepositBoxResponse createSafeDepositBox(CerberusSafeDepositBoxRequest cerberusSafeDepositBoxRequest) {
-        return buildAndExecuteRequest(SAFE_DEPOSIT_BOX_PREFIX, EMPTY_PATH, HttpMethod.POST, cerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse.class);
+        final CerberusSafeDepositBoxResponse response = buildAndExecuteRequest(SAFE_DEPOSIT_BOX_PREFIX, EMPTY_PATH, HttpMethod.POST, cerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse.class);
+        indexSafeDepositBox(response);
+        return response;
     }
 
 
@@ -482,7 +940,9 @@ public class CerberusClient {
      * @return The metadata of the updated safe deposit box
      */
     public CerberusSafeDepositBoxResponse updateSafeDepositBox(String id, CerberusSafeDepositBoxRequest cerberusSafeDepositBoxRequest) {
-        return buildAndExecuteRequest(SAFE_DEPOSIT_BOX_PREFIX, id, HttpMethod.PUT, cerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse.class);
+        final CerberusSafeDepositBoxResponse response = buildAndExecuteRequest(SAFE_DEPOSIT_BOX_PREFIX, id, HttpMethod.PUT, cerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse.class);
+        indexSafeDepositBox(response);
+        return response;
     }
 
     /**
@@ -495,6 +955,208 @@ public class CerberusClient {
      */
     public void deleteSafeDepositBox(String id) {
         buildAndExecuteRequest(SAFE_DEPOSIT_BOX_PREFIX, id, HttpMethod.DELETE, null);
+        safeDepositBoxIndex.update(index -> index.withoutSafeDepositBox(id));
+    }
+
+    /**
+     * Sets how long cached metadata, i.e. the {@link #getSafeDepositBoxIndex() safe deposit box index} and the
+     * {@link #getCategoryRegistry() category} and {@link #getRoleRegistry() role} registries, is used before it is
+     * loaded from Cerberus again. Defaults to {@link #DEFAULT_METADATA_CACHE_TTL}.
+     *
+     * @param ttl Time to live of cached metadata, zero disables caching
+     */
+    public void setMetadataCacheTtl(final Duration ttl) {
+        safeDepositBoxIndex.setTtl(ttl);
+        categoryRegistry.setTtl(ttl);
+        roleRegistry.setTtl(ttl);
+    }
+
+    /**
+     * Enables remembering the fingerprint of the data this client writes or compares, so
+     * {@link #writeIfChanged(String, Map)} and {@link #writeFileIfChanged(String, byte[])} can skip unchanged writes
+     * without reading from Cerberus. Only enable it if nothing else writes to the paths this client writes to, as
+     * changes made elsewhere are not detected. Disabled by default; disabling it clears the cache.
+     *
+     * @param enabled Whether to cache fingerprints
+     */
+    public void setFingerprintCacheEnabled(final boolean enabled) {
+        fingerprintCacheEnabled = enabled;
+        if (!enabled) {
+            secretFingerprints.clear();
+            fileFingerprints.clear();
+        }
+    }
+
+    /**
+     * Sets a cache used by {@link #read(String)}, {@link #readFileAsBytes(String)} and {@link #list(String)}.
+     * Writes and deletes made through this client update the cache, so reads after them return the new data.
+     * The other reads, and the reads of {@link #writeIfChanged(String, Map)} and
+     * {@link #writeFileIfChanged(String, byte[])}, always go to Cerberus. Disabled by default.
+     *
+     * @param secretCache Cache to use, or null to disable caching
+     */
+    public void setSecretCache(final SecretCache secretCache) {
+        this.secretCache = secretCache;
+    }
+
+    /**
+     * @return Cache used by the read and list operations, null if caching is disabled
+     */
+    public SecretCache getSecretCache() {
+        return secretCache;
+    }
+
+    /**
+     * Sets where the client reports request latencies, status codes, retries, cache lookups and the dispatcher
+     * state. If the credentials provider is a {@link BaseAwsCredentialsProvider}, its authentication metrics are
+     * reported there as well.
+     *
+     * @param metrics Metrics to report to, or {@link CerberusMetrics#NOOP}
+     */
+    public void setMetrics(final CerberusMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null.");
+        }
+
+        this.metrics = metrics;
+        if (credentialsProvider instanceof BaseAwsCredentialsProvider) {
+            ((BaseAwsCredentialsProvider) credentialsProvider).setMetrics(metrics);
+        }
+    }
+
+    /**
+     * @return Metrics the client reports to
+     */
+    public CerberusMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Sets the tracer that creates spans for each operation, each HTTP attempt and, if the credentials provider is a
+     * {@link BaseAwsCredentialsProvider}, each token refresh. The <code>traceparent</code> of the attempt span is
+     * sent with the request, replacing any value from the default headers.
+     *
+     * @param tracer Tracer to use, or {@link CerberusTracer#NOOP}
+     */
+    public void setTracer(final CerberusTracer tracer) {
+        if (tracer == null) {
+            throw new IllegalArgumentException("Tracer cannot be null.");
+        }
+
+        this.tracer = tracer;
+        if (credentialsProvider instanceof BaseAwsCredentialsProvider) {
+            ((BaseAwsCredentialsProvider) credentialsProvider).setTracer(tracer);
+        }
+    }
+
+    /**
+     * @return Tracer the client creates spans with
+     */
+    public CerberusTracer getTracer() {
+        return tracer;
+    }
+
+    /**
+     * Enables logging of calls that take longer than a threshold, with a breakdown of where the time went. Unlike
+     * the debug logging of every request, the slow call log samples and rate limits what it logs, so it can stay
+     * enabled in production.
+     *
+     * @param slowCallLog The log to use, or null to disable
+     */
+    public void setSlowCallLog(final SlowCallLog slowCallLog) {
+        this.slowCallLog = slowCallLog;
+    }
+
+    /**
+     * @return The slow call log, or null if disabled
+     */
+    public SlowCallLog getSlowCallLog() {
+        return slowCallLog;
+    }
+
+    private void recordSecretCacheAccess(final String method, final String prefix, final String path,
+                                         final boolean hit) {
+        metrics.recordCacheAccess(SECRET_CACHE_NAME, hit);
+        if (hit && tracer != CerberusTracer.NOOP) {
+            final HttpUrl httpUrl = buildUrl(prefix, path);
+            final CerberusSpan span = startOperationSpan(CerberusOperation.of(method, httpUrl), httpUrl);
+            span.setTag(CerberusSpan.TAG_CACHE_HIT, "true");
+            span.end();
+        }
+    }
+
+    private CerberusSpan startOperationSpan(final CerberusOperation operation, final HttpUrl httpUrl) {
+        final CerberusSpan span = tracer.startSpan(spanName(operation), null);
+        span.setTag(CerberusSpan.TAG_OPERATION, operation.name());
+        span.setTag(CerberusSpan.TAG_PATH, CerberusOperation.pathTemplate(httpUrl));
+        return span;
+    }
+
+    private static String spanName(final CerberusOperation operation) {
+        return "cerberus." + operation.name().toLowerCase(Locale.ROOT);
+    }
+
+    private <T> T getCached(final String name, final RefreshingValue<T> value) {
+        metrics.recordCacheAccess(name, value.isCurrent());
+        return value.get();
+    }
+
+    private Map<String, String> readIfExists(final String path) {
+        try {
+            final Map<String, String> data = readUncached(path).getData();
+            return data == null ? new HashMap<>() : data;
+        } catch (CerberusServerApiException e) {
+            if (e.getCode() == HttpStatus.NOT_FOUND) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private byte[] readFileIfExists(final String path) {
+        try {
+            return responseBodyAsBytes(buildAndExecuteRequest(SECURE_FILE_PATH_PREFIX, path, HttpMethod.GET, null));
+        } catch (CerberusServerApiException e) {
+            if (e.getCode() == HttpStatus.NOT_FOUND) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return Size of the stored file from the Content-Length of a HEAD request, -1 if the file does not exist or
+     * {@link #UNKNOWN_FILE_SIZE} if the size is not known
+     */
+    private long getFileSize(final String path) {
+        final HttpUrl httpUrl = buildUrl(SECURE_FILE_PATH_PREFIX, path);
+        try (Response response = execute(httpUrl, HttpMethod.HEAD, null)) {
+            if (response.code() == HttpStatus.NOT_FOUND) {
+                return -1;
+            }
+
+            final String contentLength = response.header(HttpHeader.CONTENT_LENGTH);
+            if (response.code() != HttpStatus.OK || contentLength == null) {
+                return UNKNOWN_FILE_SIZE;
+            }
+            return Long.parseLong(contentLength);
+        } catch (NumberFormatException e) {
+            return UNKNOWN_FILE_SIZE;
+        }
+    }
+
+    private void indexSafeDepositBox(final CerberusSafeDepositBoxResponse sdb) {
+        if (sdb == null || sdb.getId() == null) {
+            safeDepositBoxIndex.invalidate();
+            return;
+        }
+
+        final CerberusSafeDepositBoxSummaryResponse summary = new CerberusSafeDepositBoxSummaryResponse()
+                .setId(sdb.getId())
+                .setName(sdb.getName())
+                .setPath(sdb.getPath())
+                .setCategoryId(sdb.getCategoryId());
+        safeDepositBoxIndex.update(index -> index.withSafeDepositBox(summary));
     }
 
     /**
@@ -515,10 +1177,23 @@ public class CerberusClient {
 
     /**
      * Gets the Gson object used for serializing and de-serializing requests.
-     * @return Gson object
+     * @return Gson object, or a Gson object with the default configuration if a different codec is in use
+     * @deprecated use {@link #getJsonCodec()}
      */
+    @Deprecated
     public Gson getGson() {
-        return gson;
+        if (jsonCodec instanceof GsonCerberusJsonCodec) {
+            return ((GsonCerberusJsonCodec) jsonCodec).getGson();
+        }
+        return GsonCerberusJsonCodec.newGson();
+    }
+
+    /**
+     * Gets the codec used for serializing requests and de-serializing responses.
+     * @return JSON codec
+     */
+    public CerberusJsonCodec getJsonCodec() {
+        return jsonCodec;
     }
 
     /**
@@ -592,12 +1267,7 @@ public class CerberusClient {
         final HttpUrl httpUrl = buildUrl(prefix, path);
         logger.debug("requestUrl={}, HTTP method={}", httpUrl, httpMethod);
 
-        final Response response = ofSupplier(
-                () -> execute(httpUrl, httpMethod, requestBody)
-        )
-                .withRetry(RETRY)
-                .decorate()
-                .get();
+        final Response response = executeWithRetry(httpUrl, httpMethod, requestBody);
 
         if (!response.isSuccessful()) {
             parseAndThrowApiErrorResponse(response);
@@ -606,6 +1276,52 @@ public class CerberusClient {
         return response;
     }
 
+    private Response executeWithRetry(final HttpUrl httpUrl, final String method, final Object requestBody) {
+        final CerberusOperation operation = CerberusOperation.of(method, httpUrl);
+        final CerberusSpan span = startOperationSpan(operation, httpUrl);
+        if (secretCache != null && isCacheable(operation)) {
+            span.setTag(CerberusSpan.TAG_CACHE_HIT, "false");
+        }
+
+        final SlowCallLog log = slowCallLog;
+        final SlowCallLog.Trace trace = log == null ? null : log.start(operation, httpUrl);
+        final AtomicInteger attempts = new AtomicInteger();
+        try {
+            final Response response = ofSupplier(() -> {
+                        final int retryCount = attempts.getAndIncrement();
+                        if (retryCount > 0) {
+                            metrics.recordRetry(operation);
+                        }
+                        final Attempt previous = CURRENT_ATTEMPT.get();
+                        CURRENT_ATTEMPT.set(new Attempt(retryCount, span, trace));
+                        try {
+                            return execute(httpUrl, method, requestBody);
+                        } finally {
+                            CURRENT_ATTEMPT.set(previous);
+                        }
+                    })
+                    .withRetry(RETRY)
+                    .decorate()
+                    .get();
+            span.setTag(CerberusSpan.TAG_HTTP_STATUS_CODE, String.valueOf(response.code()));
+            return response;
+        } catch (RuntimeException e) {
+            span.setError(e);
+            throw e;
+        } finally {
+            span.end();
+            if (trace != null) {
+                trace.finish();
+            }
+        }
+    }
+
+    private static boolean isCacheable(final CerberusOperation operation) {
+        return operation == CerberusOperation.READ
+                || operation == CerberusOperation.LIST
+                || operation == CerberusOperation.READ_FILE;
+    }
+
     /**
      * Executes the HTTP request based on the input parameters.
      *
@@ -615,31 +1331,80 @@ public class CerberusClient {
      * @return Response from the server
      */
     protected Response execute(final HttpUrl httpUrl, final String method, final Object requestBody) {
-        try {
-            Request request = buildRequest(httpUrl, method, requestBody);
-
-            return httpClient.newCall(request).execute();
-        } catch (IOException e) {
-            if (e instanceof SSLException
-                    && e.getMessage() != null
-                    && e.getMessage().contains("Unrecognized SSL message, plaintext connection?")) {
-                throw new CerberusClientException("I/O error while communicating with Cerberus. Unrecognized SSL message may be due to a web proxy e.g. AnyConnect", e);
-            } else {
-                throw new CerberusClientException("I/O error while communicating with Cerberus.", e);
-            }
+        final Attempt attempt = CURRENT_ATTEMPT.get();
+        if (attempt == null || attempt.trace == null) {
+            return execute(buildRequest(httpUrl, method, requestBody));
         }
+
+        final long buildStartedAt = System.nanoTime();
+        final Request request = buildRequest(httpUrl, method, requestBody);
+        attempt.trace.recordAuthWait(System.nanoTime() - buildStartedAt);
+        return execute(request);
     }
 
     /**
-     * Executes the HTTP request based on the input parameters.
+     * Executes the HTTP request based on the input parameters. When metrics are configured, the request is tagged
+     * with them so that {@link com.nike.cerberus.client.metrics.CallTimingEventListener} can report its phases.
      *
      * @param request The HTTP request to be made
      * @return Response from the server
      */
     protected Response execute(final Request request) {
+        final Attempt attempt = CURRENT_ATTEMPT.get();
+        if (attempt != null) {
+            return execute(request, attempt.retryCount, attempt.operationSpan, attempt.trace);
+        }
+
+        final SlowCallLog log = slowCallLog;
+        if (log == null) {
+            return execute(request, 0, null, null);
+        }
+
+        final SlowCallLog.Trace trace = log.start(CerberusOperation.of(request.method(), request.url()), request.url());
         try {
-            return httpClient.newCall(request).execute();
+            return execute(request, 0, null, trace);
+        } finally {
+            trace.finish();
+        }
+    }
+
+    private Response execute(final Request request,
+                             final int retryCount,
+                             final CerberusSpan operationSpan,
+                             final SlowCallLog.Trace trace) {
+        final CerberusMetrics callMetrics = metrics;
+        final CerberusOperation operation = CerberusOperation.of(request.method(), request.url());
+        final CerberusSpan span = tracer.startSpan(spanName(operation) + ".attempt", operationSpan);
+        span.setTag(CerberusSpan.TAG_OPERATION, operation.name());
+        span.setTag(CerberusSpan.TAG_HTTP_METHOD, request.method());
+        span.setTag(CerberusSpan.TAG_PATH, CerberusOperation.pathTemplate(request.url()));
+        span.setTag(CerberusSpan.TAG_ATTEMPT, String.valueOf(retryCount + 1));
+        final Dispatcher dispatcher = httpClient.dispatcher();
+        if (dispatcher != null) {
+            callMetrics.recordDispatcher(dispatcher.runningCallsCount(), dispatcher.queuedCallsCount());
+        }
+
+        final Request sentRequest = decorate(request, callMetrics, span.getTraceparent(), trace);
+        final RequestRecording recording = CerberusFlightRecorder.beginRequest();
+        final long startedAt = System.nanoTime();
+        try {
+            final Response response = httpClient.newCall(sentRequest).execute();
+            callMetrics.recordRequest(operation, response.code(), System.nanoTime() - startedAt);
+            recording.end(request, response, retryCount);
+            if (trace != null) {
+                trace.recordAttempt(request, response);
+            }
+            span.setTag(CerberusSpan.TAG_HTTP_STATUS_CODE, String.valueOf(response.code()));
+            span.end();
+            return response;
         } catch (IOException e) {
+            callMetrics.recordRequest(operation, -1, System.nanoTime() - startedAt);
+            recording.end(request, null, retryCount);
+            if (trace != null) {
+                trace.recordAttempt(request, null);
+            }
+            span.setError(e);
+            span.end();
             if (e instanceof SSLException
                     && e.getMessage() != null
                     && e.getMessage().contains("Unrecognized SSL message, plaintext connection?")) {
@@ -650,6 +1415,27 @@ public class CerberusClient {
         }
     }
 
+    private static Request decorate(final Request request,
+                                    final CerberusMetrics callMetrics,
+                                    final String traceparent,
+                                    final SlowCallLog.Trace trace) {
+        if (callMetrics == CerberusMetrics.NOOP && traceparent == null && trace == null) {
+            return request;
+        }
+
+        final Request.Builder builder = request.newBuilder();
+        if (callMetrics != CerberusMetrics.NOOP) {
+            builder.tag(CerberusMetrics.class, callMetrics);
+        }
+        if (trace != null) {
+            builder.tag(SlowCallLog.Trace.class, trace);
+        }
+        if (traceparent != null) {
+            builder.header(HttpHeader.TRACEPARENT, traceparent);
+        }
+        return builder.build();
+    }
+
     /**
      * Build the HTTP request to execute for the Cerberus Client
      * @param httpUrl     The URL to execute the request against
@@ -666,7 +1452,7 @@ public class CerberusClient {
 
         if (requestBody != null) {
             requestBuilder.addHeader(HttpHeader.CONTENT_TYPE, DEFAULT_MEDIA_TYPE.toString())
-                    .method(method, RequestBody.create(DEFAULT_MEDIA_TYPE, gson.toJson(requestBody)));
+                    .method(method, new JsonRequestBody(jsonCodec, requestBody, DEFAULT_MEDIA_TYPE));
         } else {
             requestBuilder.method(method, null);
         }
@@ -686,8 +1472,8 @@ public class CerberusClient {
     protected <M> M parseResponseBody(final Response response, final Class<M> responseClass) {
         final String responseBodyStr = responseBodyAsString(response);
         try {
-            return gson.fromJson(responseBodyStr, responseClass);
-        } catch (JsonSyntaxException e) {
+            return jsonCodec.fromJson(responseBodyStr, responseClass);
+        } catch (JsonCodecException e) {
             logger.error("parseResponseBody: responseCode={}, requestUrl={}, response={}",
                     response.code(), response.request().url(), responseBodyStr);
             throw new CerberusClientException("Error parsing the response body from Cerberus, response code: "
@@ -706,8 +1492,8 @@ public class CerberusClient {
     protected <M> M parseResponseBody(final Response response, final Type typeOf) {
         final String responseBodyStr = responseBodyAsString(response);
         try {
-            return gson.fromJson(responseBodyStr, typeOf);
-        } catch (JsonSyntaxException e) {
+            return jsonCodec.fromJson(responseBodyStr, typeOf);
+        } catch (JsonCodecException e) {
             logger.error("parseResponseBody: responseCode={}, requestUrl={}, response={}",
                     response.code(), response.request().url(), responseBodyStr);
             throw new CerberusClientException("Error parsing the response body from Cerberus, response code: "
@@ -715,6 +1501,41 @@ public class CerberusClient {
         }
     }
 
+    /**
+     * Convenience method for streaming the data of a secret response, keeping only the entries that match the filter.
+     *
+     * @param response  The HTTP response object
+     * @param keyFilter Decides which entries are de-serialized
+     * @return Map of the matching entries, in response order
+     */
+    protected Map<String, String> parseSecretData(final Response response, final Predicate<String> keyFilter) {
+        final Map<String, String> data = new LinkedHashMap<>();
+        readSecretData(response, keyFilter, data::put);
+        return data;
+    }
+
+    /**
+     * Convenience method for streaming the data of a secret response to a consumer.
+     *
+     * @param response  The HTTP response object
+     * @param keyFilter Decides which entries are de-serialized
+     * @param consumer  Receives the matching entries, in response order
+     */
+    protected void readSecretData(final Response response,
+                                  final Predicate<String> keyFilter,
+                                  final BiConsumer<String, String> consumer) {
+        try (ResponseBody body = response.body()) {
+            jsonCodec.readSecretData(body.byteStream(), keyFilter, consumer);
+        } catch (JsonCodecException e) {
+            logger.error("parseSecretData: responseCode={}, requestUrl={}",
+                    response.code(), response.request().url());
+            throw new CerberusClientException("Error parsing the response body from Cerberus, response code: "
+                + response.code(), e);
+        } catch (IOException e) {
+            throw new CerberusClientException("I/O error while reading the response body from Cerberus.", e);
+        }
+    }
+
     /**
      * Convenience method for parsing the errors from the HTTP response and throwing a {@link CerberusServerException}.
      *
@@ -726,14 +1547,14 @@ public class CerberusClient {
                 response.code(), response.request().url(), responseBodyStr);
 
         try {
-            ErrorResponse errorResponse = gson.fromJson(responseBodyStr, ErrorResponse.class);
+            ErrorResponse errorResponse = jsonCodec.fromJson(responseBodyStr, ErrorResponse.class);
 
             if (errorResponse != null) {
                 throw new CerberusServerException(response.code(), errorResponse.getErrors());
             } else {
                 throw new CerberusServerException(response.code(), new LinkedList<String>());
             }
-        } catch (JsonSyntaxException e) {
+        } catch (JsonCodecException e) {
             logger.error("ERROR Failed to parse error message, response body received: {}", responseBodyStr);
             throw new CerberusClientException("Error parsing the error response body from Cerberus, response code: "
                 + response.code() + ", response body: " + responseBodyStr, e);
@@ -751,20 +1572,31 @@ public class CerberusClient {
                 response.code(), response.request().url(), responseBodyStr);
 
         try {
-            ApiErrorResponse errorResponse = gson.fromJson(responseBodyStr, ApiErrorResponse.class);
+            ApiErrorResponse errorResponse = jsonCodec.fromJson(responseBodyStr, ApiErrorResponse.class);
 
             if (errorResponse != null) {
                 throw new CerberusServerApiException(response.code(), errorResponse.getErrorId(), errorResponse.getErrors());
             } else {
                 throw new CerberusServerApiException(response.code(), null, new LinkedList<CerberusApiError>());
             }
-        } catch (JsonSyntaxException e) {
+        } catch (JsonCodecException e) {
             logger.error("ERROR Failed to parse error message, response body received: {}", responseBodyStr);
             throw new CerberusClientException("Error parsing the error response body from Cerberus, response code: "
                 + response.code() + ", response body: " + responseBodyStr, e);
         }
     }
 
+    /**
+     * POJO for representing the envelope of a list response from Cerberus.
+     */
+    protected static class ListResponse {
+        private CerberusListResponse data;
+
+        public CerberusListResponse getData() {
+            return data;
+        }
+    }
+
     /**
      * POJO for representing error response body from Cerberus.
      */
@@ -796,7 +1628,7 @@ public class CerberusClient {
         try {
             return response.body().string();
         } catch (IOException ioe) {
-            logger.debug("responseBodyAsString: response={}", gson.toJson(response));
+            logger.debug("responseBodyAsString: response={}", response);
             return "ERROR failed to print response body as str: " + ioe.getMessage();
         }
     }
@@ -805,8 +1637,26 @@ public class CerberusClient {
         try {
             return response.body().bytes();
         } catch (IOException ioe) {
-            logger.debug("responseBodyAsString: response={}", gson.toJson(response));
+            logger.debug("responseBodyAsString: response={}", response);
             throw new CerberusClientException("ERROR failed to print: " + response.toString());
         }
     }
+
+    /**
+     * A retry attempt of an operation, see {@link #CURRENT_ATTEMPT}.
+     */
+    private static final class Attempt {
+
+        private final int retryCount;
+
+        private final CerberusSpan operationSpan;
+
+        private final SlowCallLog.Trace trace;
+
+        private Attempt(int retryCount, CerberusSpan operationSpan, SlowCallLog.Trace trace) {
+            this.retryCount = retryCount;
+            this.operationSpan = operationSpan;
+            this.trace = trace;
+        }
+    }
 }
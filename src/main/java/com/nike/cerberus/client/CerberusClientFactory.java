@@ -17,9 +17,15 @@
 package com.nike.cerberus.client;
 
 import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.http.FaultInjectionInterceptor;
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import com.nike.cerberus.client.json.GsonCerberusJsonCodec;
+import com.nike.cerberus.client.json.JacksonCerberusJsonCodec;
+import com.nike.cerberus.client.metrics.CallTimingEventListener;
 import okhttp3.ConnectionSpec;
 import okhttp3.Dispatcher;
 import okhttp3.Headers;
+import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.TlsVersion;
 
@@ -81,21 +87,38 @@ public class CerberusClientFactory {
                                            final CerberusCredentialsProvider cerberusCredentialsProvider,
                                            final Map<String, String> defaultHeaders) {
 
-        List<ConnectionSpec> connectionSpecs = new ArrayList<>();
-        connectionSpecs.add(TLS_1_2_OR_NEWER);
-        // for unit tests
-        connectionSpecs.add(CLEARTEXT);
+        return getClient(
+                cerberusUrl,
+                cerberusCredentialsProvider,
+                defaultHeaders,
+                newHttpClientBuilder().build()
+        );
+    }
+
+    /**
+     * Factory method that adds an OkHttp interceptor to the default HTTP client, e.g. a
+     * {@link FaultInjectionInterceptor} to see how the client behaves when Cerberus degrades.
+     *
+     * @param cerberusUrl                 URL for Cerberus
+     * @param cerberusCredentialsProvider Credential provider for acquiring a token for interacting with Cerberus
+     * @param defaultHeaders              Map of default header names and values to add to every HTTP request
+     * @param interceptor                 Application interceptor that sees every attempt of every request
+     * @return Cerberus client
+     */
+    public static CerberusClient getClient(final String cerberusUrl,
+                                           final CerberusCredentialsProvider cerberusCredentialsProvider,
+                                           final Map<String, String> defaultHeaders,
+                                           final Interceptor interceptor) {
+
+        if (interceptor == null) {
+            throw new IllegalArgumentException("Interceptor cannot be null.");
+        }
 
         return getClient(
                 cerberusUrl,
                 cerberusCredentialsProvider,
                 defaultHeaders,
-                new OkHttpClient.Builder()
-                        .connectTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .writeTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .readTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
-                        .connectionSpecs(connectionSpecs)
-                        .build()
+                newHttpClientBuilder().addInterceptor(interceptor).build()
         );
     }
 
@@ -135,6 +158,27 @@ public class CerberusClientFactory {
                                            final Map<String, String> defaultHeaders,
                                            final OkHttpClient httpClient) {
 
+        return getClient(cerberusUrl, cerberusCredentialsProvider, defaultHeaders, httpClient,
+                new GsonCerberusJsonCodec());
+    }
+
+    /**
+     * Factory method that allows a user to define the OkHttpClient and the JSON codec to be used.
+     *
+     * @param cerberusUrl                 URL for Cerberus
+     * @param cerberusCredentialsProvider Credential provider for acquiring a token for interacting with Cerberus
+     * @param defaultHeaders              Map of default header names and values to add to every HTTP request
+     * @param httpClient                  the client to use for auth
+     * @param jsonCodec                   Codec for serializing requests and de-serializing responses,
+     *                                    e.g. {@link JacksonCerberusJsonCodec}
+     * @return Cerberus client
+     */
+    public static CerberusClient getClient(final String cerberusUrl,
+                                           final CerberusCredentialsProvider cerberusCredentialsProvider,
+                                           final Map<String, String> defaultHeaders,
+                                           final OkHttpClient httpClient,
+                                           final CerberusJsonCodec jsonCodec) {
+
         if (defaultHeaders == null) {
             throw new IllegalArgumentException("Default headers cannot be null.");
         }
@@ -147,7 +191,8 @@ public class CerberusClientFactory {
         return new CerberusClient(cerberusUrl,
                 cerberusCredentialsProvider,
                 httpClient,
-                headers.build());
+                headers.build(),
+                jsonCodec);
     }
 
     /**
@@ -223,7 +268,22 @@ public class CerberusClientFactory {
                         .readTimeout(readTimeoutMillis, DEFAULT_TIMEOUT_UNIT)
                         .dispatcher(dispatcher)
                         .connectionSpecs(connectionSpecs)
+                        .eventListenerFactory(CallTimingEventListener.FACTORY)
                         .build(),
                 headers.build());
     }
+
+    private static OkHttpClient.Builder newHttpClientBuilder() {
+        List<ConnectionSpec> connectionSpecs = new ArrayList<>();
+        connectionSpecs.add(TLS_1_2_OR_NEWER);
+        // for unit tests
+        connectionSpecs.add(CLEARTEXT);
+
+        return new OkHttpClient.Builder()
+                .connectTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .writeTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .readTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
+                .connectionSpecs(connectionSpecs)
+                .eventListenerFactory(CallTimingEventListener.FACTORY);
+    }
 }
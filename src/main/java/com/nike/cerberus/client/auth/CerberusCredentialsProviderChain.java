@@ -31,8 +31,8 @@ public class CerberusCredentialsProviderChain implements CerberusCredentialsProv
 
     private final List<CerberusCredentialsProvider> credentialsProviderList = new LinkedList<>();
 
-    private boolean reuseLastProvider = true;
-    private CerberusCredentialsProvider lastUsedProvider;
+    private volatile boolean reuseLastProvider = true;
+    private volatile CerberusCredentialsProvider lastUsedProvider;
 
     /**
      * Explicit constructor that takes a list of providers to use.
@@ -71,8 +71,9 @@ public class CerberusCredentialsProviderChain implements CerberusCredentialsProv
      */
     @Override
     public CerberusCredentials getCredentials() {
-        if (reuseLastProvider && lastUsedProvider != null) {
-            return lastUsedProvider.getCredentials();
+        final CerberusCredentialsProvider lastProvider = lastUsedProvider;
+        if (reuseLastProvider && lastProvider != null) {
+            return lastProvider.getCredentials();
         }
 
         List<String> logMessages = new ArrayList<>();
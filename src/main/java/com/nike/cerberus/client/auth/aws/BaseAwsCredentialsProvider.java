@@ -21,6 +21,15 @@ import com.nike.cerberus.client.ClientVersion;
 import com.nike.cerberus.client.auth.CerberusCredentials;
 import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
 import com.nike.cerberus.client.auth.TokenCerberusCredentials;
+import com.nike.cerberus.client.http.HttpHeader;
+import com.nike.cerberus.client.jfr.CerberusFlightRecorder;
+import com.nike.cerberus.client.jfr.CerberusFlightRecorder.AuthenticationRecording;
+import com.nike.cerberus.client.jfr.CerberusFlightRecorder.RequestRecording;
+import com.nike.cerberus.client.metrics.CallTimingEventListener;
+import com.nike.cerberus.client.metrics.CerberusMetrics;
+import com.nike.cerberus.client.metrics.CerberusOperation;
+import com.nike.cerberus.client.tracing.CerberusSpan;
+import com.nike.cerberus.client.tracing.CerberusTracer;
 import okhttp3.*;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
@@ -71,6 +80,15 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
 
     private final OkHttpClient httpClient;
 
+    private volatile CerberusMetrics metrics = CerberusMetrics.NOOP;
+
+    private volatile CerberusTracer tracer = CerberusTracer.NOOP;
+
+    /**
+     * Span of the authentication in progress, parent of its HTTP attempts. Guarded by the write lock.
+     */
+    private CerberusSpan authenticationSpan;
+
     /**
      * Constructor to setup credentials provider
      *
@@ -138,10 +156,14 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
             if (needsToAuthenticate) {
                 // Release the read lock and acquire a write lock
                 readLock.unlock();
+                final long waitStartedAt = System.nanoTime();
                 writeLock.lock();
-
                 try {
-                    authenticate();
+                    metrics.recordCredentialsLockWait(System.nanoTime() - waitStartedAt);
+                    // Another thread may have authenticated while this one waited for the write lock
+                    if (credentials == null || expireDateTime.isBeforeNow()) {
+                        authenticateAndRecord();
+                    }
                 } finally {
                     // Acquire the read lock before releasing the write lock
                     readLock.lock();
@@ -155,6 +177,30 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
         }
     }
 
+    /**
+     * Authenticates, reporting the attempt to metrics, tracing and JFR. Must be called holding the write lock.
+     */
+    private void authenticateAndRecord() {
+        final AuthenticationRecording recording = CerberusFlightRecorder.beginAuthentication();
+        authenticationSpan = tracer.startSpan("cerberus.authenticate", null);
+        authenticationSpan.setTag(CerberusSpan.TAG_OPERATION, CerberusOperation.AUTHENTICATE.name());
+        authenticationSpan.setTag(CerberusSpan.TAG_PROVIDER, getClass().getSimpleName());
+        final long authStartedAt = System.nanoTime();
+        boolean authenticated = false;
+        try {
+            authenticate();
+            authenticated = true;
+        } catch (RuntimeException e) {
+            authenticationSpan.setError(e);
+            throw e;
+        } finally {
+            metrics.recordAuthentication(System.nanoTime() - authStartedAt, authenticated);
+            recording.end(getClass().getSimpleName(), authenticated);
+            authenticationSpan.end();
+            authenticationSpan = null;
+        }
+    }
+
     /**
      * Look up the IAM roles associated with the given AWS credentials provider
      * and attempt to authenticate and decrypt using STS Auth.
@@ -173,13 +219,34 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
     protected Response executeRequestWithRetry(Request request, int numRetries, int sleepIntervalInMillis) throws IOException {
         IOException exception = null;
         Response response = null;
+        final CerberusMetrics callMetrics = metrics;
+        if (callMetrics != CerberusMetrics.NOOP && request != null) {
+            request = request.newBuilder().tag(CerberusMetrics.class, callMetrics).build();
+        }
         for (int retryNumber = 0; retryNumber < numRetries; retryNumber++) {
+            final CerberusSpan span = tracer.startSpan("cerberus.authenticate.attempt", authenticationSpan);
+            span.setTag(CerberusSpan.TAG_OPERATION, CerberusOperation.AUTHENTICATE.name());
+            if (request != null) {
+                span.setTag(CerberusSpan.TAG_HTTP_METHOD, request.method());
+                span.setTag(CerberusSpan.TAG_PATH, CerberusOperation.pathTemplate(request.url()));
+            }
+            span.setTag(CerberusSpan.TAG_ATTEMPT, String.valueOf(retryNumber + 1));
+            final String traceparent = span.getTraceparent();
+            final Request sentRequest = traceparent == null || request == null
+                    ? request : request.newBuilder().header(HttpHeader.TRACEPARENT, traceparent).build();
+            final RequestRecording recording = CerberusFlightRecorder.beginRequest();
             try {
-                response = httpClient.newCall(request).execute();
+                response = httpClient.newCall(sentRequest).execute();
+                recording.end(request, response, retryNumber);
+                span.setTag(CerberusSpan.TAG_HTTP_STATUS_CODE, String.valueOf(response.code()));
+                span.end();
                 if (response.code() < 500) {
                     return response;
                 }
             } catch (IOException ioe) {
+                recording.end(request, null, retryNumber);
+                span.setError(ioe);
+                span.end();
                 LOGGER.debug(String.format("Failed to call %s %s. Retrying...", request.method(), request.url()), ioe);
                 exception = ioe;
             }
@@ -209,6 +276,32 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
         throw new CerberusServerException(responseCode, errors);
     }
 
+    /**
+     * Sets where the time spent authenticating and waiting for the credentials lock is reported.
+     *
+     * @param metrics Metrics to report to, or {@link CerberusMetrics#NOOP}
+     */
+    public void setMetrics(CerberusMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics cannot be null.");
+        }
+
+        this.metrics = metrics;
+    }
+
+    /**
+     * Sets the tracer that creates a span for each authentication and each of its HTTP attempts.
+     *
+     * @param tracer Tracer to use, or {@link CerberusTracer#NOOP}
+     */
+    public void setTracer(CerberusTracer tracer) {
+        if (tracer == null) {
+            throw new IllegalArgumentException("Tracer cannot be null.");
+        }
+
+        this.tracer = tracer;
+    }
+
     public String getCerberusUrl(){
         return cerberusUrl;
     }
@@ -225,6 +318,7 @@ public abstract class BaseAwsCredentialsProvider implements CerberusCredentialsP
                 .writeTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
                 .readTimeout(DEFAULT_TIMEOUT, DEFAULT_TIMEOUT_UNIT)
                 .connectionSpecs(connectionSpecs)
+                .eventListenerFactory(CallTimingEventListener.FACTORY)
                 .build();
     }
 }
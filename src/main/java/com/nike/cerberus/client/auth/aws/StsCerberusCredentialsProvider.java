@@ -23,13 +23,12 @@ import com.amazonaws.auth.AWSCredentialsProviderChain;
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain;
 import com.amazonaws.http.HttpMethodName;
 import com.amazonaws.regions.Regions;
-import com.google.gson.FieldNamingPolicy;
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.nike.cerberus.client.CerberusClientException;
 import com.nike.cerberus.client.auth.TokenCerberusCredentials;
 import com.nike.cerberus.client.http.HttpMethod;
 import com.nike.cerberus.client.http.HttpStatus;
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import com.nike.cerberus.client.json.GsonCerberusJsonCodec;
 import com.nike.cerberus.client.model.CerberusAuthResponse;
 import okhttp3.*;
 import org.apache.commons.lang3.StringUtils;
@@ -60,8 +59,7 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
                     "cn-northwest-1")
     );
 
-    private final Gson gson = new GsonBuilder().setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
-            .create();
+    private final CerberusJsonCodec jsonCodec;
 
     /**
      * Constructor to setup credentials provider
@@ -77,6 +75,8 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
         } else {
             throw new CerberusClientException("Region is null. Please provide valid AWS region.");
         }
+
+        this.jsonCodec = new GsonCerberusJsonCodec();
     }
 
     /**
@@ -93,6 +93,8 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
         } else {
             throw new CerberusClientException("Region is null. Please provide valid AWS region.");
         }
+
+        this.jsonCodec = new GsonCerberusJsonCodec();
     }
 
     /**
@@ -104,12 +106,32 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
      * @param httpClient the client for interacting with Cerberus
      */
     public StsCerberusCredentialsProvider(String cerberusUrl, String region, OkHttpClient httpClient) {
+        this(cerberusUrl, region, httpClient, new GsonCerberusJsonCodec());
+    }
+
+    /**
+     * Constructor to setup credentials provider using the specified
+     * implementation of {@link OkHttpClient} and JSON codec
+     *
+     * @param cerberusUrl Cerberus URL
+     * @param region AWS Region used in auth with Cerberus
+     * @param httpClient the client for interacting with Cerberus
+     * @param jsonCodec Codec for de-serializing the auth response
+     */
+    public StsCerberusCredentialsProvider(String cerberusUrl, String region, OkHttpClient httpClient,
+                                          CerberusJsonCodec jsonCodec) {
         super(cerberusUrl, httpClient);
         if (region != null ) {
             regionName = Regions.fromName(region).getName();
         } else {
             throw new CerberusClientException("Region is null. Please provide valid AWS region.");
         }
+
+        if (jsonCodec == null) {
+            throw new IllegalArgumentException("JSON codec cannot be null.");
+        }
+
+        this.jsonCodec = jsonCodec;
     }
 
     /**
@@ -129,6 +151,7 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
         }
 
         this.providerChain = providerChain;
+        this.jsonCodec = new GsonCerberusJsonCodec();
     }
 
     /**
@@ -221,7 +244,7 @@ public class StsCerberusCredentialsProvider extends BaseAwsCredentialsProvider {
                 parseAndThrowErrorResponse(response.code(), responseBody);
             }
 
-            return gson.fromJson(responseBody, CerberusAuthResponse.class);
+            return jsonCodec.fromJson(responseBody, CerberusAuthResponse.class);
 
         } catch (IOException e) {
             throw new CerberusClientException("I/O error while communicating with Cerberus", e);
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Binds secret data, i.e. the key/value pairs stored at a path, to the fields of a class.
+ * <p>
+ * A field is bound to the key with the same name as the field, or to the key named by its {@link SecretKey}
+ * annotation. Static and transient fields are ignored. Supported field types are String, char[], int, long,
+ * double, boolean and their wrappers, enums, {@link java.time.Duration} (ISO-8601 or e.g. <code>30s</code>) and
+ * byte[] (base64 encoded). The class needs a no-argument constructor, which may be private.
+ * </p>
+ * <p>
+ * The fields, converters and method handles of a class are looked up once by {@link #of(Class)} and cached, so
+ * binding the same class again only converts and sets the values. Binders are thread-safe.
+ * </p>
+ *
+ * @param <T> The class bound to
+ */
+public final class SecretBinder<T> {
+
+    private static final ClassValue<SecretBinder<?>> BINDERS = new ClassValue<SecretBinder<?>>() {
+        @Override
+        protected SecretBinder<?> computeValue(Class<?> type) {
+            return new SecretBinder<>(type);
+        }
+    };
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    private final Map<String, Binding> bindings;
+
+    private SecretBinder(Class<T> type) {
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.type = type;
+
+        try {
+            final Constructor<T> noArgConstructor = type.getDeclaredConstructor();
+            noArgConstructor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(noArgConstructor)
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            throw new SecretBindingException(type.getName() + " does not have an accessible no-argument constructor", e);
+        }
+
+        final Map<String, Binding> bindings = new LinkedHashMap<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+
+                final String key = field.isAnnotationPresent(SecretKey.class)
+                        ? field.getAnnotation(SecretKey.class).value()
+                        : field.getName();
+                if (bindings.containsKey(key)) {
+                    continue; // a field declared by a subclass takes precedence
+                }
+                bindings.put(key, new Binding(lookup, field));
+            }
+        }
+        this.bindings = Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Returns the binder for a class, creating it the first time the class is bound.
+     *
+     * @param type The class to bind to
+     * @param <T>  The class to bind to
+     * @return Binder for the class
+     * @throws SecretBindingException if the class cannot be bound to, e.g. because a field has an unsupported type
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> SecretBinder<T> of(Class<T> type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Type cannot be null.");
+        }
+        return (SecretBinder<T>) BINDERS.get(type);
+    }
+
+    /**
+     * @return The secret keys the class binds
+     */
+    public Set<String> getKeys() {
+        return bindings.keySet();
+    }
+
+    /**
+     * @param key Secret key
+     * @return Whether a field is bound to the key
+     */
+    public boolean isBound(String key) {
+        return bindings.containsKey(key);
+    }
+
+    /**
+     * Creates an instance of the class using its no-argument constructor.
+     *
+     * @return New instance
+     */
+    @SuppressWarnings("unchecked")
+    public T newInstance() {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new SecretBindingException("Failed to create an instance of " + type.getName(), t);
+        }
+    }
+
+    /**
+     * Converts a secret value and sets it on the field bound to the key. Keys that are not bound are ignored.
+     * A null value leaves primitive fields at their current value.
+     *
+     * @param instance Instance to set the field on
+     * @param key      Secret key
+     * @param value    Secret value
+     * @throws SecretBindingException if the value cannot be converted; the message does not contain the value
+     */
+    public void bind(T instance, String key, String value) {
+        final Binding binding = bindings.get(key);
+        if (binding != null) {
+            binding.set(instance, value);
+        }
+    }
+
+    /**
+     * Creates an instance of the class and binds the secret data to it.
+     *
+     * @param data Secret data
+     * @return New instance
+     */
+    public T bind(Map<String, String> data) {
+        final T instance = newInstance();
+        if (data != null) {
+            data.forEach((key, value) -> bind(instance, key, value));
+        }
+        return instance;
+    }
+
+    private static final class Binding {
+
+        private final String description;
+
+        private final boolean primitive;
+
+        private final Function<String, ?> converter;
+
+        private final MethodHandle setter;
+
+        private Binding(MethodHandles.Lookup lookup, Field field) {
+            this.description = field.getDeclaringClass().getName() + "." + field.getName();
+            this.primitive = field.getType().isPrimitive();
+            this.converter = SecretValueConverters.forType(field.getType());
+
+            if (converter == null) {
+                throw new SecretBindingException("Unsupported type " + field.getType().getName() + " of " + description);
+            }
+            if (Modifier.isFinal(field.getModifiers())) {
+                throw new SecretBindingException("Cannot bind final field " + description);
+            }
+
+            try {
+                field.setAccessible(true);
+                this.setter = lookup.unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new SecretBindingException("Cannot access " + description, e);
+            }
+        }
+
+        private void set(Object instance, String value) {
+            if (value == null && primitive) {
+                return;
+            }
+
+            final Object converted;
+            try {
+                converted = value == null ? null : converter.apply(value);
+            } catch (RuntimeException e) {
+                // the value is a secret and conversion errors such as NumberFormatException quote their input,
+                // so the cause is not attached
+                throw new SecretBindingException("Failed to convert the value for " + description
+                        + " (" + e.getClass().getSimpleName() + ")");
+            }
+
+            try {
+                setter.invokeExact(instance, converted);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new SecretBindingException("Failed to set " + description, t);
+            }
+        }
+    }
+}
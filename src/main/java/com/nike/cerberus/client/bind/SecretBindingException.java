@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bind;
+
+import com.nike.cerberus.client.CerberusClientException;
+
+/**
+ * Thrown when secret data cannot be bound to a class, e.g. because a value cannot be converted to the type of
+ * the field it is bound to.
+ */
+public class SecretBindingException extends CerberusClientException {
+
+    private static final long serialVersionUID = -2739145573960410327L;
+
+    /**
+     * Constructs the exception with a message and underlying exception.
+     *
+     * @param message Message
+     * @param t       Underlying exception
+     */
+    public SecretBindingException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    /**
+     * Constructs the exception with a message.
+     *
+     * @param message Message
+     */
+    public SecretBindingException(String message) {
+        super(message);
+    }
+}
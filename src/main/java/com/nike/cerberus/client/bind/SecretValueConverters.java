@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bind;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Converters from secret values to the field types supported by {@link SecretBinder}.
+ */
+final class SecretValueConverters {
+
+    private static final Pattern SIMPLE_DURATION = Pattern.compile("(\\d+)\\s*(ms|s|m|h|d)");
+
+    private static final Map<Class<?>, Function<String, ?>> CONVERTERS = new HashMap<>();
+
+    static {
+        CONVERTERS.put(String.class, value -> value);
+        CONVERTERS.put(char[].class, String::toCharArray);
+        CONVERTERS.put(byte[].class, value -> Base64.getDecoder().decode(value.trim()));
+        CONVERTERS.put(int.class, value -> Integer.parseInt(value.trim()));
+        CONVERTERS.put(Integer.class, value -> Integer.valueOf(value.trim()));
+        CONVERTERS.put(long.class, value -> Long.parseLong(value.trim()));
+        CONVERTERS.put(Long.class, value -> Long.valueOf(value.trim()));
+        CONVERTERS.put(double.class, value -> Double.parseDouble(value.trim()));
+        CONVERTERS.put(Double.class, value -> Double.valueOf(value.trim()));
+        CONVERTERS.put(boolean.class, SecretValueConverters::parseBoolean);
+        CONVERTERS.put(Boolean.class, SecretValueConverters::parseBoolean);
+        CONVERTERS.put(Duration.class, SecretValueConverters::parseDuration);
+    }
+
+    private SecretValueConverters() {
+    }
+
+    /**
+     * Returns the converter for a field type.
+     *
+     * @param type Field type
+     * @return Converter, or null if the type is not supported
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Function<String, ?> forType(Class<?> type) {
+        if (type.isEnum()) {
+            return value -> Enum.valueOf((Class<? extends Enum>) type, value.trim());
+        }
+        return CONVERTERS.get(type);
+    }
+
+    /**
+     * Parses <code>true</code> or <code>false</code>, ignoring case. Unlike {@link Boolean#parseBoolean(String)}
+     * any other value is rejected, so a typo in a flag is not silently read as false.
+     */
+    static Boolean parseBoolean(String value) {
+        final String trimmed = value.trim();
+        if ("true".equalsIgnoreCase(trimmed)) {
+            return Boolean.TRUE;
+        } else if ("false".equalsIgnoreCase(trimmed)) {
+            return Boolean.FALSE;
+        }
+        throw new IllegalArgumentException("Expected true or false");
+    }
+
+    /**
+     * Parses an ISO-8601 duration, e.g. <code>PT30S</code>, or a whole number followed by one of the units
+     * <code>ms</code>, <code>s</code>, <code>m</code>, <code>h</code> or <code>d</code>, e.g. <code>30s</code>.
+     */
+    static Duration parseDuration(String value) {
+        final String trimmed = value.trim();
+        final Matcher matcher = SIMPLE_DURATION.matcher(trimmed.toLowerCase(Locale.ROOT));
+        if (!matcher.matches()) {
+            return Duration.parse(trimmed);
+        }
+
+        final long amount = Long.parseLong(matcher.group(1));
+        switch (matcher.group(2)) {
+            case "ms":
+                return Duration.ofMillis(amount);
+            case "s":
+                return Duration.ofSeconds(amount);
+            case "m":
+                return Duration.ofMinutes(amount);
+            case "h":
+                return Duration.ofHours(amount);
+            default:
+                return Duration.ofDays(amount);
+        }
+    }
+}
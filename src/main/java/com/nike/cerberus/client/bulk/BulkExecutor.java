@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs an operation for each item of a collection with a limited number of concurrent operations and a limit on
+ * the number of items started per second, so bulk jobs finish quickly without overloading Cerberus.
+ * <p>
+ * The limits apply to items, not HTTP requests: an operation that makes several calls to Cerberus, e.g. exporting a
+ * safe deposit box with its secrets and files, makes that many requests per permit. Choose the items per second
+ * accordingly.
+ * </p>
+ * <p>
+ * Each item gets its own {@link BulkResult}; a failure does not stop the other items. Retries of server errors
+ * are left to the client. Executors are thread-safe and should be {@link #close() closed} when no longer needed.
+ * </p>
+ */
+public class BulkExecutor implements AutoCloseable {
+
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    public static final int DEFAULT_ITEMS_PER_SECOND = 25;
+
+    private static final Duration PERMIT_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final AtomicInteger EXECUTOR_COUNT = new AtomicInteger();
+
+    private final ExecutorService executorService;
+
+    private final RateLimiter rateLimiter;
+
+    private final int concurrency;
+
+    /**
+     * Creates an executor with {@link #DEFAULT_CONCURRENCY} concurrent operations and at most
+     * {@link #DEFAULT_ITEMS_PER_SECOND} items started per second.
+     */
+    public BulkExecutor() {
+        this(DEFAULT_CONCURRENCY, DEFAULT_ITEMS_PER_SECOND);
+    }
+
+    /**
+     * @param concurrency    Maximum number of concurrent operations
+     * @param itemsPerSecond Maximum number of items started per second
+     */
+    public BulkExecutor(final int concurrency, final int itemsPerSecond) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1.");
+        }
+
+        if (itemsPerSecond < 1) {
+            throw new IllegalArgumentException("Items per second must be at least 1.");
+        }
+
+        final String name = "cerberus-bulk-" + EXECUTOR_COUNT.incrementAndGet();
+        this.concurrency = concurrency;
+        this.executorService = Executors.newFixedThreadPool(concurrency, daemonThreadFactory(name));
+        this.rateLimiter = RateLimiter.of(name, RateLimiterConfig.custom()
+                .limitForPeriod(itemsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(PERMIT_TIMEOUT)
+                .build());
+    }
+
+    /**
+     * Applies the operation to each item and waits until all items are done.
+     *
+     * @param items     Items to apply the operation to
+     * @param operation Operation to apply, e.g. a call to Cerberus
+     * @param <I>       Type of the items
+     * @param <R>       Type of the results
+     * @return One result per item, in the order of the items
+     */
+    public <I, R> List<BulkResult<I, R>> execute(final Collection<? extends I> items, final Function<? super I, ? extends R> operation) {
+        return execute(items, operation, false);
+    }
+
+    /**
+     * Applies the operation to each item and waits until all items are done. When stopping on the first failure,
+     * items that have not been started once an operation fails are not run and get a failed result with a
+     * {@link CancellationException}; operations that are already running are completed.
+     *
+     * @param items              Items to apply the operation to
+     * @param operation          Operation to apply, e.g. a call to Cerberus
+     * @param stopOnFirstFailure Whether to skip the remaining items after a failure
+     * @param <I>                Type of the items
+     * @param <R>                Type of the results
+     * @return One result per item, in the order of the items
+     */
+    public <I, R> List<BulkResult<I, R>> execute(final Collection<? extends I> items,
+                                                 final Function<? super I, ? extends R> operation,
+                                                 final boolean stopOnFirstFailure) {
+        if (items == null) {
+            throw new IllegalArgumentException("Items cannot be null.");
+        }
+
+        if (operation == null) {
+            throw new IllegalArgumentException("Operation cannot be null.");
+        }
+
+        final AtomicBoolean failed = stopOnFirstFailure ? new AtomicBoolean() : null;
+        final List<Future<BulkResult<I, R>>> futures = new ArrayList<>(items.size());
+        for (I item : items) {
+            futures.add(executorService.submit(() -> apply(item, operation, failed)));
+        }
+
+        final List<BulkResult<I, R>> results = new ArrayList<>(items.size());
+        int index = 0;
+        for (I item : items) {
+            results.add(await(item, futures.get(index++)));
+        }
+        return results;
+    }
+
+    /**
+     * @return Maximum number of concurrent operations
+     */
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    /**
+     * @return Rate limiter that every item takes a permit from before its operation starts
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Stops the worker threads and interrupts running operations. Items that are still queued are not run; they are
+     * cancelled, so a pending {@link #execute(Collection, Function)} returns with a failed result for each of them.
+     */
+    @Override
+    public void close() {
+        for (Runnable queued : executorService.shutdownNow()) {
+            if (queued instanceof Future) {
+                ((Future<?>) queued).cancel(false);
+            }
+        }
+    }
+
+    private <I, R> BulkResult<I, R> apply(final I item,
+                                          final Function<? super I, ? extends R> operation,
+                                          final AtomicBoolean failed) {
+        if (failed != null && failed.get()) {
+            return BulkResult.failure(item, new CancellationException("Skipped after an earlier failure."));
+        }
+
+        try {
+            RateLimiter.waitForPermission(rateLimiter);
+            return BulkResult.success(item, operation.apply(item));
+        } catch (RuntimeException e) {
+            if (failed != null) {
+                failed.set(true);
+            }
+            return BulkResult.failure(item, e);
+        }
+    }
+
+    private static <I, R> BulkResult<I, R> await(final I item, final Future<BulkResult<I, R>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BulkResult.failure(item, e);
+        } catch (ExecutionException e) {
+            return BulkResult.failure(item, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+        } catch (RuntimeException e) {
+            // e.g. the task was cancelled because the executor was closed
+            return BulkResult.failure(item, e);
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        final AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
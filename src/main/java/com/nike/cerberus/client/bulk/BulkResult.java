@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+/**
+ * Outcome of one item of a bulk operation.
+ *
+ * @param <I> Type of the item
+ * @param <R> Type of the result of a successful operation
+ */
+public final class BulkResult<I, R> {
+
+    private final I item;
+
+    private final R result;
+
+    private final Exception error;
+
+    private BulkResult(I item, R result, Exception error) {
+        this.item = item;
+        this.result = result;
+        this.error = error;
+    }
+
+    /**
+     * @param item   The item
+     * @param result Result of the operation
+     * @param <I>    Type of the item
+     * @param <R>    Type of the result
+     * @return Successful result
+     */
+    public static <I, R> BulkResult<I, R> success(I item, R result) {
+        return new BulkResult<>(item, result, null);
+    }
+
+    /**
+     * @param item  The item
+     * @param error Why the operation failed
+     * @param <I>   Type of the item
+     * @param <R>   Type of the result
+     * @return Failed result
+     */
+    public static <I, R> BulkResult<I, R> failure(I item, Exception error) {
+        if (error == null) {
+            throw new IllegalArgumentException("Error cannot be null.");
+        }
+        return new BulkResult<>(item, null, error);
+    }
+
+    /**
+     * @return The item the operation was applied to
+     */
+    public I getItem() {
+        return item;
+    }
+
+    /**
+     * @return Result of the operation, null if it failed
+     */
+    public R getResult() {
+        return result;
+    }
+
+    /**
+     * @return Why the operation failed, null if it succeeded
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    /**
+     * @return Whether the operation succeeded
+     */
+    public boolean isSuccessful() {
+        return error == null;
+    }
+}
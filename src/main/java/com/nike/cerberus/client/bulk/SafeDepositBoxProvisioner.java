@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.cache.RoleRegistry;
+import com.nike.cerberus.client.cache.SafeDepositBoxIndex;
+import com.nike.cerberus.client.model.CerberusIamPrincipalPermission;
+import com.nike.cerberus.client.model.CerberusRoleResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusUserGroupPermission;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates or updates many safe deposit boxes concurrently.
+ * <p>
+ * A request is an update if the client can already see a safe deposit box with the same name, otherwise it is a
+ * create. The safe deposit box index and the category and role registries are loaded once per run, before any
+ * request is sent, and each request's category and role IDs are checked against them so that a typo fails that
+ * item without a round trip.
+ * </p>
+ */
+public class SafeDepositBoxProvisioner {
+
+    private final CerberusClient cerberusClient;
+
+    private final BulkExecutor bulkExecutor;
+
+    /**
+     * @param cerberusClient Client to provision with
+     * @param bulkExecutor   Executor that limits how many safe deposit boxes are processed concurrently and per second
+     */
+    public SafeDepositBoxProvisioner(final CerberusClient cerberusClient, final BulkExecutor bulkExecutor) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        if (bulkExecutor == null) {
+            throw new IllegalArgumentException("Bulk executor cannot be null.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.bulkExecutor = bulkExecutor;
+    }
+
+    /**
+     * Creates or updates each safe deposit box and waits until all are done.
+     *
+     * @param requests Safe deposit boxes to provision
+     * @return One result per request, in the order of the requests
+     */
+    public List<BulkResult<CerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse>> provision(
+            final Collection<CerberusSafeDepositBoxRequest> requests) {
+
+        if (requests == null) {
+            throw new IllegalArgumentException("Requests cannot be null.");
+        }
+
+        final Set<String> categoryIds = new HashSet<>(cerberusClient.getCategoryRegistry().getIdsByPath().values());
+        final Set<String> roleIds = roleIds(cerberusClient.getRoleRegistry());
+        final SafeDepositBoxIndex index = cerberusClient.refreshSafeDepositBoxIndex();
+
+        return bulkExecutor.execute(requests, request -> {
+            validate(request, categoryIds, roleIds);
+
+            final String id = index.getIdByName(request.getName());
+            return id == null
+                    ? cerberusClient.createSafeDepositBox(request)
+                    : cerberusClient.updateSafeDepositBox(id, request);
+        });
+    }
+
+    private static void validate(final CerberusSafeDepositBoxRequest request,
+                                 final Set<String> categoryIds,
+                                 final Set<String> roleIds) {
+
+        if (request.getCategoryId() != null && !categoryIds.contains(request.getCategoryId())) {
+            throw new CerberusClientException("Unknown category ID " + request.getCategoryId()
+                    + " for safe deposit box " + request.getName());
+        }
+
+        if (request.getUserGroupPermissions() != null) {
+            for (CerberusUserGroupPermission permission : request.getUserGroupPermissions()) {
+                validateRoleId(request, permission.getRoleId(), roleIds);
+            }
+        }
+
+        if (request.getIamPrincipalPermissions() != null) {
+            for (CerberusIamPrincipalPermission permission : request.getIamPrincipalPermissions()) {
+                validateRoleId(request, permission.getRoleId(), roleIds);
+            }
+        }
+    }
+
+    private static void validateRoleId(final CerberusSafeDepositBoxRequest request,
+                                       final String roleId,
+                                       final Set<String> roleIds) {
+        if (!roleIds.contains(roleId)) {
+            throw new CerberusClientException("Unknown role ID " + roleId + " for safe deposit box " + request.getName());
+        }
+    }
+
+    private static Set<String> roleIds(final RoleRegistry roles) {
+        final Set<String> roleIds = new HashSet<>();
+        for (CerberusRoleResponse role : roles.getRoles()) {
+            roleIds.add(role.getId());
+        }
+        return roleIds;
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusServerApiException;
+import com.nike.cerberus.client.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Opt-in write-behind buffer that merges key updates to the same path into a single write.
+ * <p>
+ * The first update to a path starts a window; updates to the path within the window are merged, later updates of a
+ * key win. The path is written when the window ends or as soon as the number of pending keys reaches the size
+ * threshold. A write reads the data stored at the path, bypassing the client's secret cache, applies the pending
+ * keys and writes the result, so keys that were not updated are kept. That is one read and one write per window
+ * instead of one full write per update.
+ * </p>
+ * <p>
+ * Writes are done one at a time on a background thread, so writes of a path are applied in order. Updates are lost
+ * if the process dies before they are written; call {@link #flush()} or {@link #close()} to write them.
+ * </p>
+ */
+public class WriteCoalescingBuffer implements AutoCloseable {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(100);
+
+    public static final int DEFAULT_MAX_PENDING_KEYS = 100;
+
+    private static final AtomicInteger BUFFER_COUNT = new AtomicInteger();
+
+    private final CerberusClient cerberusClient;
+
+    private final long windowNanos;
+
+    private final int maxPendingKeys;
+
+    private final ScheduledExecutorService writer;
+
+    private final Object lock = new Object();
+
+    private final Map<String, Pending> pending = new HashMap<>();
+
+    private boolean closed;
+
+    /**
+     * Creates a buffer with a window of {@link #DEFAULT_WINDOW} and at most {@link #DEFAULT_MAX_PENDING_KEYS}
+     * pending keys per path.
+     *
+     * @param cerberusClient Client to write with
+     */
+    public WriteCoalescingBuffer(final CerberusClient cerberusClient) {
+        this(cerberusClient, DEFAULT_WINDOW, DEFAULT_MAX_PENDING_KEYS);
+    }
+
+    /**
+     * @param cerberusClient Client to write with
+     * @param window         How long updates to a path are collected before it is written
+     * @param maxPendingKeys Number of pending keys of a path at which it is written without waiting for the window
+     */
+    public WriteCoalescingBuffer(final CerberusClient cerberusClient, final Duration window, final int maxPendingKeys) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("Window cannot be null or negative.");
+        }
+
+        if (maxPendingKeys < 1) {
+            throw new IllegalArgumentException("Max pending keys must be at least 1.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.windowNanos = window.toNanos();
+        this.maxPendingKeys = maxPendingKeys;
+
+        final String name = "cerberus-write-buffer-" + BUFFER_COUNT.incrementAndGet();
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        this.writer = executor;
+    }
+
+    /**
+     * Buffers a key update of a path.
+     *
+     * @param path  Path of the secret
+     * @param key   Key to set
+     * @param value Value to set
+     * @return Future that completes when the update has been written, or completes exceptionally with the error of
+     * the write
+     */
+    public CompletableFuture<Void> update(final String path, final String key, final String value) {
+        final Map<String, String> updates = new HashMap<>(1);
+        updates.put(key, value);
+        return update(path, updates);
+    }
+
+    /**
+     * Buffers key updates of a path.
+     *
+     * @param path    Path of the secret
+     * @param updates Keys and values to set
+     * @return Future that completes when the updates have been written, or completes exceptionally with the error
+     * of the write
+     * @throws IllegalStateException if the buffer is closed
+     */
+    public CompletableFuture<Void> update(final String path, final Map<String, String> updates) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null.");
+        }
+
+        if (updates == null) {
+            throw new IllegalArgumentException("Updates cannot be null.");
+        }
+
+        final Pending entry;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Write buffer is closed.");
+            }
+
+            entry = pending.computeIfAbsent(path, p -> {
+                final Pending started = new Pending();
+                writer.schedule(() -> write(path, started), windowNanos, TimeUnit.NANOSECONDS);
+                return started;
+            });
+            entry.data.putAll(updates);
+            if (entry.data.size() >= maxPendingKeys) {
+                writer.execute(() -> write(path, entry));
+            }
+        }
+        return entry.written;
+    }
+
+    /**
+     * Writes all pending updates without waiting for their windows to end.
+     *
+     * @return Future that completes when all updates pending at the time of the call have been written; it
+     * completes exceptionally if any write failed
+     */
+    public CompletableFuture<Void> flush() {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        synchronized (lock) {
+            for (Map.Entry<String, Pending> entry : pending.entrySet()) {
+                final String path = entry.getKey();
+                final Pending current = entry.getValue();
+                futures.add(current.written);
+                writer.execute(() -> write(path, current));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * @return Number of paths with pending updates
+     */
+    public int getPendingPaths() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Rejects further updates, writes the pending ones and waits until they are written.
+     */
+    @Override
+    public void close() {
+        final CompletableFuture<Void> flushed;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            flushed = flush();
+        }
+
+        try {
+            flushed.join();
+        } catch (RuntimeException e) {
+            // reported through the futures of the failed updates
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    private void write(final String path, final Pending entry) {
+        synchronized (lock) {
+            if (!pending.remove(path, entry)) {
+                // already written by an earlier flush or because it reached the size threshold; a task left over
+                // from an earlier window must not cut the window of a later one short
+                return;
+            }
+        }
+
+        try {
+            final Map<String, String> data = new LinkedHashMap<>(read(path));
+            data.putAll(entry.data);
+            cerberusClient.write(path, data);
+            entry.written.complete(null);
+        } catch (Throwable t) {
+            entry.written.completeExceptionally(t);
+        }
+    }
+
+    private Map<String, String> read(final String path) {
+        try {
+            final Map<String, String> data = cerberusClient.readUncached(path).getData();
+            return data == null ? new HashMap<>() : data;
+        } catch (CerberusServerApiException e) {
+            if (e.getCode() == HttpStatus.NOT_FOUND) {
+                return new HashMap<>();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Updates of one path collected during one window.
+     */
+    private static final class Pending {
+
+        private final Map<String, String> data = new LinkedHashMap<>();
+
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import com.nike.cerberus.client.model.CerberusCategoryResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the safe deposit box categories that Cerberus supports.
+ */
+public final class CategoryRegistry {
+
+    private final List<CerberusCategoryResponse> categories;
+
+    private final Map<String, String> idsByPath;
+
+    /**
+     * @param categories Categories as returned by listing the categories
+     */
+    public CategoryRegistry(final List<CerberusCategoryResponse> categories) {
+        if (categories == null) {
+            throw new IllegalArgumentException("Categories cannot be null.");
+        }
+
+        final Map<String, String> idsByPath = new HashMap<>(categories.size() * 2);
+        for (CerberusCategoryResponse category : categories) {
+            idsByPath.put(category.getPath(), category.getId());
+        }
+
+        this.categories = Collections.unmodifiableList(new ArrayList<>(categories));
+        this.idsByPath = Collections.unmodifiableMap(idsByPath);
+    }
+
+    /**
+     * @return All categories
+     */
+    public List<CerberusCategoryResponse> getCategories() {
+        return categories;
+    }
+
+    /**
+     * @return Map of category path to ID
+     */
+    public Map<String, String> getIdsByPath() {
+        return idsByPath;
+    }
+
+    /**
+     * @param path The path of the category (e.g. "app")
+     * @return The ID of the category, or null if there is none with the path
+     */
+    public String getIdByPath(final String path) {
+        return idsByPath.get(path);
+    }
+}
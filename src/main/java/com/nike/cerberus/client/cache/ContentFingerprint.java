@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stable SHA-256 fingerprints of secret data and file contents, used to detect whether a write would change what is
+ * stored.
+ * <p>
+ * Secret data is hashed in key order with every key and value prefixed by its length, so the fingerprint does not
+ * depend on the iteration order of the map and different maps cannot produce the same input to the hash.
+ * </p>
+ */
+public final class ContentFingerprint {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ContentFingerprint() {
+    }
+
+    /**
+     * @param data Secret data, without null keys
+     * @return Hex SHA-256 of the data, independent of the iteration order of the map
+     */
+    public static String of(final Map<String, String> data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+        for (String key : data.keySet()) {
+            if (key == null) {
+                throw new IllegalArgumentException("Data keys cannot be null.");
+            }
+        }
+
+        final MessageDigest digest = sha256();
+        for (Map.Entry<String, String> entry : new TreeMap<>(data).entrySet()) {
+            update(digest, entry.getKey());
+            update(digest, entry.getValue());
+        }
+        return hex(digest.digest());
+    }
+
+    /**
+     * @param contents File contents
+     * @return Hex SHA-256 of the contents
+     */
+    public static String of(final byte[] contents) {
+        if (contents == null) {
+            throw new IllegalArgumentException("Contents cannot be null.");
+        }
+
+        return hex(sha256().digest(contents));
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            updateLength(digest, -1);
+            return;
+        }
+
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        updateLength(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateLength(MessageDigest digest, int length) {
+        digest.update((byte) (length >>> 24));
+        digest.update((byte) (length >>> 16));
+        digest.update((byte) (length >>> 8));
+        digest.update((byte) length);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by the JVM", e);
+        }
+    }
+
+    private static String hex(byte[] digest) {
+        final char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
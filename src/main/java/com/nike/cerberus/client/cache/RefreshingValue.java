@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Holds a value that is loaded lazily and re-loaded once it is older than a time to live.
+ * <p>
+ * The value is expected to be immutable; it is swapped atomically, so readers never block while a fresh value is
+ * available. Only one thread loads at a time and concurrent callers wait for its result instead of loading
+ * again. A load that races with {@link #invalidate()} or {@link #update(UnaryOperator)} is returned to its caller
+ * but not cached, so a stale value never replaces a newer one.
+ * </p>
+ *
+ * @param <T> Type of the value
+ */
+public class RefreshingValue<T> {
+
+    private final Supplier<T> loader;
+
+    private final LongSupplier nanoClock;
+
+    private final AtomicReference<Snapshot<T>> snapshot = new AtomicReference<>();
+
+    private final Object loadLock = new Object();
+
+    private volatile long ttlNanos;
+
+    /**
+     * @param loader Loads the value, e.g. from Cerberus
+     * @param ttl    How long a loaded value is used before it is loaded again
+     */
+    public RefreshingValue(final Supplier<T> loader, final Duration ttl) {
+        this(loader, ttl, System::nanoTime);
+    }
+
+    RefreshingValue(final Supplier<T> loader, final Duration ttl, final LongSupplier nanoClock) {
+        if (loader == null) {
+            throw new IllegalArgumentException("Loader cannot be null.");
+        }
+
+        this.loader = loader;
+        this.nanoClock = nanoClock;
+        setTtl(ttl);
+    }
+
+    /**
+     * Returns the value, loading it if it has not been loaded yet or is older than the time to live.
+     *
+     * @return The value
+     */
+    public T get() {
+        final Snapshot<T> current = snapshot.get();
+        if (current != null && current.loaded && isFresh(current)) {
+            return current.value;
+        }
+
+        synchronized (loadLock) {
+            final Snapshot<T> latest = snapshot.get();
+            if (latest != null && latest.loaded && isFresh(latest)) {
+                return latest.value;
+            }
+            return load(latest);
+        }
+    }
+
+    /**
+     * @return Whether a value is loaded and younger than the time to live, i.e. whether {@link #get()} would return
+     * it without loading
+     */
+    public boolean isCurrent() {
+        final Snapshot<T> current = snapshot.get();
+        return current != null && current.loaded && isFresh(current);
+    }
+
+    /**
+     * Loads the value now, regardless of its age.
+     *
+     * @return The freshly loaded value
+     */
+    public T refresh() {
+        synchronized (loadLock) {
+            return load(snapshot.get());
+        }
+    }
+
+    /**
+     * Discards the value so the next {@link #get()} loads it again.
+     */
+    public void invalidate() {
+        snapshot.set(Snapshot.empty());
+    }
+
+    /**
+     * Applies a change to the cached value, e.g. after a write that the value should reflect. Nothing happens if
+     * no value is cached; the next load picks up the change instead. The age of the value is not reset.
+     *
+     * @param update Returns the changed value, must not modify its argument
+     */
+    public void update(final UnaryOperator<T> update) {
+        // always swap in a new snapshot, so a load that is in flight does not overwrite the change
+        snapshot.updateAndGet(current -> current != null && current.loaded
+                ? new Snapshot<>(update.apply(current.value), current.loadedAtNanos, true)
+                : Snapshot.empty());
+    }
+
+    /**
+     * @param ttl How long a loaded value is used before it is loaded again
+     */
+    public void setTtl(final Duration ttl) {
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("TTL cannot be null or negative.");
+        }
+
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @return How long a loaded value is used before it is loaded again
+     */
+    public Duration getTtl() {
+        return Duration.ofNanos(ttlNanos);
+    }
+
+    private T load(final Snapshot<T> previous) {
+        final long startedAt = nanoClock.getAsLong();
+        final T value = loader.get();
+        snapshot.compareAndSet(previous, new Snapshot<>(value, startedAt, true));
+        return value;
+    }
+
+    private boolean isFresh(final Snapshot<T> current) {
+        return nanoClock.getAsLong() - current.loadedAtNanos < ttlNanos;
+    }
+
+    private static final class Snapshot<T> {
+
+        private final T value;
+
+        private final long loadedAtNanos;
+
+        private final boolean loaded;
+
+        private Snapshot(T value, long loadedAtNanos, boolean loaded) {
+            this.value = value;
+            this.loadedAtNanos = loadedAtNanos;
+            this.loaded = loaded;
+        }
+
+        private static <T> Snapshot<T> empty() {
+            return new Snapshot<>(null, 0, false);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import com.nike.cerberus.client.model.CerberusRolePermission;
+import com.nike.cerberus.client.model.CerberusRoleResponse;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the roles that Cerberus supports.
+ */
+public final class RoleRegistry {
+
+    private final List<CerberusRoleResponse> roles;
+
+    private final Map<CerberusRolePermission, String> idsByPermission;
+
+    /**
+     * @param roles Roles as returned by listing the roles
+     */
+    public RoleRegistry(final List<CerberusRoleResponse> roles) {
+        if (roles == null) {
+            throw new IllegalArgumentException("Roles cannot be null.");
+        }
+
+        final Map<CerberusRolePermission, String> idsByPermission = new EnumMap<>(CerberusRolePermission.class);
+        for (CerberusRoleResponse role : roles) {
+            idsByPermission.put(CerberusRolePermission.fromString(role.getName()), role.getId());
+        }
+
+        this.roles = Collections.unmodifiableList(new ArrayList<>(roles));
+        this.idsByPermission = Collections.unmodifiableMap(idsByPermission);
+    }
+
+    /**
+     * @return All roles
+     */
+    public List<CerberusRoleResponse> getRoles() {
+        return roles;
+    }
+
+    /**
+     * @return Map of role permission to ID
+     */
+    public Map<CerberusRolePermission, String> getIdsByPermission() {
+        return idsByPermission;
+    }
+
+    /**
+     * @param permission The role permission
+     * @return The ID of the role, or null if Cerberus does not support the permission
+     */
+    public String getId(final CerberusRolePermission permission) {
+        return idsByPermission.get(permission);
+    }
+}
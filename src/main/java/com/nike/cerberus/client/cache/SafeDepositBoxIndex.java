@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable index of the safe deposit boxes visible to a client, by ID, name and path.
+ * <p>
+ * If several safe deposit boxes share a name, the name maps to the first one listed.
+ * </p>
+ */
+public final class SafeDepositBoxIndex {
+
+    private final Map<String, CerberusSafeDepositBoxSummaryResponse> byId;
+
+    private final Map<String, String> idByName;
+
+    private final Map<String, String> idByPath;
+
+    /**
+     * @param safeDepositBoxes Summaries as returned by listing the safe deposit boxes
+     */
+    public SafeDepositBoxIndex(final Collection<CerberusSafeDepositBoxSummaryResponse> safeDepositBoxes) {
+        this(toMap(safeDepositBoxes));
+    }
+
+    private SafeDepositBoxIndex(final Map<String, CerberusSafeDepositBoxSummaryResponse> byId) {
+        final Map<String, String> idByName = new HashMap<>(byId.size() * 2);
+        final Map<String, String> idByPath = new HashMap<>(byId.size() * 2);
+        for (CerberusSafeDepositBoxSummaryResponse sdb : byId.values()) {
+            if (sdb.getName() != null) {
+                idByName.putIfAbsent(sdb.getName(), sdb.getId());
+            }
+            if (sdb.getPath() != null) {
+                idByPath.putIfAbsent(normalizePath(sdb.getPath()), sdb.getId());
+            }
+        }
+
+        this.byId = Collections.unmodifiableMap(byId);
+        this.idByName = idByName;
+        this.idByPath = idByPath;
+    }
+
+    /**
+     * @param name Name of the safe deposit box
+     * @return ID of the safe deposit box, or null if there is none with the name
+     */
+    public String getIdByName(final String name) {
+        return idByName.get(name);
+    }
+
+    /**
+     * @param path Path of the safe deposit box, with or without the trailing slash (e.g. "app/my-sdb/")
+     * @return ID of the safe deposit box, or null if there is none with the path
+     */
+    public String getIdByPath(final String path) {
+        return path == null ? null : idByPath.get(normalizePath(path));
+    }
+
+    /**
+     * @param id ID of the safe deposit box
+     * @return Summary of the safe deposit box, or null if there is none with the ID
+     */
+    public CerberusSafeDepositBoxSummaryResponse getById(final String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * @return Summaries of all indexed safe deposit boxes, in listing order
+     */
+    public Collection<CerberusSafeDepositBoxSummaryResponse> getSafeDepositBoxes() {
+        return byId.values();
+    }
+
+    /**
+     * Returns a copy of this index with a safe deposit box added, or replaced if one with the same ID is indexed.
+     *
+     * @param safeDepositBox Summary of the safe deposit box
+     * @return New index
+     */
+    public SafeDepositBoxIndex withSafeDepositBox(final CerberusSafeDepositBoxSummaryResponse safeDepositBox) {
+        final Map<String, CerberusSafeDepositBoxSummaryResponse> copy = new LinkedHashMap<>(byId);
+        copy.put(safeDepositBox.getId(), safeDepositBox);
+        return new SafeDepositBoxIndex(copy);
+    }
+
+    /**
+     * Returns a copy of this index without a safe deposit box.
+     *
+     * @param id ID of the safe deposit box
+     * @return New index
+     */
+    public SafeDepositBoxIndex withoutSafeDepositBox(final String id) {
+        if (!byId.containsKey(id)) {
+            return this;
+        }
+        final Map<String, CerberusSafeDepositBoxSummaryResponse> copy = new LinkedHashMap<>(byId);
+        copy.remove(id);
+        return new SafeDepositBoxIndex(copy);
+    }
+
+    private static Map<String, CerberusSafeDepositBoxSummaryResponse> toMap(
+            final Collection<CerberusSafeDepositBoxSummaryResponse> safeDepositBoxes) {
+
+        if (safeDepositBoxes == null) {
+            throw new IllegalArgumentException("Safe deposit boxes cannot be null.");
+        }
+
+        final Map<String, CerberusSafeDepositBoxSummaryResponse> byId = new LinkedHashMap<>(safeDepositBoxes.size() * 2);
+        for (CerberusSafeDepositBoxSummaryResponse sdb : safeDepositBoxes) {
+            byId.putIfAbsent(sdb.getId(), sdb);
+        }
+        return byId;
+    }
+
+    private static String normalizePath(final String path) {
+        return StringUtils.appendIfMissing(path, "/");
+    }
+}
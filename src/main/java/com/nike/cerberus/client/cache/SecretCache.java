@@ -0,0 +1,405 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Opt-in cache of secret data, file contents and key listings, kept coherent with the writes and deletes made
+ * through the client it is set on, see {@link com.nike.cerberus.client.CerberusClient#setSecretCache(SecretCache)}.
+ * <p>
+ * A write replaces the cached data of the path and a delete removes it; both remove the cached listings of every
+ * ancestor folder, as the write may have created or the delete removed a key or folder in them. Each such change
+ * happens atomically, so a reader never sees new data together with a stale listing. Values loaded while their
+ * entry is changed are not cached (see {@link #getVersion(EntryType, String)}), so the client reads its own writes.
+ * Versions are kept in a fixed number of stripes shared by unrelated entries rather than per path, so a change
+ * occasionally also keeps a value of another entry that was loaded at the same time from being cached.
+ * </p>
+ * <p>
+ * Entries expire after a time to live and the least recently used entries are evicted beyond a maximum size.
+ * Changes made by other clients are only seen once the entry expires. {@link InvalidationListener Listeners} are
+ * told about every entry that is changed or removed by a write, delete or invalidation.
+ * </p>
+ */
+public class SecretCache {
+
+    /**
+     * The kinds of cached entries.
+     */
+    public enum EntryType {
+        /** Data of a secret path, from {@code read} */
+        SECRET,
+        /** Contents of a file, from {@code readFileAsBytes} */
+        FILE,
+        /** Keys of a folder, from {@code list} */
+        LIST
+    }
+
+    /**
+     * Is told about entries that are changed or removed, e.g. to keep derived state coherent.
+     */
+    @FunctionalInterface
+    public interface InvalidationListener {
+
+        /**
+         * Called after the entry was changed or removed, outside of any lock of the cache.
+         *
+         * @param type Type of the entry
+         * @param path Path of the entry, folder paths end with "/"
+         */
+        void invalidated(EntryType type, String path);
+    }
+
+    private static final int VERSION_STRIPES = 64;
+
+    private final LongSupplier nanoClock;
+
+    private final long ttlNanos;
+
+    private final Map<Key, CacheEntry> entries;
+
+    private final List<InvalidationListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Versions of the entries, striped by key so the memory used does not grow with the number of paths. A change
+     * only holds back the puts of entries that share its stripe.
+     */
+    private final long[] versions = new long[VERSION_STRIPES];
+
+    /**
+     * @param ttl        How long an entry is used before it is read from Cerberus again
+     * @param maxEntries Maximum number of entries, the least recently used are evicted
+     */
+    public SecretCache(final Duration ttl, final int maxEntries) {
+        this(ttl, maxEntries, System::nanoTime);
+    }
+
+    SecretCache(final Duration ttl, final int maxEntries, final LongSupplier nanoClock) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL must be positive.");
+        }
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Max entries must be at least 1.");
+        }
+
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LruMap(maxEntries);
+    }
+
+    /**
+     * @param type Type of the entry
+     * @param path Path of the entry
+     * @return Version of the stripe of the entry, which changes with every write, delete and invalidation of the
+     * entry and of the other entries in its stripe. Read it before loading a value and pass it to the put method,
+     * so a value that was loaded while it changed is not cached
+     */
+    public long getVersion(final EntryType type, final String path) {
+        final Key key = new Key(type, type == EntryType.LIST ? folder(path) : path);
+        synchronized (this) {
+            return versions[stripe(key)];
+        }
+    }
+
+    /**
+     * @param path Path of the secret
+     * @return Cached, unmodifiable data of the secret or null
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, String> getSecret(final String path) {
+        return (Map<String, String>) get(new Key(EntryType.SECRET, path));
+    }
+
+    /**
+     * @param path Path of the file
+     * @return Copy of the cached contents of the file or null
+     */
+    public byte[] getFile(final String path) {
+        final byte[] contents = (byte[]) get(new Key(EntryType.FILE, path));
+        return contents == null ? null : contents.clone();
+    }
+
+    /**
+     * @param path Path of the folder
+     * @return Cached, unmodifiable keys of the folder or null
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getKeys(final String path) {
+        return (List<String>) get(new Key(EntryType.LIST, folder(path)));
+    }
+
+    /**
+     * Caches data read from Cerberus.
+     *
+     * @param path    Path of the secret
+     * @param data    Data of the secret
+     * @param version {@link #getVersion(EntryType, String) Version} from before the data was read
+     */
+    public void putSecret(final String path, final Map<String, String> data, final long version) {
+        put(new Key(EntryType.SECRET, path), Collections.unmodifiableMap(new LinkedHashMap<>(data)), version);
+    }
+
+    /**
+     * Caches file contents read from Cerberus.
+     *
+     * @param path     Path of the file
+     * @param contents Contents of the file
+     * @param version  {@link #getVersion(EntryType, String) Version} from before the contents were read
+     */
+    public void putFile(final String path, final byte[] contents, final long version) {
+        put(new Key(EntryType.FILE, path), contents.clone(), version);
+    }
+
+    /**
+     * Caches keys listed by Cerberus.
+     *
+     * @param path    Path of the folder
+     * @param keys    Keys of the folder
+     * @param version {@link #getVersion(EntryType, String) Version} from before the keys were listed
+     */
+    public void putKeys(final String path, final List<String> keys, final long version) {
+        put(new Key(EntryType.LIST, folder(path)), Collections.unmodifiableList(new ArrayList<>(keys)), version);
+    }
+
+    /**
+     * Replaces the cached data of a secret that was written and removes the listings of its ancestor folders.
+     *
+     * @param path Path of the secret
+     * @param data Data that was written
+     */
+    public void secretWritten(final String path, final Map<String, String> data) {
+        mutate(path, new Key(EntryType.SECRET, path), Collections.unmodifiableMap(new LinkedHashMap<>(data)));
+    }
+
+    /**
+     * Removes the cached data of a secret that was deleted and the listings of its ancestor folders.
+     *
+     * @param path Path of the secret
+     */
+    public void secretDeleted(final String path) {
+        mutate(path, new Key(EntryType.SECRET, path), null);
+    }
+
+    /**
+     * Replaces the cached contents of a file that was written.
+     *
+     * @param path     Path of the file
+     * @param contents Contents that were written
+     */
+    public void fileWritten(final String path, final byte[] contents) {
+        mutate(null, new Key(EntryType.FILE, path), contents.clone());
+    }
+
+    /**
+     * Removes the cached contents of a file that was deleted.
+     *
+     * @param path Path of the file
+     */
+    public void fileDeleted(final String path) {
+        mutate(null, new Key(EntryType.FILE, path), null);
+    }
+
+    /**
+     * Removes an entry, e.g. because it was changed by another client.
+     *
+     * @param type Type of the entry
+     * @param path Path of the entry
+     */
+    public void invalidate(final EntryType type, final String path) {
+        mutate(null, new Key(type, type == EntryType.LIST ? folder(path) : path), null);
+    }
+
+    /**
+     * Removes all entries. Listeners are not told about the individual entries.
+     */
+    public void invalidateAll() {
+        synchronized (this) {
+            for (int i = 0; i < versions.length; i++) {
+                versions[i]++;
+            }
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return Number of cached entries, including expired entries that have not been removed yet
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @param listener Listener to tell about changed and removed entries
+     */
+    public void addInvalidationListener(final InvalidationListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener Listener to remove
+     */
+    public void removeInvalidationListener(final InvalidationListener listener) {
+        listeners.remove(listener);
+    }
+
+    private synchronized Object get(Key key) {
+        final CacheEntry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (nanoClock.getAsLong() - entry.expiresAtNanos >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void put(Key key, Object value, long loadedVersion) {
+        if (loadedVersion == versions[stripe(key)]) {
+            entries.put(key, new CacheEntry(value, nanoClock.getAsLong() + ttlNanos));
+        }
+    }
+
+    /**
+     * Sets or removes the entry and, for secrets, removes the listings of the ancestor folders in one step.
+     */
+    private void mutate(String secretPath, Key key, Object value) {
+        final List<Key> changed = new ArrayList<>();
+        changed.add(key);
+        if (secretPath != null) {
+            for (String folder : ancestors(secretPath)) {
+                changed.add(new Key(EntryType.LIST, folder));
+            }
+        }
+
+        synchronized (this) {
+            for (Key changedKey : changed) {
+                versions[stripe(changedKey)]++;
+                entries.remove(changedKey);
+            }
+            if (value != null) {
+                entries.put(key, new CacheEntry(value, nanoClock.getAsLong() + ttlNanos));
+            }
+        }
+
+        for (Key changedKey : changed) {
+            for (InvalidationListener listener : listeners) {
+                listener.invalidated(changedKey.type, changedKey.path);
+            }
+        }
+    }
+
+    private static int stripe(Key key) {
+        final int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    private static List<String> ancestors(String path) {
+        final List<String> folders = new ArrayList<>();
+        int end = path.endsWith("/") ? path.length() - 1 : path.length();
+        int slash;
+        while ((slash = path.lastIndexOf('/', end - 1)) > 0) {
+            folders.add(path.substring(0, slash + 1));
+            end = slash;
+        }
+        return folders;
+    }
+
+    private static String folder(String path) {
+        return path.endsWith("/") ? path : path + "/";
+    }
+
+    private static final class Key {
+
+        private final EntryType type;
+
+        private final String path;
+
+        private Key(EntryType type, String path) {
+            if (path == null) {
+                throw new IllegalArgumentException("Path cannot be null.");
+            }
+
+            this.type = type;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return type == other.type && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, path);
+        }
+    }
+
+    /**
+     * Access-ordered map that evicts the least recently used entry beyond a maximum size.
+     */
+    private static final class LruMap extends LinkedHashMap<Key, CacheEntry> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxEntries;
+
+        private LruMap(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest) {
+            return size() > maxEntries;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Object value;
+
+        private final long expiresAtNanos;
+
+        private CacheEntry(Object value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+}
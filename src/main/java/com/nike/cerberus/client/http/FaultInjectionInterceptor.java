@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.http;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ProtocolException;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * OkHttp {@link Interceptor} that injects faults into calls to Cerberus, to see how retries, caches and timeouts
+ * behave when Cerberus degrades, e.g. in a staging environment or a benchmark.
+ * <p>
+ * Each rule applies to requests whose path fully matches a regular expression, e.g. <code>/v1/secret/.*</code>, with
+ * a probability between 0 and 1. Rules are evaluated in the order they were added: latency rules delay the call and
+ * evaluation continues, the first connection reset or error response rule that fires ends the call without
+ * contacting Cerberus, and a truncated body rule cuts the real response body in half, so that reading it fails as if
+ * the connection dropped.
+ * </p>
+ * <pre>
+ * FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+ *         .withLatency("/v1/secret/.*", 0.1, Duration.ofMillis(500))
+ *         .withErrorResponse(".*", 0.05, 503)
+ *         .withConnectionReset(".*", 0.01)
+ *         .build();
+ * CerberusClient client = CerberusClientFactory.getClient(cerberusUrl, credentialsProvider, new HashMap&lt;&gt;(), faults);
+ * </pre>
+ * <p>
+ * The client sends each retry as a new OkHttp call, so every attempt is subject to the rules again.
+ * </p>
+ */
+public class FaultInjectionInterceptor implements Interceptor {
+
+    /**
+     * Kinds of fault that can be injected.
+     */
+    public enum Fault {
+        LATENCY,
+        CONNECTION_RESET,
+        ERROR_RESPONSE,
+        TRUNCATED_BODY
+    }
+
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final List<Rule> rules;
+
+    private final DoubleSupplier random;
+
+    private final Map<Fault, AtomicLong> injected = new EnumMap<>(Fault.class);
+
+    private volatile boolean enabled = true;
+
+    private FaultInjectionInterceptor(final List<Rule> rules, final DoubleSupplier random) {
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        this.random = random;
+        for (Fault fault : Fault.values()) {
+            injected.put(fault, new AtomicLong());
+        }
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+        if (!enabled) {
+            return chain.proceed(chain.request());
+        }
+
+        final String path = chain.request().url().encodedPath();
+        boolean truncateBody = false;
+        for (Rule rule : rules) {
+            if (!rule.pathPattern.matcher(path).matches() || random.getAsDouble() >= rule.probability) {
+                continue;
+            }
+
+            injected.get(rule.fault).incrementAndGet();
+            switch (rule.fault) {
+                case LATENCY:
+                    sleep(rule.latency);
+                    break;
+                case CONNECTION_RESET:
+                    throw new SocketException("Connection reset (injected fault)");
+                case ERROR_RESPONSE:
+                    return errorResponse(chain, rule.statusCode);
+                case TRUNCATED_BODY:
+                    truncateBody = true;
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown fault: " + rule.fault);
+            }
+        }
+
+        final Response response = chain.proceed(chain.request());
+        return truncateBody ? truncate(response) : response;
+    }
+
+    /**
+     * Turns fault injection on or off without rebuilding the client. Enabled by default.
+     *
+     * @param enabled Whether faults are injected
+     */
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param fault Kind of fault
+     * @return Number of times the fault has been injected
+     */
+    public long getInjectedCount(final Fault fault) {
+        return injected.get(fault).get();
+    }
+
+    private static void sleep(final Duration latency) throws IOException {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while injecting latency");
+        }
+    }
+
+    private static Response errorResponse(final Chain chain, final int statusCode) {
+        final String body = "{\"error_id\":\"injected-fault\",\"errors\":[{\"code\":" + statusCode
+                + ",\"message\":\"Injected fault\"}]}";
+        return new Response.Builder()
+                .request(chain.request())
+                .protocol(Protocol.HTTP_1_1)
+                .code(statusCode)
+                .message("Injected fault")
+                .body(ResponseBody.create(body, JSON))
+                .build();
+    }
+
+    private static Response truncate(final Response response) throws IOException {
+        final ResponseBody body = response.body();
+        if (body == null) {
+            return response;
+        }
+
+        final byte[] bytes = body.bytes();
+        final Buffer half = new Buffer().write(bytes, 0, bytes.length / 2);
+        final ForwardingSource truncated = new ForwardingSource(half) {
+            @Override
+            public long read(Buffer sink, long byteCount) throws IOException {
+                final long read = super.read(sink, byteCount);
+                if (read == -1) {
+                    throw new ProtocolException("unexpected end of stream (injected fault)");
+                }
+                return read;
+            }
+        };
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(truncated), body.contentType(), bytes.length))
+                .build();
+    }
+
+    private static class Rule {
+
+        private final Fault fault;
+
+        private final Pattern pathPattern;
+
+        private final double probability;
+
+        private final Duration latency;
+
+        private final int statusCode;
+
+        Rule(final Fault fault, final String pathPattern, final double probability,
+             final Duration latency, final int statusCode) {
+            if (pathPattern == null) {
+                throw new IllegalArgumentException("Path pattern cannot be null.");
+            }
+
+            if (probability < 0 || probability > 1) {
+                throw new IllegalArgumentException("Probability must be between 0 and 1.");
+            }
+
+            this.fault = fault;
+            this.pathPattern = Pattern.compile(pathPattern);
+            this.probability = probability;
+            this.latency = latency;
+            this.statusCode = statusCode;
+        }
+    }
+
+    public static class Builder {
+
+        private final List<Rule> rules = new ArrayList<>();
+
+        private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+
+        /**
+         * Delays matching calls before they are sent.
+         *
+         * @param pathPattern Regular expression the request path must match
+         * @param probability Probability of delaying a matching call
+         * @param latency     Delay to add
+         * @return this builder
+         */
+        public Builder withLatency(final String pathPattern, final double probability, final Duration latency) {
+            if (latency == null || latency.isNegative()) {
+                throw new IllegalArgumentException("Latency cannot be null or negative.");
+            }
+
+            rules.add(new Rule(Fault.LATENCY, pathPattern, probability, latency, 0));
+            return this;
+        }
+
+        /**
+         * Fails matching calls with a {@link SocketException}, as if the connection was reset.
+         *
+         * @param pathPattern Regular expression the request path must match
+         * @param probability Probability of failing a matching call
+         * @return this builder
+         */
+        public Builder withConnectionReset(final String pathPattern, final double probability) {
+            rules.add(new Rule(Fault.CONNECTION_RESET, pathPattern, probability, null, 0));
+            return this;
+        }
+
+        /**
+         * Answers matching calls with an error response instead of sending them, e.g. 503 or 429.
+         *
+         * @param pathPattern Regular expression the request path must match
+         * @param probability Probability of answering a matching call with the error
+         * @param statusCode  HTTP status code between 400 and 599
+         * @return this builder
+         */
+        public Builder withErrorResponse(final String pathPattern, final double probability, final int statusCode) {
+            if (statusCode < 400 || statusCode > 599) {
+                throw new IllegalArgumentException("Status code must be between 400 and 599.");
+            }
+
+            rules.add(new Rule(Fault.ERROR_RESPONSE, pathPattern, probability, null, statusCode));
+            return this;
+        }
+
+        /**
+         * Sends matching calls but only delivers the first half of the response body; reading past it fails with a
+         * {@link ProtocolException}.
+         *
+         * @param pathPattern Regular expression the request path must match
+         * @param probability Probability of truncating the response to a matching call
+         * @return this builder
+         */
+        public Builder withTruncatedBody(final String pathPattern, final double probability) {
+            rules.add(new Rule(Fault.TRUNCATED_BODY, pathPattern, probability, null, 0));
+            return this;
+        }
+
+        /**
+         * Draws probabilities from a random number generator with the seed, so that the same calls fail on every
+         * run.
+         *
+         * @param seed Seed for the random number generator
+         * @return this builder
+         */
+        public Builder withSeed(final long seed) {
+            final Random seeded = new Random(seed);
+            this.random = seeded::nextDouble;
+            return this;
+        }
+
+        public FaultInjectionInterceptor build() {
+            return new FaultInjectionInterceptor(rules, random);
+        }
+    }
+}
@@ -22,4 +22,8 @@ public class HttpHeader {
     public static final String ACCEPT = "Accept";
 
     public static final String CONTENT_TYPE = "Content-Type";
+
+    public static final String CONTENT_LENGTH = "Content-Length";
+
+    public static final String TRACEPARENT = "traceparent";
 }
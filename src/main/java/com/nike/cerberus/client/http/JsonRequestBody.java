@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.http;
+
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ByteString;
+
+import java.io.IOException;
+
+/**
+ * {@link RequestBody} that serializes an object as JSON straight from the codec into a buffer, so the JSON is never
+ * materialized as a String.
+ * <p>
+ * The object is serialized once, the first time the length or the body is needed, so the request is sent with a
+ * Content-Length and the same bytes are resent when OkHttp or the client's retry logic repeats the request.
+ * </p>
+ */
+public class JsonRequestBody extends RequestBody {
+
+    private final CerberusJsonCodec jsonCodec;
+
+    private final Object body;
+
+    private final MediaType mediaType;
+
+    private ByteString json;
+
+    /**
+     * Creates a request body for the specified object.
+     *
+     * @param jsonCodec Codec used to serialize the object
+     * @param body      The object to serialize
+     * @param mediaType Content type of the body
+     */
+    public JsonRequestBody(final CerberusJsonCodec jsonCodec, final Object body, final MediaType mediaType) {
+        if (jsonCodec == null) {
+            throw new IllegalArgumentException("JSON codec cannot be null.");
+        }
+
+        if (body == null) {
+            throw new IllegalArgumentException("Body cannot be null.");
+        }
+
+        this.jsonCodec = jsonCodec;
+        this.body = body;
+        this.mediaType = mediaType;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return json().size();
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        sink.write(json());
+    }
+
+    private synchronized ByteString json() throws IOException {
+        if (json == null) {
+            final Buffer buffer = new Buffer();
+            jsonCodec.toJson(body, buffer.outputStream());
+            json = buffer.readByteString();
+        }
+        return json;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.CerberusServerApiException;
+import com.nike.cerberus.client.CerberusServerException;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Delay shared by all calls of a crawl that adapts to how loaded Cerberus is. Every throttled (429) call doubles the
+ * delay before each call, up to a maximum, and retries the call; every successful call shrinks the delay by a quarter
+ * until it drops below the initial delay and is removed. Failed (5xx) calls are not retried here, as the client has
+ * already retried them.
+ */
+final class AdaptiveBackoff {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final long initialDelayNanos;
+
+    private final long maxDelayNanos;
+
+    private final int maxAttempts;
+
+    private final AtomicLong delayNanos = new AtomicLong();
+
+    AdaptiveBackoff(Duration initialDelay, Duration maxDelay, int maxAttempts) {
+        this.initialDelayNanos = initialDelay.toNanos();
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxAttempts = maxAttempts;
+    }
+
+    <T> T call(Supplier<T> call) {
+        for (int attempt = 1; ; attempt++) {
+            pause();
+            try {
+                final T result = call.get();
+                delayNanos.updateAndGet(delay -> delay - delay / 4 < initialDelayNanos ? 0 : delay - delay / 4);
+                return result;
+            } catch (CerberusClientException e) {
+                if (!isThrottled(e) || attempt >= maxAttempts) {
+                    throw e;
+                }
+                delayNanos.updateAndGet(delay -> Math.min(maxDelayNanos, Math.max(initialDelayNanos, delay * 2)));
+            }
+        }
+    }
+
+    Duration getDelay() {
+        return Duration.ofNanos(delayNanos.get());
+    }
+
+    private void pause() {
+        final long delay = delayNanos.get();
+        if (delay == 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CerberusClientException("Interrupted while backing off", e);
+        }
+    }
+
+    private static boolean isThrottled(CerberusClientException e) {
+        final int code;
+        if (e instanceof CerberusServerException) {
+            code = ((CerberusServerException) e).getCode();
+        } else if (e instanceof CerberusServerApiException) {
+            code = ((CerberusServerApiException) e).getCode();
+        } else {
+            return false;
+        }
+        return code == TOO_MANY_REQUESTS;
+    }
+}
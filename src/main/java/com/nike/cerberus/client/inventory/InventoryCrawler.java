@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.model.SecureFileSummary;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Crawls every safe deposit box the client can see for an audit: the box with its permissions, the key names (never
+ * the values) of every secret and the path and size of every file.
+ * <p>
+ * Folders are listed as separate tasks of a work-stealing pool, so one very large safe deposit box is crawled by all
+ * threads instead of holding up one. The pool may add threads while tasks wait for their subtasks, so calls to
+ * Cerberus are additionally limited to the {@link #setConcurrency(int) concurrency} by a semaphore. Throttled (429)
+ * calls slow down the whole crawl and are retried; failed (5xx) calls are only retried by the client itself. Records
+ * are passed to the consumer as soon as they are read, one at a time.
+ * </p>
+ * <p>
+ * With a {@link #setCheckpointFile(Path) checkpoint file}, the ID of every safe deposit box that was crawled without
+ * failures is appended to the file, and boxes already listed in it are skipped, so an interrupted crawl can be
+ * resumed by running it again.
+ * </p>
+ */
+@SuppressWarnings("serial") // the tasks are never serialized
+public class InventoryCrawler {
+
+    public static final int DEFAULT_CONCURRENCY = 8;
+
+    private static final int FILE_PAGE_SIZE = 100;
+
+    private static final AtomicInteger CRAWLER_COUNT = new AtomicInteger();
+
+    private final CerberusClient cerberusClient;
+
+    private final AdaptiveBackoff backoff;
+
+    private volatile int concurrency = DEFAULT_CONCURRENCY;
+
+    private volatile Path checkpointFile;
+
+    /**
+     * @param cerberusClient Client to crawl with
+     */
+    public InventoryCrawler(final CerberusClient cerberusClient) {
+        this(cerberusClient, new AdaptiveBackoff(Duration.ofMillis(100), Duration.ofSeconds(10), 5));
+    }
+
+    InventoryCrawler(final CerberusClient cerberusClient, final AdaptiveBackoff backoff) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.backoff = backoff;
+    }
+
+    /**
+     * Sets the maximum number of concurrent calls to Cerberus.
+     *
+     * @param concurrency Number of threads, must be positive
+     */
+    public void setConcurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive.");
+        }
+
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Sets the file completed safe deposit boxes are recorded in and read from.
+     *
+     * @param checkpointFile File that is created if it does not exist, or null to crawl everything
+     */
+    public void setCheckpointFile(final Path checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    /**
+     * Crawls all safe deposit boxes and waits until done.
+     *
+     * @param consumer Receives the records, never concurrently
+     * @return What was crawled and what failed
+     * @throws CerberusClientException if the checkpoint file cannot be read or written
+     */
+    public InventoryReport crawl(final Consumer<? super InventoryRecord> consumer) {
+        if (consumer == null) {
+            throw new IllegalArgumentException("Consumer cannot be null.");
+        }
+
+        final Crawl crawl = new Crawl(consumer, checkpointFile);
+        final List<CerberusSafeDepositBoxSummaryResponse> safeDepositBoxes =
+                backoff.call(cerberusClient::listSafeDepositBoxes);
+
+        final String name = "cerberus-crawler-" + CRAWLER_COUNT.incrementAndGet();
+        final AtomicInteger threadCount = new AtomicInteger();
+        final ForkJoinPool pool = new ForkJoinPool(concurrency, forkJoinPool -> {
+            final ForkJoinWorkerThread thread =
+                    ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName(name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        try {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    final List<SafeDepositBoxTask> tasks = new ArrayList<>();
+                    for (CerberusSafeDepositBoxSummaryResponse sdb : safeDepositBoxes) {
+                        if (!crawl.completed.contains(sdb.getId())) {
+                            tasks.add(new SafeDepositBoxTask(crawl, sdb));
+                        }
+                    }
+                    invokeAll(tasks);
+                }
+            });
+        } finally {
+            pool.shutdown();
+            crawl.closeCheckpoint();
+        }
+        return crawl.report;
+    }
+
+    /**
+     * State of one crawl.
+     */
+    private final class Crawl {
+
+        private final InventoryReport report = new InventoryReport();
+
+        private final Consumer<? super InventoryRecord> consumer;
+
+        private final SafeDepositBoxRecords records;
+
+        private final Set<String> completed;
+
+        private final BufferedWriter checkpoint;
+
+        private final Semaphore calls = new Semaphore(concurrency);
+
+        private Crawl(Consumer<? super InventoryRecord> consumer, Path checkpointFile) {
+            this.consumer = consumer;
+            this.records = backoff.call(() -> new SafeDepositBoxRecords(cerberusClient));
+            if (checkpointFile == null) {
+                this.completed = Collections.emptySet();
+                this.checkpoint = null;
+                return;
+            }
+
+            try {
+                this.completed = Files.exists(checkpointFile)
+                        ? new HashSet<>(Files.readAllLines(checkpointFile, StandardCharsets.UTF_8))
+                        : Collections.emptySet();
+                this.checkpoint = Files.newBufferedWriter(checkpointFile, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                throw new CerberusClientException("Failed to open the checkpoint file", e);
+            }
+        }
+
+        /**
+         * Makes a call to Cerberus, retrying throttled and failed calls, while holding one of the concurrency permits.
+         */
+        private <T> T call(Supplier<T> call) {
+            return backoff.call(() -> {
+                calls.acquireUninterruptibly();
+                try {
+                    return call.get();
+                } finally {
+                    calls.release();
+                }
+            });
+        }
+
+        private synchronized void emit(InventoryRecord record) {
+            consumer.accept(record);
+            report.count(record.getType());
+        }
+
+        private synchronized void complete(String id) {
+            if (checkpoint == null) {
+                return;
+            }
+
+            try {
+                checkpoint.write(id);
+                checkpoint.newLine();
+                checkpoint.flush();
+            } catch (IOException e) {
+                throw new CerberusClientException("Failed to write the checkpoint file", e);
+            }
+        }
+
+        private synchronized void closeCheckpoint() {
+            if (checkpoint == null) {
+                return;
+            }
+
+            try {
+                checkpoint.close();
+            } catch (IOException e) {
+                throw new CerberusClientException("Failed to close the checkpoint file", e);
+            }
+        }
+    }
+
+    /**
+     * Base class of the tasks that records failures, and whether any occurred, per safe deposit box.
+     */
+    private abstract static class CrawlTask extends RecursiveAction {
+
+        protected final Crawl crawl;
+
+        protected final AtomicBoolean failed;
+
+        protected final String path;
+
+        private CrawlTask(Crawl crawl, AtomicBoolean failed, String path) {
+            this.crawl = crawl;
+            this.failed = failed;
+            this.path = path;
+        }
+
+        @Override
+        protected final void compute() {
+            try {
+                crawl();
+            } catch (RuntimeException e) {
+                failed.set(true);
+                crawl.report.fail(path, e);
+            }
+        }
+
+        protected abstract void crawl();
+    }
+
+    private final class SafeDepositBoxTask extends CrawlTask {
+
+        private final CerberusSafeDepositBoxSummaryResponse sdb;
+
+        private SafeDepositBoxTask(Crawl crawl, CerberusSafeDepositBoxSummaryResponse sdb) {
+            super(crawl, new AtomicBoolean(), sdb.getPath());
+            this.sdb = sdb;
+        }
+
+        @Override
+        protected void crawl() {
+            crawl.emit(crawl.records.toRecord(crawl.call(() -> cerberusClient.getSafeDepositBoxById(sdb.getId()))));
+            invokeAll(new FolderTask(crawl, failed, path), new FilesTask(crawl, failed, path));
+            if (!failed.get()) {
+                crawl.complete(sdb.getId());
+            }
+        }
+    }
+
+    private final class FolderTask extends CrawlTask {
+
+        private FolderTask(Crawl crawl, AtomicBoolean failed, String path) {
+            super(crawl, failed, path);
+        }
+
+        @Override
+        protected void crawl() {
+            final List<CrawlTask> tasks = new ArrayList<>();
+            for (String key : crawl.call(() -> cerberusClient.list(path)).getKeys()) {
+                tasks.add(key.endsWith("/")
+                        ? new FolderTask(crawl, failed, path + key)
+                        : new SecretTask(crawl, failed, path + key));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    private final class SecretTask extends CrawlTask {
+
+        private SecretTask(Crawl crawl, AtomicBoolean failed, String path) {
+            super(crawl, failed, path);
+        }
+
+        @Override
+        protected void crawl() {
+            final Set<String> keys = crawl.call(() -> cerberusClient.readKeys(path));
+            crawl.emit(new InventoryRecord()
+                    .setType(InventoryRecord.TYPE_SECRET)
+                    .setPath(path)
+                    .setKeys(new ArrayList<>(keys)));
+        }
+    }
+
+    private final class FilesTask extends CrawlTask {
+
+        private FilesTask(Crawl crawl, AtomicBoolean failed, String path) {
+            super(crawl, failed, path);
+        }
+
+        @Override
+        protected void crawl() {
+            Integer offset = 0;
+            while (offset != null) {
+                final Integer pageOffset = offset;
+                final CerberusListFilesResponse files =
+                        crawl.call(() -> cerberusClient.listFiles(path, FILE_PAGE_SIZE, pageOffset));
+                if (files.getSecureFileSummaries() != null) {
+                    for (SecureFileSummary file : files.getSecureFileSummaries()) {
+                        crawl.emit(new InventoryRecord()
+                                .setType(InventoryRecord.TYPE_FILE)
+                                .setPath(file.getPath())
+                                .setSizeInBytes(file.getSizeInBytes()));
+                    }
+                }
+                offset = files.isHasNext() ? files.getNextOffset() : null;
+            }
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.cache.ContentFingerprint;
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.model.SecureFileSummary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports every safe deposit box the client can see, with all its secrets and files, as newline delimited JSON
+ * (one {@link InventoryRecord} per line).
+ * <p>
+ * Safe deposit boxes are exported concurrently by a {@link BulkExecutor} and each record is written to the output
+ * stream as soon as it has been read, so memory use does not grow with the size of the inventory. The records of
+ * one safe deposit box are written in order, box first, but records of different boxes are interleaved. File
+ * contents are written inline as base64, or to a sidecar blob directory if one is {@link #setBlobDirectory(Path)
+ * set}.
+ * </p>
+ */
+public class InventoryExporter {
+
+    private static final int FILE_PAGE_SIZE = 100;
+
+    private final CerberusClient cerberusClient;
+
+    private final BulkExecutor bulkExecutor;
+
+    private volatile Path blobDirectory;
+
+    /**
+     * @param cerberusClient Client to export with
+     * @param bulkExecutor   Executor that limits how many safe deposit boxes, secrets and files are processed
+     *                       concurrently and per second; each may take several calls to Cerberus
+     */
+    public InventoryExporter(final CerberusClient cerberusClient, final BulkExecutor bulkExecutor) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        if (bulkExecutor == null) {
+            throw new IllegalArgumentException("Bulk executor cannot be null.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.bulkExecutor = bulkExecutor;
+    }
+
+    /**
+     * Writes file contents to the directory, named by their hex SHA-256, instead of inline.
+     *
+     * @param blobDirectory Existing directory, or null to write file contents inline
+     */
+    public void setBlobDirectory(final Path blobDirectory) {
+        this.blobDirectory = blobDirectory;
+    }
+
+    /**
+     * Exports the inventory. The stream is flushed but not closed.
+     *
+     * @param out Stream to write the records to
+     * @return What was exported and what failed
+     * @throws CerberusClientException if writing to the stream fails
+     */
+    public InventoryReport export(final OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null.");
+        }
+
+        final InventoryReport report = new InventoryReport();
+        final RecordWriter writer = new RecordWriter(out, cerberusClient.getJsonCodec(), report);
+
+        final SafeDepositBoxRecords records = new SafeDepositBoxRecords(cerberusClient);
+        final List<CerberusSafeDepositBoxSummaryResponse> safeDepositBoxes = cerberusClient.listSafeDepositBoxes();
+        final List<BulkResult<CerberusSafeDepositBoxSummaryResponse, Object>> results =
+                bulkExecutor.execute(safeDepositBoxes, sdb -> {
+                    try {
+                        exportSafeDepositBox(sdb, records, writer, report);
+                    } catch (UncheckedIOException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        report.fail(sdb.getPath(), e);
+                    }
+                    return null;
+                });
+        for (BulkResult<CerberusSafeDepositBoxSummaryResponse, Object> result : results) {
+            if (result.getError() instanceof UncheckedIOException) {
+                throw new CerberusClientException("Failed to write the export", result.getError().getCause());
+            }
+        }
+
+        writer.flush();
+        return report;
+    }
+
+    private void exportSafeDepositBox(final CerberusSafeDepositBoxSummaryResponse summary,
+                                      final SafeDepositBoxRecords records,
+                                      final RecordWriter writer,
+                                      final InventoryReport report) {
+
+        final CerberusSafeDepositBoxResponse sdb = cerberusClient.getSafeDepositBoxById(summary.getId());
+        writer.write(records.toRecord(sdb));
+
+        exportSecrets(sdb.getPath(), writer, report);
+        exportFiles(sdb.getPath(), writer, report);
+    }
+
+    private void exportSecrets(final String sdbPath, final RecordWriter writer, final InventoryReport report) {
+        final Deque<String> folders = new ArrayDeque<>();
+        folders.push(sdbPath);
+        while (!folders.isEmpty()) {
+            final String folder = folders.pop();
+            for (String key : cerberusClient.list(folder).getKeys()) {
+                final String path = folder + key;
+                if (key.endsWith("/")) {
+                    folders.push(path);
+                    continue;
+                }
+
+                final Map<String, String> data;
+                try {
+                    data = cerberusClient.read(path).getData();
+                } catch (RuntimeException e) {
+                    report.fail(path, e);
+                    continue;
+                }
+                writer.write(new InventoryRecord().setType(InventoryRecord.TYPE_SECRET).setPath(path).setData(data));
+            }
+        }
+    }
+
+    private void exportFiles(final String sdbPath, final RecordWriter writer, final InventoryReport report) {
+        Integer offset = 0;
+        while (offset != null) {
+            final CerberusListFilesResponse files = cerberusClient.listFiles(sdbPath, FILE_PAGE_SIZE, offset);
+            if (files.getSecureFileSummaries() != null) {
+                for (SecureFileSummary file : files.getSecureFileSummaries()) {
+                    try {
+                        writer.write(fileRecord(file.getPath(), cerberusClient.readFileAsBytes(file.getPath())));
+                    } catch (UncheckedIOException e) {
+                        throw e;
+                    } catch (RuntimeException e) {
+                        report.fail(file.getPath(), e);
+                    }
+                }
+            }
+            offset = files.isHasNext() ? files.getNextOffset() : null;
+        }
+    }
+
+    private InventoryRecord fileRecord(final String path, final byte[] contents) {
+        final InventoryRecord record = new InventoryRecord()
+                .setType(InventoryRecord.TYPE_FILE)
+                .setPath(path)
+                .setSizeInBytes(contents.length);
+
+        final Path directory = blobDirectory;
+        if (directory == null) {
+            return record.setContentBase64(Base64.getEncoder().encodeToString(contents));
+        }
+
+        final String blob = ContentFingerprint.of(contents);
+        try {
+            final Path blobFile = directory.resolve(blob);
+            if (!Files.exists(blobFile)) {
+                Files.write(blobFile, contents);
+            }
+        } catch (IOException e) {
+            throw new CerberusClientException("Failed to write blob for " + path, e);
+        }
+        return record.setBlob(blob);
+    }
+
+    /**
+     * Serializes records and writes them as lines, one at a time.
+     */
+    private static final class RecordWriter {
+
+        private final OutputStream out;
+
+        private final CerberusJsonCodec jsonCodec;
+
+        private final InventoryReport report;
+
+        private RecordWriter(OutputStream out, CerberusJsonCodec jsonCodec, InventoryReport report) {
+            this.out = out;
+            this.jsonCodec = jsonCodec;
+            this.report = report;
+        }
+
+        private void write(InventoryRecord record) {
+            final byte[] line = jsonCodec.toJson(record).getBytes(StandardCharsets.UTF_8);
+            synchronized (this) {
+                try {
+                    out.write(line);
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            report.count(record.getType());
+        }
+
+        private synchronized void flush() {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                throw new CerberusClientException("Failed to write the export", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.cache.ContentFingerprint;
+import com.nike.cerberus.client.json.CerberusJsonCodec;
+import com.nike.cerberus.client.json.JsonCodecException;
+import com.nike.cerberus.client.model.CerberusRolePermission;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.reconcile.SafeDepositBoxReconciler;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replays an export written by {@link InventoryExporter} into a Cerberus environment.
+ * <p>
+ * The export is read in chunks of {@link #setChunkSize(int) chunk size} records so memory use does not grow with the
+ * size of the export. Within a chunk, safe deposit boxes are reconciled first and then the secrets and files are
+ * written, each concurrently through a {@link BulkExecutor}. Safe deposit boxes are matched by name, categories by
+ * path and roles by name, so an export can be imported into a different environment.
+ * </p>
+ */
+public class InventoryImporter {
+
+    public static final int DEFAULT_CHUNK_SIZE = 256;
+
+    private final CerberusClient cerberusClient;
+
+    private final BulkExecutor bulkExecutor;
+
+    private final SafeDepositBoxReconciler reconciler;
+
+    private volatile Path blobDirectory;
+
+    private volatile int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    /**
+     * @param cerberusClient Client for the target environment
+     * @param bulkExecutor   Executor that limits how many safe deposit boxes, secrets and files are processed
+     *                       concurrently and per second; each may take several calls to Cerberus
+     */
+    public InventoryImporter(final CerberusClient cerberusClient, final BulkExecutor bulkExecutor) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        if (bulkExecutor == null) {
+            throw new IllegalArgumentException("Bulk executor cannot be null.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.bulkExecutor = bulkExecutor;
+        this.reconciler = new SafeDepositBoxReconciler(cerberusClient, bulkExecutor);
+    }
+
+    /**
+     * Directory the file contents of records with a blob reference are read from.
+     *
+     * @param blobDirectory Directory the export wrote its blobs to
+     */
+    public void setBlobDirectory(final Path blobDirectory) {
+        this.blobDirectory = blobDirectory;
+    }
+
+    /**
+     * Sets the number of records read and imported at a time.
+     *
+     * @param chunkSize Number of records, must be positive
+     */
+    public void setChunkSize(final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports the export. The stream is read to the end but not closed.
+     *
+     * @param in Stream of newline delimited records
+     * @return What was imported and what failed
+     * @throws CerberusClientException if reading the stream fails
+     */
+    public InventoryReport importFrom(final InputStream in) {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream cannot be null.");
+        }
+
+        final InventoryReport report = new InventoryReport();
+        final CerberusJsonCodec jsonCodec = cerberusClient.getJsonCodec();
+        final Map<CerberusRolePermission, String> roleIds = cerberusClient.getRolePermissionMap();
+        cerberusClient.getSafeDepositBoxIndex();
+
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        final List<InventoryRecord> chunk = new ArrayList<>();
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+
+                try {
+                    chunk.add(jsonCodec.fromJson(line, InventoryRecord.class));
+                } catch (JsonCodecException e) {
+                    report.fail("line " + lineNumber, e);
+                    continue;
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, roleIds, report);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new CerberusClientException("Failed to read the export", e);
+        }
+
+        importChunk(chunk, roleIds, report);
+        return report;
+    }
+
+    private void importChunk(final List<InventoryRecord> chunk,
+                             final Map<CerberusRolePermission, String> roleIds,
+                             final InventoryReport report) {
+
+        final List<InventoryRecord> safeDepositBoxes = new ArrayList<>();
+        final List<InventoryRecord> contents = new ArrayList<>();
+        for (InventoryRecord record : chunk) {
+            if (InventoryRecord.TYPE_SAFE_DEPOSIT_BOX.equals(record.getType())) {
+                safeDepositBoxes.add(record);
+            } else {
+                contents.add(record);
+            }
+        }
+
+        record(bulkExecutor.execute(safeDepositBoxes,
+                record -> reconciler.reconcile(toRequest(record, roleIds))), report);
+        record(bulkExecutor.execute(contents, record -> {
+            importContents(record);
+            return null;
+        }), report);
+    }
+
+    private void record(final List<? extends BulkResult<InventoryRecord, ?>> results, final InventoryReport report) {
+        for (BulkResult<InventoryRecord, ?> result : results) {
+            if (result.isSuccessful()) {
+                report.count(result.getItem().getType());
+            } else {
+                report.fail(result.getItem().getPath(), result.getError());
+            }
+        }
+    }
+
+    private CerberusSafeDepositBoxRequest toRequest(final InventoryRecord record,
+                                                    final Map<CerberusRolePermission, String> roleIds) {
+
+        final String categoryId = cerberusClient.getCategoryIdByPath(record.getCategoryPath());
+        if (categoryId == null) {
+            throw new CerberusClientException("Unknown category path: " + record.getCategoryPath());
+        }
+
+        final CerberusSafeDepositBoxRequest.Builder builder = CerberusSafeDepositBoxRequest.newBuilder()
+                .withRolePermissionMap(roleIds)
+                .withName(record.getName())
+                .withDescription(record.getDescription())
+                .withOwner(record.getOwner())
+                .withCategoryId(categoryId);
+        if (record.getUserGroupPermissions() != null) {
+            record.getUserGroupPermissions().forEach((group, role) ->
+                    builder.withUserGroupPermission(group, CerberusRolePermission.fromString(role)));
+        }
+        if (record.getIamPrincipalPermissions() != null) {
+            record.getIamPrincipalPermissions().forEach((arn, role) ->
+                    builder.withIamPrincipalPermission(arn, CerberusRolePermission.fromString(role)));
+        }
+        return builder.build();
+    }
+
+    private void importContents(final InventoryRecord record) {
+        if (InventoryRecord.TYPE_SECRET.equals(record.getType())) {
+            cerberusClient.write(record.getPath(), record.getData());
+        } else if (InventoryRecord.TYPE_FILE.equals(record.getType())) {
+            cerberusClient.writeFile(record.getPath(), readContents(record));
+        } else {
+            throw new CerberusClientException("Unknown record type: " + record.getType());
+        }
+    }
+
+    private byte[] readContents(final InventoryRecord record) {
+        if (record.getBlob() == null) {
+            if (record.getContentBase64() == null) {
+                throw new CerberusClientException("File record has no contents: " + record.getPath());
+            }
+            return Base64.getDecoder().decode(record.getContentBase64());
+        }
+
+        final Path directory = blobDirectory;
+        if (directory == null) {
+            throw new CerberusClientException("File record refers to a blob but no blob directory is set: "
+                    + record.getPath());
+        }
+
+        if (!record.getBlob().matches("[0-9a-f]{64}")) {
+            throw new CerberusClientException("Invalid blob reference: " + record.getPath());
+        }
+
+        final byte[] contents;
+        try {
+            contents = Files.readAllBytes(directory.resolve(record.getBlob()));
+        } catch (IOException e) {
+            throw new CerberusClientException("Failed to read blob " + record.getBlob(), e);
+        }
+        if (!ContentFingerprint.of(contents).equals(record.getBlob())) {
+            throw new CerberusClientException("Blob " + record.getBlob() + " does not match its digest");
+        }
+        return contents;
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One line of an inventory export. Role and category IDs differ between Cerberus environments, so safe deposit
+ * box records refer to categories by path and to roles by name (e.g. <code>owner</code>).
+ */
+public class InventoryRecord {
+
+    public static final String TYPE_SAFE_DEPOSIT_BOX = "sdb";
+
+    public static final String TYPE_SECRET = "secret";
+
+    public static final String TYPE_FILE = "file";
+
+    private String type;
+
+    private String path;
+
+    private String name;
+
+    private String description;
+
+    private String owner;
+
+    private String categoryPath;
+
+    private Map<String, String> userGroupPermissions;
+
+    private Map<String, String> iamPrincipalPermissions;
+
+    private Map<String, String> data;
+
+    private List<String> keys;
+
+    private Integer sizeInBytes;
+
+    private String contentBase64;
+
+    private String blob;
+
+    /**
+     * @return One of {@link #TYPE_SAFE_DEPOSIT_BOX}, {@link #TYPE_SECRET} or {@link #TYPE_FILE}
+     */
+    public String getType() {
+        return type;
+    }
+
+    public InventoryRecord setType(String type) {
+        this.type = type;
+        return this;
+    }
+
+    /**
+     * @return Path of the safe deposit box (e.g. "app/my-sdb/"), secret or file
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public InventoryRecord setPath(String path) {
+        this.path = path;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public InventoryRecord setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public InventoryRecord setDescription(String description) {
+        this.description = description;
+        return this;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public InventoryRecord setOwner(String owner) {
+        this.owner = owner;
+        return this;
+    }
+
+    public String getCategoryPath() {
+        return categoryPath;
+    }
+
+    public InventoryRecord setCategoryPath(String categoryPath) {
+        this.categoryPath = categoryPath;
+        return this;
+    }
+
+    /**
+     * @return Map of user group name to role name
+     */
+    public Map<String, String> getUserGroupPermissions() {
+        return userGroupPermissions;
+    }
+
+    public InventoryRecord setUserGroupPermissions(Map<String, String> userGroupPermissions) {
+        this.userGroupPermissions = userGroupPermissions;
+        return this;
+    }
+
+    /**
+     * @return Map of IAM principal ARN to role name
+     */
+    public Map<String, String> getIamPrincipalPermissions() {
+        return iamPrincipalPermissions;
+    }
+
+    public InventoryRecord setIamPrincipalPermissions(Map<String, String> iamPrincipalPermissions) {
+        this.iamPrincipalPermissions = iamPrincipalPermissions;
+        return this;
+    }
+
+    /**
+     * @return Key/value pairs of a secret
+     */
+    public Map<String, String> getData() {
+        return data;
+    }
+
+    public InventoryRecord setData(Map<String, String> data) {
+        this.data = data;
+        return this;
+    }
+
+    /**
+     * @return Key names of a secret, set instead of the {@link #getData() data} by {@link InventoryCrawler}
+     */
+    public List<String> getKeys() {
+        return keys;
+    }
+
+    public InventoryRecord setKeys(List<String> keys) {
+        this.keys = keys;
+        return this;
+    }
+
+    public Integer getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public InventoryRecord setSizeInBytes(Integer sizeInBytes) {
+        this.sizeInBytes = sizeInBytes;
+        return this;
+    }
+
+    /**
+     * @return Base64 encoded contents of a file, null if the contents are stored in a {@link #getBlob() blob}
+     */
+    public String getContentBase64() {
+        return contentBase64;
+    }
+
+    public InventoryRecord setContentBase64(String contentBase64) {
+        this.contentBase64 = contentBase64;
+        return this;
+    }
+
+    /**
+     * @return Name of the sidecar blob holding the contents of a file, the hex SHA-256 of the contents
+     */
+    public String getBlob() {
+        return blob;
+    }
+
+    public InventoryRecord setBlob(String blob) {
+        this.blob = blob;
+        return this;
+    }
+}
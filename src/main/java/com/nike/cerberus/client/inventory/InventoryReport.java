@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts of what an export or import processed, and what failed.
+ */
+public class InventoryReport {
+
+    private final AtomicLong safeDepositBoxes = new AtomicLong();
+
+    private final AtomicLong secrets = new AtomicLong();
+
+    private final AtomicLong files = new AtomicLong();
+
+    private final List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * @return Number of safe deposit boxes processed
+     */
+    public long getSafeDepositBoxes() {
+        return safeDepositBoxes.get();
+    }
+
+    /**
+     * @return Number of secret paths processed
+     */
+    public long getSecrets() {
+        return secrets.get();
+    }
+
+    /**
+     * @return Number of files processed
+     */
+    public long getFiles() {
+        return files.get();
+    }
+
+    /**
+     * @return Paths that could not be processed
+     */
+    public List<Failure> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    /**
+     * @return Whether everything was processed
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    void count(String type) {
+        if (InventoryRecord.TYPE_SAFE_DEPOSIT_BOX.equals(type)) {
+            safeDepositBoxes.incrementAndGet();
+        } else if (InventoryRecord.TYPE_SECRET.equals(type)) {
+            secrets.incrementAndGet();
+        } else if (InventoryRecord.TYPE_FILE.equals(type)) {
+            files.incrementAndGet();
+        }
+    }
+
+    void fail(String path, Exception error) {
+        failures.add(new Failure(path, error));
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryReport{safeDepositBoxes=" + safeDepositBoxes + ", secrets=" + secrets + ", files=" + files
+                + ", failures=" + failures.size() + "}";
+    }
+
+    /**
+     * A path that could not be processed.
+     */
+    public static final class Failure {
+
+        private final String path;
+
+        private final Exception error;
+
+        Failure(String path, Exception error) {
+            this.path = path;
+            this.error = error;
+        }
+
+        /**
+         * @return Path of the safe deposit box, secret or file
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * @return Why it failed
+         */
+        public Exception getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.model.CerberusIamPrincipalPermission;
+import com.nike.cerberus.client.model.CerberusRoleResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusUserGroupPermission;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Builds safe deposit box records, resolving category and role IDs to the paths and names records refer to them by.
+ */
+final class SafeDepositBoxRecords {
+
+    private final Map<String, String> categoryPaths = new HashMap<>();
+
+    private final Map<String, String> roleNames = new HashMap<>();
+
+    SafeDepositBoxRecords(CerberusClient cerberusClient) {
+        cerberusClient.getCategoryMap().forEach((path, id) -> categoryPaths.put(id, path));
+        for (CerberusRoleResponse role : cerberusClient.getRoleRegistry().getRoles()) {
+            roleNames.put(role.getId(), role.getName());
+        }
+    }
+
+    InventoryRecord toRecord(CerberusSafeDepositBoxResponse sdb) {
+        final Map<String, String> userGroupPermissions = new LinkedHashMap<>();
+        if (sdb.getUserGroupPermissions() != null) {
+            for (CerberusUserGroupPermission permission : sdb.getUserGroupPermissions()) {
+                userGroupPermissions.put(permission.getName(), roleNames.get(permission.getRoleId()));
+            }
+        }
+        final Map<String, String> iamPrincipalPermissions = new LinkedHashMap<>();
+        if (sdb.getIamPrincipalPermissions() != null) {
+            for (CerberusIamPrincipalPermission permission : sdb.getIamPrincipalPermissions()) {
+                iamPrincipalPermissions.put(permission.getIamPrincipalArn(), roleNames.get(permission.getRoleId()));
+            }
+        }
+
+        return new InventoryRecord()
+                .setType(InventoryRecord.TYPE_SAFE_DEPOSIT_BOX)
+                .setPath(sdb.getPath())
+                .setName(sdb.getName())
+                .setDescription(sdb.getDescription())
+                .setOwner(sdb.getOwner())
+                .setCategoryPath(categoryPaths.get(sdb.getCategoryId()))
+                .setUserGroupPermissions(userGroupPermissions)
+                .setIamPrincipalPermissions(iamPrincipalPermissions);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A credentials provider authenticating with Cerberus, including the time spent waiting on AWS.
+ */
+@Name("com.nike.cerberus.Authentication")
+@Label("Cerberus Authentication")
+@Category("Cerberus")
+@Description("Refresh of the Cerberus token by a credentials provider")
+final class AuthenticationEvent extends Event implements CerberusFlightRecorder.AuthenticationRecording {
+
+    @Label("Provider")
+    String provider;
+
+    @Label("Successful")
+    boolean successful;
+
+    @Override
+    public void end(String provider, boolean successful) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.provider = provider;
+        this.successful = successful;
+        commit();
+    }
+}
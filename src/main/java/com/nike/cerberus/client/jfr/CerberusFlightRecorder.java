@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.jfr;
+
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Emits Java Flight Recorder events for calls to Cerberus and for authentication, so that Cerberus usage shows up in
+ * continuous JFR recordings next to GC pauses and thread stalls:
+ * <ul>
+ *     <li><code>com.nike.cerberus.Request</code>: one per HTTP call, with the operation, path template, status code,
+ *     retry count and bytes sent and received</li>
+ *     <li><code>com.nike.cerberus.Authentication</code>: one per credentials refresh, with the provider and outcome</li>
+ * </ul>
+ * <p>
+ * On JVMs without the <code>jdk.jfr</code> API (Java 8 before 8u262) the JFR classes are never loaded and every
+ * recording is a no-op. Otherwise the only cost while an event is disabled is checking its enabled flag; nothing is
+ * allocated.
+ * </p>
+ */
+public final class CerberusFlightRecorder {
+
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    private CerberusFlightRecorder() {
+    }
+
+    /**
+     * @return Whether the JVM supports flight recorder events
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Starts timing an HTTP call.
+     *
+     * @return The recording to end when the call completes, {@link RequestRecording#DISABLED} if the event is off
+     */
+    public static RequestRecording beginRequest() {
+        return AVAILABLE ? FlightRecorderEvents.beginRequest() : RequestRecording.DISABLED;
+    }
+
+    /**
+     * Starts timing an authentication.
+     *
+     * @return The recording to end when authentication completes, {@link AuthenticationRecording#DISABLED} if the
+     * event is off
+     */
+    public static AuthenticationRecording beginAuthentication() {
+        return AVAILABLE ? FlightRecorderEvents.beginAuthentication() : AuthenticationRecording.DISABLED;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, CerberusFlightRecorder.class.getClassLoader());
+            FlightRecorderEvents.register();
+            return true;
+        } catch (ClassNotFoundException | LinkageError | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * An HTTP call being timed.
+     */
+    public interface RequestRecording {
+
+        /**
+         * Recording of a disabled event.
+         */
+        RequestRecording DISABLED = (request, response, retryCount) -> {
+        };
+
+        /**
+         * Ends the timing and commits the event.
+         *
+         * @param request    The request that was sent
+         * @param response   The response, or null if none was received
+         * @param retryCount How many times the call had been attempted before
+         */
+        void end(Request request, Response response, int retryCount);
+    }
+
+    /**
+     * An authentication being timed.
+     */
+    public interface AuthenticationRecording {
+
+        /**
+         * Recording of a disabled event.
+         */
+        AuthenticationRecording DISABLED = (provider, successful) -> {
+        };
+
+        /**
+         * Ends the timing and commits the event.
+         *
+         * @param provider   Name of the credentials provider
+         * @param successful Whether a token was obtained
+         */
+        void end(String provider, boolean successful);
+    }
+}
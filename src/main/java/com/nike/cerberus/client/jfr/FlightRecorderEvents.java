@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.jfr;
+
+import jdk.jfr.EventType;
+
+/**
+ * The only class besides the events themselves that references <code>jdk.jfr</code>. It is loaded by
+ * {@link CerberusFlightRecorder} after it has checked that the API exists.
+ */
+final class FlightRecorderEvents {
+
+    private static final EventType REQUEST = EventType.getEventType(RequestEvent.class);
+
+    private static final EventType AUTHENTICATION = EventType.getEventType(AuthenticationEvent.class);
+
+    private FlightRecorderEvents() {
+    }
+
+    static void register() {
+        // initializes the event types
+    }
+
+    static CerberusFlightRecorder.RequestRecording beginRequest() {
+        if (!REQUEST.isEnabled()) {
+            return CerberusFlightRecorder.RequestRecording.DISABLED;
+        }
+        RequestEvent event = new RequestEvent();
+        event.begin();
+        return event;
+    }
+
+    static CerberusFlightRecorder.AuthenticationRecording beginAuthentication() {
+        if (!AUTHENTICATION.isEnabled()) {
+            return CerberusFlightRecorder.AuthenticationRecording.DISABLED;
+        }
+        AuthenticationEvent event = new AuthenticationEvent();
+        event.begin();
+        return event;
+    }
+}
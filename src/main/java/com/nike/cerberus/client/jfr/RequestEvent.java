@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.jfr;
+
+import com.nike.cerberus.client.metrics.CerberusOperation;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+
+/**
+ * A single HTTP call to Cerberus.
+ */
+@Name("com.nike.cerberus.Request")
+@Label("Cerberus Request")
+@Category("Cerberus")
+@Description("HTTP call made by the Cerberus client")
+@StackTrace(false)
+final class RequestEvent extends Event implements CerberusFlightRecorder.RequestRecording {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    @Description("Request path with secret paths and IDs replaced by placeholders")
+    String path;
+
+    @Label("Status Code")
+    @Description("HTTP status code, or -1 if no response was received")
+    int statusCode;
+
+    @Label("Retry Count")
+    int retryCount;
+
+    @Label("Bytes Sent")
+    @Description("Size of the request body, or -1 if it was streamed")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @Description("Content length of the response, or -1 if unknown")
+    @DataAmount
+    long bytesReceived;
+
+    @Override
+    public void end(Request request, Response response, int retryCount) {
+        end();
+        if (!shouldCommit()) {
+            return;
+        }
+        this.operation = CerberusOperation.of(request.method(), request.url()).name();
+        this.method = request.method();
+        this.path = CerberusOperation.pathTemplate(request.url());
+        this.statusCode = response == null ? -1 : response.code();
+        this.retryCount = retryCount;
+        this.bytesSent = contentLength(request);
+        this.bytesReceived = response == null || response.body() == null ? -1 : response.body().contentLength();
+        commit();
+    }
+
+    private static long contentLength(Request request) {
+        if (request.body() == null) {
+            return 0;
+        }
+        try {
+            return request.body().contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
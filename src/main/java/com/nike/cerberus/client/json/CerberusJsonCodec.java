@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.nike.cerberus.client.model.CerberusResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * Serializes requests to and de-serializes responses from Cerberus.
+ * <p>
+ * Implementations must use snake case JSON property names (e.g. <code>category_id</code>), ignore unknown
+ * properties, omit null values when writing and read and write Joda <code>DateTime</code> values as ISO-8601
+ * strings. Implementations must be thread-safe.
+ * </p>
+ *
+ * @see GsonCerberusJsonCodec
+ * @see JacksonCerberusJsonCodec
+ */
+public interface CerberusJsonCodec {
+
+    /**
+     * De-serializes a JSON document.
+     *
+     * @param json JSON document
+     * @param type Type to map the document to
+     * @param <T>  Represents the type to map to
+     * @return De-serialized object, or null if the document is empty or <code>null</code>
+     * @throws JsonCodecException if the document is not valid JSON or cannot be mapped to the type
+     */
+    <T> T fromJson(String json, Type type);
+
+    /**
+     * De-serializes a UTF-8 encoded JSON document from a stream.
+     *
+     * @param json Stream to read the JSON document from
+     * @param type Type to map the document to
+     * @param <T>  Represents the type to map to
+     * @return De-serialized object
+     * @throws IOException        if reading the stream fails
+     * @throws JsonCodecException if the document is not valid JSON or cannot be mapped to the type
+     */
+    <T> T fromJson(InputStream json, Type type) throws IOException;
+
+    /**
+     * Serializes an object to a JSON document.
+     *
+     * @param value Object to serialize
+     * @return JSON document
+     */
+    String toJson(Object value);
+
+    /**
+     * Serializes an object as UTF-8 encoded JSON to a stream. The stream is flushed but not closed.
+     *
+     * @param value Object to serialize
+     * @param out   Stream to write to
+     * @throws IOException if writing to the stream fails
+     */
+    void toJson(Object value, OutputStream out) throws IOException;
+
+    /**
+     * Reads the <code>data</code> object of a secret response from a stream, e.g.
+     * <code>{"data": {"key": "value"}}</code>, and passes the entries whose key matches the filter to the consumer.
+     * <p>
+     * Implementations should skip the values of the other entries without de-serializing them. The default
+     * implementation de-serializes the whole response and filters it afterwards.
+     * </p>
+     *
+     * @param json      Stream to read the UTF-8 encoded JSON document from
+     * @param keyFilter Decides which entries are passed to the consumer
+     * @param consumer  Receives the key and value of each matching entry, in document order
+     * @throws IOException        if reading the stream fails
+     * @throws JsonCodecException if the document is not valid JSON or the data is not an object of strings
+     */
+    default void readSecretData(InputStream json, Predicate<String> keyFilter, BiConsumer<String, String> consumer)
+            throws IOException {
+        final CerberusResponse response = fromJson(json, CerberusResponse.class);
+        if (response != null && response.getData() != null) {
+            response.getData().forEach((key, value) -> {
+                if (keyFilter.test(key)) {
+                    consumer.accept(key, value);
+                }
+            });
+        }
+    }
+}
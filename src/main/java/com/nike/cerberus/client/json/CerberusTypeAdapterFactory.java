@@ -0,0 +1,811 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.nike.cerberus.client.model.CerberusAuthResponse;
+import com.nike.cerberus.client.model.CerberusCategoryResponse;
+import com.nike.cerberus.client.model.CerberusClientTokenResponse;
+import com.nike.cerberus.client.model.CerberusIamPrincipalPermission;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusListResponse;
+import com.nike.cerberus.client.model.CerberusResponse;
+import com.nike.cerberus.client.model.CerberusRoleResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.model.CerberusUserGroupPermission;
+import com.nike.cerberus.client.model.SecureFileSummary;
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link TypeAdapterFactory} with hand-written adapters for the classes in {@code com.nike.cerberus.client.model}.
+ * <p>
+ * The adapters use the snake case JSON names that {@code FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES} would
+ * produce, skip unknown properties and leave fields that are absent or null at their defaults, the same as Gson's
+ * reflective adapter. Unlike the reflective adapter they do not look up fields, translate names or box primitives
+ * while decoding, and nothing has to be introspected the first time a model type is used.
+ * </p>
+ * {@link CerberusSafeDepositBoxRequest} is only ever sent to Cerberus, so reading it falls back to the next adapter
+ * registered for it.
+ */
+public class CerberusTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final TypeAdapter<DateTime> DATE_TIME = new DateTimeTypeAdapter();
+
+    private static final TypeAdapter<CerberusUserGroupPermission> USER_GROUP_PERMISSION = new UserGroupPermissionAdapter();
+
+    private static final TypeAdapter<CerberusIamPrincipalPermission> IAM_PRINCIPAL_PERMISSION = new IamPrincipalPermissionAdapter();
+
+    private static final TypeAdapter<SecureFileSummary> SECURE_FILE_SUMMARY = new SecureFileSummaryAdapter();
+
+    private static final Map<Class<?>, TypeAdapter<?>> ADAPTERS;
+
+    static {
+        Map<Class<?>, TypeAdapter<?>> adapters = new HashMap<>();
+        adapters.put(DateTime.class, DATE_TIME);
+        adapters.put(CerberusUserGroupPermission.class, USER_GROUP_PERMISSION);
+        adapters.put(CerberusIamPrincipalPermission.class, IAM_PRINCIPAL_PERMISSION);
+        adapters.put(SecureFileSummary.class, SECURE_FILE_SUMMARY);
+        adapters.put(CerberusResponse.class, new ResponseAdapter());
+        adapters.put(CerberusListResponse.class, new ListResponseAdapter());
+        adapters.put(CerberusListFilesResponse.class, new ListFilesResponseAdapter());
+        adapters.put(CerberusAuthResponse.class, new AuthResponseAdapter());
+        adapters.put(CerberusClientTokenResponse.class, new ClientTokenResponseAdapter());
+        adapters.put(CerberusCategoryResponse.class, new CategoryResponseAdapter());
+        adapters.put(CerberusRoleResponse.class, new RoleResponseAdapter());
+        adapters.put(CerberusSafeDepositBoxSummaryResponse.class, new SafeDepositBoxSummaryResponseAdapter());
+        adapters.put(CerberusSafeDepositBoxResponse.class, new SafeDepositBoxResponseAdapter());
+        ADAPTERS = Collections.unmodifiableMap(adapters);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        final Class<? super T> rawType = type.getRawType();
+        if (rawType == CerberusSafeDepositBoxRequest.class) {
+            return (TypeAdapter<T>) new SafeDepositBoxRequestAdapter(
+                    gson.getDelegateAdapter(this, TypeToken.get(CerberusSafeDepositBoxRequest.class)));
+        }
+        return (TypeAdapter<T>) ADAPTERS.get(rawType);
+    }
+
+    private static class ResponseAdapter extends TypeAdapter<CerberusResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("data");
+            writeStringMap(out, value.getData());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusResponse response = new CerberusResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("data".equals(in.nextName())) {
+                    response.setData(readStringMap(in));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class ListResponseAdapter extends TypeAdapter<CerberusListResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusListResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("keys");
+            writeStrings(out, value.getKeys());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusListResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusListResponse response = new CerberusListResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                if ("keys".equals(in.nextName())) {
+                    response.setKeys(readStrings(in, new ArrayList<>()));
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class ListFilesResponseAdapter extends TypeAdapter<CerberusListFilesResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusListFilesResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("has_next").value(value.isHasNext());
+            out.name("next_offset").value(value.getNextOffset());
+            out.name("limit").value(value.getLimit());
+            out.name("offset").value(value.getOffset());
+            out.name("file_count_in_result").value(value.getFileCountInResult());
+            out.name("total_file_count").value(value.getTotalFileCount());
+            out.name("secure_file_summaries");
+            writeList(out, value.getSecureFileSummaries(), SECURE_FILE_SUMMARY);
+            out.endObject();
+        }
+
+        @Override
+        public CerberusListFilesResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusListFilesResponse response = new CerberusListFilesResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "has_next":
+                        if (!skipNull(in)) {
+                            response.setHasNext(readBoolean(in));
+                        }
+                        break;
+                    case "next_offset":
+                        response.setNextOffset(skipNull(in) ? null : in.nextInt());
+                        break;
+                    case "limit":
+                        if (!skipNull(in)) {
+                            response.setLimit(in.nextInt());
+                        }
+                        break;
+                    case "offset":
+                        if (!skipNull(in)) {
+                            response.setOffset(in.nextInt());
+                        }
+                        break;
+                    case "file_count_in_result":
+                        if (!skipNull(in)) {
+                            response.setFileCountInResult(in.nextInt());
+                        }
+                        break;
+                    case "total_file_count":
+                        if (!skipNull(in)) {
+                            response.setTotalFileCount(in.nextInt());
+                        }
+                        break;
+                    case "secure_file_summaries":
+                        response.setSecureFileSummaries(readList(in, SECURE_FILE_SUMMARY));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class SecureFileSummaryAdapter extends TypeAdapter<SecureFileSummary> {
+        @Override
+        public void write(JsonWriter out, SecureFileSummary value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("sdbox_id").value(value.getSdboxId());
+            out.name("path").value(value.getPath());
+            out.name("size_in_bytes").value(value.getSizeInBytes());
+            out.name("name").value(value.getName());
+            out.name("created_by").value(value.getCreatedBy());
+            out.name("created_ts");
+            DATE_TIME.write(out, value.getCreatedTs());
+            out.name("last_updated_by").value(value.getLastUpdatedBy());
+            out.name("last_updated_ts");
+            DATE_TIME.write(out, value.getLastUpdatedTs());
+            out.endObject();
+        }
+
+        @Override
+        public SecureFileSummary read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final SecureFileSummary summary = new SecureFileSummary();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "sdbox_id":
+                        summary.setSdboxId(readString(in));
+                        break;
+                    case "path":
+                        summary.setPath(readString(in));
+                        break;
+                    case "size_in_bytes":
+                        if (!skipNull(in)) {
+                            summary.setSizeInBytes(in.nextInt());
+                        }
+                        break;
+                    case "name":
+                        summary.setName(readString(in));
+                        break;
+                    case "created_by":
+                        summary.setCreatedBy(readString(in));
+                        break;
+                    case "created_ts":
+                        summary.setCreatedTs(DATE_TIME.read(in));
+                        break;
+                    case "last_updated_by":
+                        summary.setLastUpdatedBy(readString(in));
+                        break;
+                    case "last_updated_ts":
+                        summary.setLastUpdatedTs(DATE_TIME.read(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return summary;
+        }
+    }
+
+    private static class AuthResponseAdapter extends TypeAdapter<CerberusAuthResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusAuthResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("client_token").value(value.getClientToken());
+            out.name("policies");
+            writeStrings(out, value.getPolicies());
+            out.name("metadata");
+            writeStringMap(out, value.getMetadata());
+            out.name("lease_duration").value(value.getLeaseDuration());
+            out.name("renewable").value(value.isRenewable());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusAuthResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusAuthResponse response = new CerberusAuthResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "client_token":
+                        response.setClientToken(readString(in));
+                        break;
+                    case "policies":
+                        response.setPolicies(readStrings(in, new LinkedHashSet<>()));
+                        break;
+                    case "metadata":
+                        response.setMetadata(readStringMap(in));
+                        break;
+                    case "lease_duration":
+                        if (!skipNull(in)) {
+                            response.setLeaseDuration(in.nextInt());
+                        }
+                        break;
+                    case "renewable":
+                        if (!skipNull(in)) {
+                            response.setRenewable(readBoolean(in));
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class ClientTokenResponseAdapter extends TypeAdapter<CerberusClientTokenResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusClientTokenResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("policies");
+            writeStrings(out, value.getPolicies());
+            out.name("path").value(value.getPath());
+            out.name("meta");
+            writeStringMap(out, value.getMeta());
+            out.name("display_name").value(value.getDisplayName());
+            out.name("num_uses").value(value.getNumUses());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusClientTokenResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusClientTokenResponse response = new CerberusClientTokenResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readString(in));
+                        break;
+                    case "policies":
+                        response.setPolicies(readStrings(in, new LinkedHashSet<>()));
+                        break;
+                    case "path":
+                        response.setPath(readString(in));
+                        break;
+                    case "meta":
+                        response.setMeta(readStringMap(in));
+                        break;
+                    case "display_name":
+                        response.setDisplayName(readString(in));
+                        break;
+                    case "num_uses":
+                        if (!skipNull(in)) {
+                            response.setNumUses(in.nextInt());
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class CategoryResponseAdapter extends TypeAdapter<CerberusCategoryResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusCategoryResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("display_name").value(value.getDisplayName());
+            out.name("path").value(value.getPath());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusCategoryResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusCategoryResponse response = new CerberusCategoryResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readString(in));
+                        break;
+                    case "display_name":
+                        response.setDisplayName(readString(in));
+                        break;
+                    case "path":
+                        response.setPath(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class RoleResponseAdapter extends TypeAdapter<CerberusRoleResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusRoleResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("name").value(value.getName());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusRoleResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusRoleResponse response = new CerberusRoleResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readString(in));
+                        break;
+                    case "name":
+                        response.setName(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class SafeDepositBoxSummaryResponseAdapter extends TypeAdapter<CerberusSafeDepositBoxSummaryResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusSafeDepositBoxSummaryResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("name").value(value.getName());
+            out.name("path").value(value.getPath());
+            out.name("category_id").value(value.getCategoryId());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusSafeDepositBoxSummaryResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusSafeDepositBoxSummaryResponse response = new CerberusSafeDepositBoxSummaryResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readString(in));
+                        break;
+                    case "name":
+                        response.setName(readString(in));
+                        break;
+                    case "path":
+                        response.setPath(readString(in));
+                        break;
+                    case "category_id":
+                        response.setCategoryId(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class SafeDepositBoxResponseAdapter extends TypeAdapter<CerberusSafeDepositBoxResponse> {
+        @Override
+        public void write(JsonWriter out, CerberusSafeDepositBoxResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("name").value(value.getName());
+            out.name("path").value(value.getPath());
+            out.name("category_id").value(value.getCategoryId());
+            out.name("owner").value(value.getOwner());
+            out.name("description").value(value.getDescription());
+            out.name("user_group_permissions");
+            writeList(out, value.getUserGroupPermissions(), USER_GROUP_PERMISSION);
+            out.name("iam_principal_permissions");
+            writeList(out, value.getIamPrincipalPermissions(), IAM_PRINCIPAL_PERMISSION);
+            out.endObject();
+        }
+
+        @Override
+        public CerberusSafeDepositBoxResponse read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusSafeDepositBoxResponse response = new CerberusSafeDepositBoxResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "id":
+                        response.setId(readString(in));
+                        break;
+                    case "name":
+                        response.setName(readString(in));
+                        break;
+                    case "path":
+                        response.setPath(readString(in));
+                        break;
+                    case "category_id":
+                        response.setCategoryId(readString(in));
+                        break;
+                    case "owner":
+                        response.setOwner(readString(in));
+                        break;
+                    case "description":
+                        response.setDescription(readString(in));
+                        break;
+                    case "user_group_permissions":
+                        response.setUserGroupPermissions(readList(in, USER_GROUP_PERMISSION));
+                        break;
+                    case "iam_principal_permissions":
+                        response.setIamPrincipalPermissions(readList(in, IAM_PRINCIPAL_PERMISSION));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    private static class SafeDepositBoxRequestAdapter extends TypeAdapter<CerberusSafeDepositBoxRequest> {
+
+        private final TypeAdapter<CerberusSafeDepositBoxRequest> readDelegate;
+
+        SafeDepositBoxRequestAdapter(TypeAdapter<CerberusSafeDepositBoxRequest> readDelegate) {
+            this.readDelegate = readDelegate;
+        }
+
+        @Override
+        public void write(JsonWriter out, CerberusSafeDepositBoxRequest value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("name").value(value.getName());
+            out.name("category_id").value(value.getCategoryId());
+            out.name("description").value(value.getDescription());
+            out.name("owner").value(value.getOwner());
+            out.name("user_group_permissions");
+            writeList(out, value.getUserGroupPermissions(), USER_GROUP_PERMISSION);
+            out.name("iam_principal_permissions");
+            writeList(out, value.getIamPrincipalPermissions(), IAM_PRINCIPAL_PERMISSION);
+            out.endObject();
+        }
+
+        @Override
+        public CerberusSafeDepositBoxRequest read(JsonReader in) throws IOException {
+            return readDelegate.read(in);
+        }
+    }
+
+    private static class UserGroupPermissionAdapter extends TypeAdapter<CerberusUserGroupPermission> {
+        @Override
+        public void write(JsonWriter out, CerberusUserGroupPermission value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("name").value(value.getName());
+            out.name("role_id").value(value.getRoleId());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusUserGroupPermission read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusUserGroupPermission permission = new CerberusUserGroupPermission();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "name":
+                        permission.setName(readString(in));
+                        break;
+                    case "role_id":
+                        permission.setRoleId(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return permission;
+        }
+    }
+
+    private static class IamPrincipalPermissionAdapter extends TypeAdapter<CerberusIamPrincipalPermission> {
+        @Override
+        public void write(JsonWriter out, CerberusIamPrincipalPermission value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("iam_principal_arn").value(value.getIamPrincipalArn());
+            out.name("role_id").value(value.getRoleId());
+            out.endObject();
+        }
+
+        @Override
+        public CerberusIamPrincipalPermission read(JsonReader in) throws IOException {
+            if (skipNull(in)) {
+                return null;
+            }
+            final CerberusIamPrincipalPermission permission = new CerberusIamPrincipalPermission();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "iam_principal_arn":
+                        permission.setIamPrincipalArn(readString(in));
+                        break;
+                    case "role_id":
+                        permission.setRoleId(readString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return permission;
+        }
+    }
+
+    /**
+     * Consumes a JSON null if it is the next token.
+     *
+     * @return true if a null was consumed
+     */
+    static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reads a string the same way Gson's built-in String adapter does, i.e. numbers and booleans are accepted.
+     */
+    static String readString(JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        } else if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    private static boolean readBoolean(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    private static Map<String, String> readStringMap(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        final Map<String, String> map = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext()) {
+            map.put(in.nextName(), readString(in));
+        }
+        in.endObject();
+        return map;
+    }
+
+    private static <C extends Collection<String>> C readStrings(JsonReader in, C strings) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        in.beginArray();
+        while (in.hasNext()) {
+            strings.add(readString(in));
+        }
+        in.endArray();
+        return strings;
+    }
+
+    private static <E> List<E> readList(JsonReader in, TypeAdapter<E> elementAdapter) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        final List<E> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(elementAdapter.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static void writeStringMap(JsonWriter out, Map<String, String> map) throws IOException {
+        if (map == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            out.name(String.valueOf(entry.getKey())).value(entry.getValue());
+        }
+        out.endObject();
+    }
+
+    private static void writeStrings(JsonWriter out, Collection<String> strings) throws IOException {
+        if (strings == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (String string : strings) {
+            out.value(string);
+        }
+        out.endArray();
+    }
+
+    private static <E> void writeList(JsonWriter out, List<E> list, TypeAdapter<E> elementAdapter) throws IOException {
+        if (list == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (E element : list) {
+            elementAdapter.write(out, element);
+        }
+        out.endArray();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
+import org.joda.time.format.ISODateTimeFormat;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes Joda {@link DateTime} values as ISO-8601 strings, e.g. <code>2017-12-20T22:00:54Z</code>.
+ * <p>
+ * Parsing uses a pre-built formatter instead of <code>new DateTime(String)</code>, which looks up a converter
+ * for every value. The resulting instant and time zone are the same.
+ * </p>
+ */
+public class DateTimeTypeAdapter extends TypeAdapter<DateTime> {
+
+    private static final DateTimeFormatter PARSER = ISODateTimeFormat.dateTimeParser();
+
+    private static final DateTimeFormatter PRINTER = ISODateTimeFormat.dateTime();
+
+    @Override
+    public void write(JsonWriter out, DateTime value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(PRINTER.print(value));
+        }
+    }
+
+    @Override
+    public DateTime read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return parse(in.nextString());
+    }
+
+    /**
+     * Parses an ISO-8601 date time string.
+     *
+     * @param value ISO-8601 date time
+     * @return Parsed date time in the default time zone
+     */
+    public static DateTime parse(String value) {
+        return PARSER.parseDateTime(value);
+    }
+
+    /**
+     * Formats a date time as an ISO-8601 string.
+     *
+     * @param value Date time
+     * @return ISO-8601 representation
+     */
+    public static String print(DateTime value) {
+        return PRINTER.print(value);
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link CerberusJsonCodec} backed by Gson. This is the default codec.
+ */
+public class GsonCerberusJsonCodec implements CerberusJsonCodec {
+
+    private final Gson gson;
+
+    /**
+     * Creates a codec with the Gson configuration returned by {@link #newGson()}.
+     */
+    public GsonCerberusJsonCodec() {
+        this(newGson());
+    }
+
+    /**
+     * Creates a codec that uses the specified Gson instance.
+     *
+     * @param gson Gson instance configured according to the {@link CerberusJsonCodec} contract
+     */
+    public GsonCerberusJsonCodec(final Gson gson) {
+        if (gson == null) {
+            throw new IllegalArgumentException("Gson cannot be null.");
+        }
+
+        this.gson = gson;
+    }
+
+    /**
+     * Creates the Gson configuration the client uses by default.
+     *
+     * @return New Gson instance
+     */
+    public static Gson newGson() {
+        return new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .disableHtmlEscaping()
+                .registerTypeAdapterFactory(new CerberusTypeAdapterFactory())
+                .create();
+    }
+
+    /**
+     * Returns the Gson instance used by this codec.
+     *
+     * @return Gson instance
+     */
+    public Gson getGson() {
+        return gson;
+    }
+
+    @Override
+    public <T> T fromJson(String json, Type type) {
+        try {
+            return gson.fromJson(json, type);
+        } catch (JsonParseException e) {
+            throw new JsonCodecException("Failed to parse JSON as " + type.getTypeName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJson(InputStream json, Type type) throws IOException {
+        try {
+            return gson.fromJson(new InputStreamReader(json, StandardCharsets.UTF_8), type);
+        } catch (JsonIOException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e);
+        } catch (JsonParseException e) {
+            throw new JsonCodecException("Failed to parse JSON as " + type.getTypeName(), e);
+        }
+    }
+
+    @Override
+    public String toJson(Object value) {
+        return gson.toJson(value);
+    }
+
+    @Override
+    public void toJson(Object value, OutputStream out) throws IOException {
+        // the writer only buffers a few KB of chars before they are encoded into the stream
+        final JsonWriter jsonWriter = gson.newJsonWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        if (value == null) {
+            jsonWriter.nullValue();
+        } else {
+            gson.toJson(value, value.getClass(), jsonWriter);
+        }
+        jsonWriter.flush();
+    }
+
+    @Override
+    public void readSecretData(InputStream json, Predicate<String> keyFilter, BiConsumer<String, String> consumer)
+            throws IOException {
+        final JsonReader reader = new JsonReader(new InputStreamReader(json, StandardCharsets.UTF_8));
+        reader.setLenient(true);
+        try {
+            final JsonToken first;
+            try {
+                first = reader.peek();
+            } catch (EOFException e) {
+                // empty document, same as Gson.fromJson
+                return;
+            }
+            if (first == JsonToken.NULL) {
+                return;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if ("data".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    reader.beginObject();
+                    while (reader.hasNext()) {
+                        final String key = reader.nextName();
+                        if (keyFilter.test(key)) {
+                            consumer.accept(key, CerberusTypeAdapterFactory.readString(reader));
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endObject();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (MalformedJsonException | EOFException | IllegalStateException | NumberFormatException e) {
+            throw new JsonCodecException("Failed to parse secret data", e);
+        }
+    }
+}
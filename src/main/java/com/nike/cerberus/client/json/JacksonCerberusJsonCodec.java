@@ -0,0 +1,202 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+/**
+ * {@link CerberusJsonCodec} backed by Jackson.
+ * <p>
+ * Jackson binds the model classes through their fields, the same way Gson does. To use a bytecode generating
+ * module such as Afterburner or Blackbird, register it on the mapper returned by {@link #newObjectMapper()} and
+ * pass that mapper to {@link #JacksonCerberusJsonCodec(ObjectMapper)}.
+ * </p>
+ */
+public class JacksonCerberusJsonCodec implements CerberusJsonCodec {
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter writer;
+
+    /**
+     * Creates a codec with the mapper configuration returned by {@link #newObjectMapper()}.
+     */
+    public JacksonCerberusJsonCodec() {
+        this(newObjectMapper());
+    }
+
+    /**
+     * Creates a codec that uses the specified mapper.
+     *
+     * @param objectMapper Mapper configured according to the {@link CerberusJsonCodec} contract
+     */
+    public JacksonCerberusJsonCodec(final ObjectMapper objectMapper) {
+        if (objectMapper == null) {
+            throw new IllegalArgumentException("Object mapper cannot be null.");
+        }
+
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Creates a mapper configured for the Cerberus model classes.
+     *
+     * @return New object mapper
+     */
+    public static ObjectMapper newObjectMapper() {
+        final SimpleModule dateTimeModule = new SimpleModule("CerberusDateTime")
+                .addSerializer(DateTime.class, new JsonSerializer<DateTime>() {
+                    @Override
+                    public void serialize(DateTime value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                        gen.writeString(DateTimeTypeAdapter.print(value));
+                    }
+                })
+                .addDeserializer(DateTime.class, new JsonDeserializer<DateTime>() {
+                    @Override
+                    public DateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+                        return DateTimeTypeAdapter.parse(p.getValueAsString());
+                    }
+                });
+
+        return new ObjectMapper()
+                .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(dateTimeModule);
+    }
+
+    /**
+     * Returns the mapper used by this codec.
+     *
+     * @return Object mapper
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    public <T> T fromJson(String json, Type type) {
+        if (StringUtils.isBlank(json)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, javaType(type));
+        } catch (JsonProcessingException e) {
+            throw new JsonCodecException("Failed to parse JSON as " + type.getTypeName(), e);
+        }
+    }
+
+    @Override
+    public <T> T fromJson(InputStream json, Type type) throws IOException {
+        try {
+            return objectMapper.readValue(json, javaType(type));
+        } catch (JsonProcessingException e) {
+            throw new JsonCodecException("Failed to parse JSON as " + type.getTypeName(), e);
+        }
+    }
+
+    @Override
+    public String toJson(Object value) {
+        try {
+            return writer.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new JsonCodecException("Failed to serialize " + value.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public void toJson(Object value, OutputStream out) throws IOException {
+        writer.writeValue(out, value);
+        out.flush();
+    }
+
+    @Override
+    public void readSecretData(InputStream json, Predicate<String> keyFilter, BiConsumer<String, String> consumer)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            final JsonToken first = parser.nextToken();
+            if (first == null || first == JsonToken.VALUE_NULL) {
+                return;
+            }
+            if (first != JsonToken.START_OBJECT) {
+                throw new JsonCodecException("Failed to parse secret data, expected an object but was " + first);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final String name = parser.getCurrentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "data".equals(name)) {
+                    readSecretDataEntries(parser, keyFilter, consumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new JsonCodecException("Failed to parse secret data", e);
+        }
+    }
+
+    private static void readSecretDataEntries(JsonParser parser,
+                                              Predicate<String> keyFilter,
+                                              BiConsumer<String, String> consumer) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            final String key = parser.getCurrentName();
+            final JsonToken value = parser.nextToken();
+            if (!keyFilter.test(key)) {
+                // string values that are never asked for are skipped without being decoded
+                parser.skipChildren();
+            } else if (value == JsonToken.VALUE_NULL) {
+                consumer.accept(key, null);
+            } else if (value.isScalarValue()) {
+                consumer.accept(key, parser.getValueAsString());
+            } else {
+                throw new JsonCodecException("Failed to parse secret data, expected a string for " + key
+                        + " but was " + value);
+            }
+        }
+    }
+
+    private JavaType javaType(Type type) {
+        return objectMapper.getTypeFactory().constructType(type);
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.nike.cerberus.client.CerberusClientException;
+
+/**
+ * Thrown by a {@link CerberusJsonCodec} when a JSON document cannot be parsed or mapped to the requested type.
+ */
+public class JsonCodecException extends CerberusClientException {
+
+    private static final long serialVersionUID = 4325476185927830457L;
+
+    /**
+     * Constructs the exception with a message and underlying exception.
+     *
+     * @param message Message
+     * @param t       Underlying exception
+     */
+    public JsonCodecException(String message, Throwable t) {
+        super(message, t);
+    }
+
+    /**
+     * Constructs the exception with a message.
+     *
+     * @param message Message
+     */
+    public JsonCodecException(String message) {
+        super(message);
+    }
+}
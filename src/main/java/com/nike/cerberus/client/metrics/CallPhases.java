@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+/**
+ * Where the time of a single HTTP call went, as measured by {@link CallTimingEventListener}. All durations are in
+ * nanoseconds; a phase that did not happen during the call, e.g. DNS and connect on a reused connection, is -1.
+ */
+public class CallPhases {
+
+    private final long preConnectNanos;
+
+    private final long dnsNanos;
+
+    private final long connectNanos;
+
+    private final long tlsNanos;
+
+    private final long serverNanos;
+
+    private final long totalNanos;
+
+    private final boolean connectionReused;
+
+    private final boolean failed;
+
+    public CallPhases(long preConnectNanos,
+                      long dnsNanos,
+                      long connectNanos,
+                      long tlsNanos,
+                      long serverNanos,
+                      long totalNanos,
+                      boolean connectionReused,
+                      boolean failed) {
+        this.preConnectNanos = preConnectNanos;
+        this.dnsNanos = dnsNanos;
+        this.connectNanos = connectNanos;
+        this.tlsNanos = tlsNanos;
+        this.serverNanos = serverNanos;
+        this.totalNanos = totalNanos;
+        this.connectionReused = connectionReused;
+        this.failed = failed;
+    }
+
+    /**
+     * @return Time from the start of the call until it began looking for a connection. For the synchronous calls of
+     * the Cerberus client that is the time spent in interceptors before the network, e.g. fault injection; for
+     * asynchronous calls it also includes waiting in the dispatcher queue
+     */
+    public long getPreConnectNanos() {
+        return preConnectNanos;
+    }
+
+    /**
+     * @return Time spent resolving the host name
+     */
+    public long getDnsNanos() {
+        return dnsNanos;
+    }
+
+    /**
+     * @return Time spent establishing the connection, including the TLS handshake
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    /**
+     * @return Time spent in the TLS handshake
+     */
+    public long getTlsNanos() {
+        return tlsNanos;
+    }
+
+    /**
+     * @return Time from the request being fully sent until the response headers started arriving
+     */
+    public long getServerNanos() {
+        return serverNanos;
+    }
+
+    /**
+     * @return Time from the start of the call until it ended or failed
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return Whether the call was sent on a pooled connection rather than a new one
+     */
+    public boolean isConnectionReused() {
+        return connectionReused;
+    }
+
+    /**
+     * @return Whether the call failed without a response
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return "CallPhases{" +
+                "preConnectNanos=" + preConnectNanos +
+                ", dnsNanos=" + dnsNanos +
+                ", connectNanos=" + connectNanos +
+                ", tlsNanos=" + tlsNanos +
+                ", serverNanos=" + serverNanos +
+                ", totalNanos=" + totalNanos +
+                ", connectionReused=" + connectionReused +
+                ", failed=" + failed +
+                '}';
+    }
+}
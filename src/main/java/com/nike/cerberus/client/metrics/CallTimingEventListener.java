@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.HttpUrl;
+import okhttp3.Protocol;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+
+/**
+ * OkHttp {@link EventListener} that times the phases of a call (time before connecting, DNS, connect, TLS and
+ * server time) and whether the connection was reused, and reports them to the {@link CerberusMetrics} attached to
+ * the request as a tag, and to the {@link SlowCallLog.Trace} tag if there is one. The Cerberus client tags its
+ * requests when metrics or the slow call log are configured, and the AWS credentials providers when metrics are;
+ * calls without either tag get {@link EventListener#NONE}, so the listener costs nothing when both are off.
+ * <p>
+ * Clients built by {@link com.nike.cerberus.client.CerberusClientFactory} use {@link #FACTORY} already. To get the
+ * same measurements with your own <code>OkHttpClient</code>, add it with
+ * <code>builder.eventListenerFactory(CallTimingEventListener.FACTORY)</code>.
+ * </p>
+ * <p>
+ * If a call opens more than one connection, e.g. because of a retry or redirect, the DNS, connect and TLS times are
+ * summed and the server time is that of the last exchange.
+ * </p>
+ */
+public class CallTimingEventListener extends EventListener {
+
+    /**
+     * Creates a listener for every call that carries a {@link CerberusMetrics} tag.
+     */
+    public static final EventListener.Factory FACTORY = call -> {
+        CerberusMetrics metrics = call.request().tag(CerberusMetrics.class);
+        SlowCallLog.Trace trace = call.request().tag(SlowCallLog.Trace.class);
+        if (trace == null && (metrics == null || metrics == CerberusMetrics.NOOP)) {
+            return EventListener.NONE;
+        }
+        return new CallTimingEventListener(metrics == null ? CerberusMetrics.NOOP : metrics, trace);
+    };
+
+    private static final long NOT_MEASURED = -1;
+
+    private final CerberusMetrics metrics;
+
+    private final SlowCallLog.Trace trace;
+
+    private long callStartedAt;
+
+    private long preConnectNanos = NOT_MEASURED;
+
+    private long dnsStartedAt;
+
+    private long dnsNanos = NOT_MEASURED;
+
+    private long connectStartedAt;
+
+    private long connectNanos = NOT_MEASURED;
+
+    private long tlsStartedAt;
+
+    private long tlsNanos = NOT_MEASURED;
+
+    private long requestSentAt;
+
+    private long serverNanos = NOT_MEASURED;
+
+    private boolean newConnection;
+
+    private boolean connectionReused;
+
+    CallTimingEventListener(CerberusMetrics metrics, SlowCallLog.Trace trace) {
+        this.metrics = metrics;
+        this.trace = trace;
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void proxySelectStart(Call call, HttpUrl url) {
+        connectionLookupStarted();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        connectionLookupStarted();
+        dnsStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        dnsNanos = add(dnsNanos, System.nanoTime() - dnsStartedAt);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectionLookupStarted();
+        newConnection = true;
+        connectStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStartedAt = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        tlsNanos = add(tlsNanos, System.nanoTime() - tlsStartedAt);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        connectNanos = add(connectNanos, System.nanoTime() - connectStartedAt);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        connectNanos = add(connectNanos, System.nanoTime() - connectStartedAt);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        connectionLookupStarted();
+        connectionReused = !newConnection;
+        newConnection = false;
+        metrics.recordConnectionAcquired(connectionReused);
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestSentAt = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestSentAt = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        if (requestSentAt != 0) {
+            serverNanos = System.nanoTime() - requestSentAt;
+        }
+        if (trace != null) {
+            // the call only ends once the caller has read the body, so the trace gets the phases now
+            trace.recordPhases(phases(false));
+        }
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        report(call, false);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        if (trace != null && serverNanos == NOT_MEASURED) {
+            trace.recordPhases(phases(true));
+        }
+        report(call, true);
+    }
+
+    private void connectionLookupStarted() {
+        if (preConnectNanos == NOT_MEASURED) {
+            preConnectNanos = System.nanoTime() - callStartedAt;
+        }
+    }
+
+    private void report(Call call, boolean failed) {
+        metrics.recordCallPhases(CerberusOperation.of(call.request().method(), call.request().url()), phases(failed));
+    }
+
+    private CallPhases phases(boolean failed) {
+        return new CallPhases(preConnectNanos, dnsNanos, connectNanos, tlsNanos, serverNanos,
+                System.nanoTime() - callStartedAt, connectionReused, failed);
+    }
+
+    private static long add(long total, long nanos) {
+        return total == NOT_MEASURED ? nanos : total + nanos;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+/**
+ * Receives measurements from the client. All methods do nothing by default, so implementations only override what
+ * they need; {@link #NOOP} is used when no metrics are configured.
+ * <p>
+ * Durations are reported raw, in nanoseconds, so an adapter can feed them into the timers or histograms of its
+ * metrics library, e.g. a Micrometer <code>Timer</code> tagged with the operation and status code, or a Dropwizard
+ * <code>Timer</code> per operation. Methods are called on the thread making the call, synchronously, and must be
+ * fast and thread-safe.
+ * </p>
+ */
+public interface CerberusMetrics {
+
+    /**
+     * Metrics that are discarded.
+     */
+    CerberusMetrics NOOP = new CerberusMetrics() {
+    };
+
+    /**
+     * Called after every HTTP call to Cerberus, including each retry.
+     *
+     * @param operation      The operation
+     * @param statusCode     HTTP status code, or -1 if no response was received
+     * @param durationNanos  Time from sending the request until the response headers were received
+     */
+    default void recordRequest(CerberusOperation operation, int statusCode, long durationNanos) {
+    }
+
+    /**
+     * Called before each retried attempt of a call, whether the previous attempt got a server error or failed with an
+     * I/O error.
+     *
+     * @param operation The operation
+     */
+    default void recordRetry(CerberusOperation operation) {
+    }
+
+    /**
+     * Called after a credentials provider authenticated with Cerberus.
+     *
+     * @param durationNanos How long authentication blocked
+     * @param successful    Whether a token was obtained
+     */
+    default void recordAuthentication(long durationNanos, boolean successful) {
+    }
+
+    /**
+     * Called when a thread had to wait for the credentials lock because the token was being refreshed.
+     *
+     * @param waitNanos How long the thread waited
+     */
+    default void recordCredentialsLockWait(long waitNanos) {
+    }
+
+    /**
+     * Called on every lookup of a client-side cache.
+     *
+     * @param cache Name of the cache, e.g. "secret" or "safe-deposit-box-index"
+     * @param hit   Whether the value was cached
+     */
+    default void recordCacheAccess(String cache, boolean hit) {
+    }
+
+    /**
+     * Called before every HTTP call with the state of the HTTP client's dispatcher.
+     *
+     * @param running Number of calls in flight, not counting this one
+     * @param queued  Number of asynchronous calls waiting for a free slot
+     */
+    default void recordDispatcher(int running, int queued) {
+    }
+
+    /**
+     * Called when an HTTP call ends or fails, with the time spent in each of its phases. Only calls made through an
+     * <code>OkHttpClient</code> using {@link CallTimingEventListener#FACTORY} are reported.
+     *
+     * @param operation The operation
+     * @param phases    Time spent before connecting, resolving, connecting, in the TLS handshake and waiting for the server
+     */
+    default void recordCallPhases(CerberusOperation operation, CallPhases phases) {
+    }
+
+    /**
+     * Called when an HTTP call obtained a connection. Only calls made through an <code>OkHttpClient</code> using
+     * {@link CallTimingEventListener#FACTORY} are reported.
+     *
+     * @param reused Whether the connection came from the pool rather than being newly established
+     */
+    default void recordConnectionAcquired(boolean reused) {
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import com.nike.cerberus.client.http.HttpMethod;
+import okhttp3.HttpUrl;
+
+/**
+ * The kinds of calls the client makes to Cerberus, used to break metrics down by operation.
+ */
+public enum CerberusOperation {
+
+    READ,
+    LIST,
+    WRITE,
+    DELETE,
+    LIST_FILES,
+    READ_FILE,
+    WRITE_FILE,
+    DELETE_FILE,
+    /** Listing, reading, creating, updating and deleting safe deposit boxes */
+    SAFE_DEPOSIT_BOX,
+    /** Listing categories and roles */
+    METADATA,
+    AUTHENTICATE,
+    OTHER;
+
+    private static final String[][] PATH_TEMPLATES = {
+            {"/v1/secret/", "{path}"},
+            {"/v1/secure-file/", "{path}"},
+            {"/v1/secure-files/", "{path}"},
+            {"/safe-deposit-box/", "{id}"}
+    };
+
+    /**
+     * Determines the operation of a request from its method and URL.
+     *
+     * @param method HTTP method
+     * @param url    URL of the request
+     * @return The operation, {@link #OTHER} for requests the client does not know
+     */
+    public static CerberusOperation of(final String method, final HttpUrl url) {
+        final String path = url.encodedPath();
+        if (path.contains("/v1/secret/")) {
+            if (url.queryParameter("list") != null) {
+                return LIST;
+            }
+            return ofSecretMethod(method, READ, WRITE, DELETE);
+        } else if (path.contains("/v1/secure-file/")) {
+            return ofSecretMethod(method, READ_FILE, WRITE_FILE, DELETE_FILE);
+        } else if (path.contains("/v1/secure-files/")) {
+            return LIST_FILES;
+        } else if (path.contains("/safe-deposit-box")) {
+            return SAFE_DEPOSIT_BOX;
+        } else if (path.endsWith("/v1/category") || path.endsWith("/v1/role")) {
+            return METADATA;
+        } else if (path.contains("/v2/auth/")) {
+            return AUTHENTICATE;
+        }
+        return OTHER;
+    }
+
+    /**
+     * Replaces the part of a request path that names a secret, file or safe deposit box with a placeholder, e.g.
+     * <code>/v1/secret/app/sdb/key</code> becomes <code>/v1/secret/{path}</code>, so that it can be recorded
+     * without revealing what was accessed and without creating a distinct value per secret.
+     *
+     * @param url URL of the request
+     * @return The path with identifying segments replaced
+     */
+    public static String pathTemplate(final HttpUrl url) {
+        final String path = url.encodedPath();
+        for (String[] template : PATH_TEMPLATES) {
+            final int index = path.indexOf(template[0]);
+            if (index >= 0 && path.length() > index + template[0].length()) {
+                return path.substring(0, index + template[0].length()) + template[1];
+            }
+        }
+        return path;
+    }
+
+    private static CerberusOperation ofSecretMethod(String method,
+                                                    CerberusOperation read,
+                                                    CerberusOperation write,
+                                                    CerberusOperation delete) {
+        switch (method) {
+            case HttpMethod.GET:
+            case HttpMethod.HEAD:
+                return read;
+            case HttpMethod.POST:
+            case HttpMethod.PUT:
+                return write;
+            case HttpMethod.DELETE:
+                return delete;
+            default:
+                return OTHER;
+        }
+    }
+}
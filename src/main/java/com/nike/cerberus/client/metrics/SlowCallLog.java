@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Logs a single line at WARN for calls to Cerberus that take longer than a threshold, with where the time went:
+ * <pre>
+ * Slow Cerberus call: operation=READ path=/v1/secret/{path} status=200 durationMs=1532.4 attempts=2 authWaitMs=0.1
+ * preConnectMs=0.0 dnsMs=1.2 connectMs=3.5 tlsMs=2.9 serverMs=1510.8 connectionReused=false bytesSent=0
+ * bytesReceived=512 suppressed=0
+ * </pre>
+ * Only a sample of slow calls is considered, and at most a fixed number of lines are logged per minute; the number of
+ * slow calls dropped by the rate limit since the last line is logged as <code>suppressed</code>. Paths are logged with
+ * secret names and IDs replaced by placeholders, see {@link CerberusOperation#pathTemplate}.
+ * <p>
+ * The network phases come from {@link CallTimingEventListener}, so they are only logged for clients whose
+ * <code>OkHttpClient</code> uses it, which includes all clients built by
+ * {@link com.nike.cerberus.client.CerberusClientFactory}. Phases that were not measured are logged as <code>-</code>,
+ * and phases of retried calls are summed over the attempts.
+ * </p>
+ */
+public class SlowCallLog {
+
+    public static final double DEFAULT_SAMPLE_RATE = 1.0;
+
+    public static final int DEFAULT_MAX_LINES_PER_MINUTE = 60;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowCallLog.class);
+
+    private final long thresholdNanos;
+
+    private final double sampleRate;
+
+    private final RateLimiter rateLimiter;
+
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private final Consumer<String> sink;
+
+    private final DoubleSupplier random;
+
+    /**
+     * Logs every slow call, up to {@link #DEFAULT_MAX_LINES_PER_MINUTE} lines a minute.
+     *
+     * @param threshold Calls taking at least this long are logged
+     */
+    public SlowCallLog(final Duration threshold) {
+        this(threshold, DEFAULT_SAMPLE_RATE, DEFAULT_MAX_LINES_PER_MINUTE);
+    }
+
+    /**
+     * @param threshold         Calls taking at least this long are logged
+     * @param sampleRate        Fraction of slow calls to consider for logging, between 0 and 1
+     * @param maxLinesPerMinute Maximum number of lines logged per minute
+     */
+    public SlowCallLog(final Duration threshold, final double sampleRate, final int maxLinesPerMinute) {
+        this(threshold, sampleRate, maxLinesPerMinute, LOGGER::warn, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    SlowCallLog(final Duration threshold,
+                final double sampleRate,
+                final int maxLinesPerMinute,
+                final Consumer<String> sink,
+                final DoubleSupplier random) {
+        if (threshold == null || threshold.isNegative()) {
+            throw new IllegalArgumentException("Threshold cannot be null or negative.");
+        }
+
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Sample rate must be between 0 and 1.");
+        }
+
+        if (maxLinesPerMinute < 1) {
+            throw new IllegalArgumentException("Max lines per minute must be at least 1.");
+        }
+
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.rateLimiter = RateLimiter.of("cerberus-slow-call-log", RateLimiterConfig.custom()
+                .limitForPeriod(maxLinesPerMinute)
+                .limitRefreshPeriod(Duration.ofMinutes(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        this.sink = sink;
+        this.random = random;
+    }
+
+    /**
+     * @return Calls taking at least this long are logged
+     */
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * Starts tracking a call.
+     *
+     * @param operation The operation
+     * @param url       URL of the call
+     * @return Trace to report the call's progress to
+     */
+    public Trace start(final CerberusOperation operation, final HttpUrl url) {
+        return new Trace(operation, url);
+    }
+
+    private void finish(final Trace trace, final long durationNanos) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+
+        if (sampleRate < 1 && random.getAsDouble() >= sampleRate) {
+            return;
+        }
+
+        if (!rateLimiter.acquirePermission()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+
+        sink.accept(trace.format(durationNanos, suppressed.getAndSet(0)));
+    }
+
+    /**
+     * Progress of a single logical call, possibly spanning several attempts. The client attaches it to its requests
+     * as a tag, so that {@link CallTimingEventListener} can report the network phases to it.
+     */
+    public final class Trace {
+
+        private final CerberusOperation operation;
+
+        private final HttpUrl url;
+
+        private final long startedAt = System.nanoTime();
+
+        private int attempts;
+
+        private int statusCode = -1;
+
+        private long authWaitNanos;
+
+        private long preConnectNanos = -1;
+
+        private long dnsNanos = -1;
+
+        private long connectNanos = -1;
+
+        private long tlsNanos = -1;
+
+        private long serverNanos = -1;
+
+        private boolean connectionReused;
+
+        private long bytesSent = -1;
+
+        private long bytesReceived = -1;
+
+        private Trace(final CerberusOperation operation, final HttpUrl url) {
+            this.operation = operation;
+            this.url = url;
+        }
+
+        /**
+         * Adds time spent waiting for the credentials provider.
+         *
+         * @param nanos Time spent
+         */
+        public synchronized void recordAuthWait(final long nanos) {
+            authWaitNanos += nanos;
+        }
+
+        /**
+         * Records a completed attempt.
+         *
+         * @param request  The request sent
+         * @param response The response, or null if none was received
+         */
+        public synchronized void recordAttempt(final Request request, final Response response) {
+            attempts++;
+            statusCode = response == null ? -1 : response.code();
+            bytesSent = contentLength(request);
+            bytesReceived = response == null || response.body() == null ? -1 : response.body().contentLength();
+        }
+
+        /**
+         * Ends the trace, logging it if it was slow.
+         */
+        public void finish() {
+            SlowCallLog.this.finish(this, System.nanoTime() - startedAt);
+        }
+
+        /**
+         * Records the network phases of an attempt, as soon as its response headers arrive or it fails.
+         *
+         * @param phases Phases of the attempt
+         */
+        synchronized void recordPhases(final CallPhases phases) {
+            preConnectNanos = add(preConnectNanos, phases.getPreConnectNanos());
+            dnsNanos = add(dnsNanos, phases.getDnsNanos());
+            connectNanos = add(connectNanos, phases.getConnectNanos());
+            tlsNanos = add(tlsNanos, phases.getTlsNanos());
+            serverNanos = add(serverNanos, phases.getServerNanos());
+            connectionReused = phases.isConnectionReused();
+        }
+
+        private synchronized String format(final long durationNanos, final long suppressedCount) {
+            return "Slow Cerberus call:" +
+                    " operation=" + operation +
+                    " path=" + CerberusOperation.pathTemplate(url) +
+                    " status=" + statusCode +
+                    " durationMs=" + millis(durationNanos) +
+                    " attempts=" + attempts +
+                    " authWaitMs=" + millis(authWaitNanos) +
+                    " preConnectMs=" + millis(preConnectNanos) +
+                    " dnsMs=" + millis(dnsNanos) +
+                    " connectMs=" + millis(connectNanos) +
+                    " tlsMs=" + millis(tlsNanos) +
+                    " serverMs=" + millis(serverNanos) +
+                    " connectionReused=" + connectionReused +
+                    " bytesSent=" + bytesSent +
+                    " bytesReceived=" + bytesReceived +
+                    " suppressed=" + suppressedCount;
+        }
+    }
+
+    private static long add(final long total, final long nanos) {
+        if (nanos < 0) {
+            return total;
+        }
+        return total < 0 ? nanos : total + nanos;
+    }
+
+    private static String millis(final long nanos) {
+        return nanos < 0 ? "-" : String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+
+    private static long contentLength(final Request request) {
+        if (request.body() == null) {
+            return 0;
+        }
+        try {
+            return request.body().contentLength();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
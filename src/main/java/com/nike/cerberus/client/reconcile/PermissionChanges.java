@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.reconcile;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Differences between two sets of permissions, each a map of grantee (user group name or IAM principal ARN) to
+ * role ID.
+ */
+public final class PermissionChanges {
+
+    private final Map<String, String> added;
+
+    private final Map<String, String> changed;
+
+    private final Set<String> removed;
+
+    private PermissionChanges(Map<String, String> added, Map<String, String> changed, Set<String> removed) {
+        this.added = Collections.unmodifiableMap(added);
+        this.changed = Collections.unmodifiableMap(changed);
+        this.removed = Collections.unmodifiableSet(removed);
+    }
+
+    /**
+     * Compares the permissions with one hash lookup per grantee.
+     *
+     * @param current Current grantee to role ID map
+     * @param desired Desired grantee to role ID map
+     * @return Changes that turn the current permissions into the desired ones
+     */
+    static PermissionChanges between(final Map<String, String> current, final Map<String, String> desired) {
+        final Map<String, String> added = new HashMap<>();
+        final Map<String, String> changed = new HashMap<>();
+        for (Map.Entry<String, String> entry : desired.entrySet()) {
+            final String currentRoleId = current.get(entry.getKey());
+            if (currentRoleId == null) {
+                added.put(entry.getKey(), entry.getValue());
+            } else if (!currentRoleId.equals(entry.getValue())) {
+                changed.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        final Set<String> removed = new HashSet<>();
+        for (String grantee : current.keySet()) {
+            if (!desired.containsKey(grantee)) {
+                removed.add(grantee);
+            }
+        }
+        return new PermissionChanges(added, changed, removed);
+    }
+
+    /**
+     * @return Grantees that get a permission, with the role ID granted
+     */
+    public Map<String, String> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return Grantees whose role changes, with the new role ID
+     */
+    public Map<String, String> getChanged() {
+        return changed;
+    }
+
+    /**
+     * @return Grantees that lose their permission
+     */
+    public Set<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return Whether there are no changes
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && changed.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "added=" + added.keySet() + ", changed=" + changed.keySet() + ", removed=" + removed;
+    }
+}
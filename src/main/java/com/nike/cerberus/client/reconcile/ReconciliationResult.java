@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.reconcile;
+
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+
+/**
+ * Outcome of reconciling one safe deposit box with its desired state.
+ */
+public final class ReconciliationResult {
+
+    /**
+     * What the reconciler did to the safe deposit box.
+     */
+    public enum Action {
+        CREATED,
+        UPDATED,
+        UNCHANGED
+    }
+
+    private final Action action;
+
+    private final SafeDepositBoxDiff diff;
+
+    private final CerberusSafeDepositBoxResponse safeDepositBox;
+
+    ReconciliationResult(Action action, SafeDepositBoxDiff diff, CerberusSafeDepositBoxResponse safeDepositBox) {
+        this.action = action;
+        this.diff = diff;
+        this.safeDepositBox = safeDepositBox;
+    }
+
+    /**
+     * @return What the reconciler did
+     */
+    public Action getAction() {
+        return action;
+    }
+
+    /**
+     * @return Differences that were found, null if the safe deposit box was created
+     */
+    public SafeDepositBoxDiff getDiff() {
+        return diff;
+    }
+
+    /**
+     * @return The safe deposit box after reconciliation
+     */
+    public CerberusSafeDepositBoxResponse getSafeDepositBox() {
+        return safeDepositBox;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.reconcile;
+
+import com.nike.cerberus.client.model.CerberusIamPrincipalPermission;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusUserGroupPermission;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Differences between the current state of a safe deposit box and the desired state, covering the owner, the
+ * description and the user group and IAM principal permissions. A null or empty description is treated as no
+ * description and missing permission lists as no permissions.
+ */
+public final class SafeDepositBoxDiff {
+
+    private final boolean ownerChanged;
+
+    private final boolean descriptionChanged;
+
+    private final PermissionChanges userGroupPermissions;
+
+    private final PermissionChanges iamPrincipalPermissions;
+
+    private SafeDepositBoxDiff(boolean ownerChanged,
+                               boolean descriptionChanged,
+                               PermissionChanges userGroupPermissions,
+                               PermissionChanges iamPrincipalPermissions) {
+        this.ownerChanged = ownerChanged;
+        this.descriptionChanged = descriptionChanged;
+        this.userGroupPermissions = userGroupPermissions;
+        this.iamPrincipalPermissions = iamPrincipalPermissions;
+    }
+
+    /**
+     * Compares a safe deposit box with its desired state.
+     *
+     * @param current Current state of the safe deposit box
+     * @param desired Desired state of the safe deposit box
+     * @return The differences
+     */
+    public static SafeDepositBoxDiff between(final CerberusSafeDepositBoxResponse current,
+                                             final CerberusSafeDepositBoxRequest desired) {
+        if (current == null) {
+            throw new IllegalArgumentException("Current safe deposit box cannot be null.");
+        }
+
+        if (desired == null) {
+            throw new IllegalArgumentException("Desired safe deposit box cannot be null.");
+        }
+
+        return new SafeDepositBoxDiff(
+                !StringUtils.equals(current.getOwner(), desired.getOwner()),
+                !StringUtils.equals(StringUtils.defaultString(current.getDescription()),
+                        StringUtils.defaultString(desired.getDescription())),
+                PermissionChanges.between(
+                        toMap(current.getUserGroupPermissions(), CerberusUserGroupPermission::getName, CerberusUserGroupPermission::getRoleId),
+                        toMap(desired.getUserGroupPermissions(), CerberusUserGroupPermission::getName, CerberusUserGroupPermission::getRoleId)),
+                PermissionChanges.between(
+                        toMap(current.getIamPrincipalPermissions(), CerberusIamPrincipalPermission::getIamPrincipalArn, CerberusIamPrincipalPermission::getRoleId),
+                        toMap(desired.getIamPrincipalPermissions(), CerberusIamPrincipalPermission::getIamPrincipalArn, CerberusIamPrincipalPermission::getRoleId)));
+    }
+
+    /**
+     * @return Whether the owner changes
+     */
+    public boolean isOwnerChanged() {
+        return ownerChanged;
+    }
+
+    /**
+     * @return Whether the description changes
+     */
+    public boolean isDescriptionChanged() {
+        return descriptionChanged;
+    }
+
+    /**
+     * @return Changes to the user group permissions, by group name
+     */
+    public PermissionChanges getUserGroupPermissions() {
+        return userGroupPermissions;
+    }
+
+    /**
+     * @return Changes to the IAM principal permissions, by principal ARN
+     */
+    public PermissionChanges getIamPrincipalPermissions() {
+        return iamPrincipalPermissions;
+    }
+
+    /**
+     * @return Whether the safe deposit box is already in the desired state, i.e. an update would be a no-op
+     */
+    public boolean isEmpty() {
+        return !ownerChanged && !descriptionChanged && userGroupPermissions.isEmpty() && iamPrincipalPermissions.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "SafeDepositBoxDiff{ownerChanged=" + ownerChanged
+                + ", descriptionChanged=" + descriptionChanged
+                + ", userGroupPermissions={" + userGroupPermissions
+                + "}, iamPrincipalPermissions={" + iamPrincipalPermissions + "}}";
+    }
+
+    private static <P> Map<String, String> toMap(final List<P> permissions,
+                                                 final Function<P, String> grantee,
+                                                 final Function<P, String> roleId) {
+        if (permissions == null || permissions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Map<String, String> map = new HashMap<>(permissions.size() * 2);
+        for (P permission : permissions) {
+            map.put(grantee.apply(permission), roleId.apply(permission));
+        }
+        return map;
+    }
+}
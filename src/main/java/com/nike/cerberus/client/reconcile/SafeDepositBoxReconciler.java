@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.reconcile;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.cache.SafeDepositBoxIndex;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Brings safe deposit boxes into a desired state, sending an update only if the current state differs.
+ * <p>
+ * Safe deposit boxes are matched by name through the client's safe deposit box index. A box that does not exist
+ * is created; one that exists is read and compared with {@link SafeDepositBoxDiff}, and updated only if the diff
+ * is not empty. Reconciling boxes that are already in the desired state therefore costs one read each.
+ * </p>
+ */
+public class SafeDepositBoxReconciler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SafeDepositBoxReconciler.class);
+
+    private final CerberusClient cerberusClient;
+
+    private final BulkExecutor bulkExecutor;
+
+    /**
+     * @param cerberusClient Client to reconcile with
+     * @param bulkExecutor   Executor that limits how many safe deposit boxes are processed concurrently and per second
+     */
+    public SafeDepositBoxReconciler(final CerberusClient cerberusClient, final BulkExecutor bulkExecutor) {
+        if (cerberusClient == null) {
+            throw new IllegalArgumentException("Cerberus client cannot be null.");
+        }
+
+        if (bulkExecutor == null) {
+            throw new IllegalArgumentException("Bulk executor cannot be null.");
+        }
+
+        this.cerberusClient = cerberusClient;
+        this.bulkExecutor = bulkExecutor;
+    }
+
+    /**
+     * Reconciles one safe deposit box.
+     *
+     * @param desired Desired state of the safe deposit box
+     * @return What was done
+     */
+    public ReconciliationResult reconcile(final CerberusSafeDepositBoxRequest desired) {
+        if (desired == null) {
+            throw new IllegalArgumentException("Desired safe deposit box cannot be null.");
+        }
+
+        return reconcile(desired, cerberusClient.getSafeDepositBoxIdByName(desired.getName()));
+    }
+
+    private ReconciliationResult reconcile(final CerberusSafeDepositBoxRequest desired, final String id) {
+        if (id == null) {
+            return new ReconciliationResult(ReconciliationResult.Action.CREATED, null,
+                    cerberusClient.createSafeDepositBox(desired));
+        }
+
+        final CerberusSafeDepositBoxResponse current = cerberusClient.getSafeDepositBoxById(id);
+        final SafeDepositBoxDiff diff = SafeDepositBoxDiff.between(current, desired);
+        if (diff.isEmpty()) {
+            return new ReconciliationResult(ReconciliationResult.Action.UNCHANGED, diff, current);
+        }
+
+        LOGGER.debug("Updating safe deposit box {}: {}", desired.getName(), diff);
+        return new ReconciliationResult(ReconciliationResult.Action.UPDATED, diff,
+                cerberusClient.updateSafeDepositBox(id, desired));
+    }
+
+    /**
+     * Reconciles each safe deposit box concurrently and waits until all are done. The safe deposit box index is
+     * re-loaded once up front, and names it does not know are created.
+     *
+     * @param desired Desired states of the safe deposit boxes
+     * @return One result per safe deposit box, in the order of the desired states
+     */
+    public List<BulkResult<CerberusSafeDepositBoxRequest, ReconciliationResult>> reconcileAll(
+            final Collection<CerberusSafeDepositBoxRequest> desired) {
+
+        if (desired == null) {
+            throw new IllegalArgumentException("Desired safe deposit boxes cannot be null.");
+        }
+
+        final SafeDepositBoxIndex index = cerberusClient.refreshSafeDepositBoxIndex();
+        return bulkExecutor.execute(desired, sdb -> reconcile(sdb, index.getIdByName(sdb.getName())));
+    }
+}
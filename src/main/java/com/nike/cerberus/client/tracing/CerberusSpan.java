@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.tracing;
+
+/**
+ * A span started by a {@link CerberusTracer}. All methods do nothing by default.
+ */
+public interface CerberusSpan {
+
+    /**
+     * The {@link com.nike.cerberus.client.metrics.CerberusOperation} name, e.g. "READ".
+     */
+    String TAG_OPERATION = "cerberus.operation";
+
+    /**
+     * The request path with secret paths and IDs replaced by placeholders.
+     */
+    String TAG_PATH = "cerberus.path";
+
+    /**
+     * Whether the operation was answered from the client's secret cache.
+     */
+    String TAG_CACHE_HIT = "cerberus.cache_hit";
+
+    /**
+     * The attempt number of an HTTP call, starting at 1.
+     */
+    String TAG_ATTEMPT = "cerberus.attempt";
+
+    /**
+     * The credentials provider that refreshed its token.
+     */
+    String TAG_PROVIDER = "cerberus.provider";
+
+    /**
+     * The HTTP method of the call, e.g. "GET".
+     */
+    String TAG_HTTP_METHOD = "http.method";
+
+    /**
+     * The HTTP status code of the response.
+     */
+    String TAG_HTTP_STATUS_CODE = "http.status_code";
+
+    /**
+     * Span that records nothing.
+     */
+    CerberusSpan NOOP = new CerberusSpan() {
+    };
+
+    /**
+     * Adds a tag to the span.
+     *
+     * @param key   Tag name, e.g. {@link #TAG_OPERATION}
+     * @param value Tag value
+     */
+    default void setTag(String key, String value) {
+    }
+
+    /**
+     * Marks the span as failed.
+     *
+     * @param error The failure
+     */
+    default void setError(Throwable error) {
+    }
+
+    /**
+     * Ends the span. Called exactly once.
+     */
+    default void end() {
+    }
+
+    /**
+     * Returns the W3C trace context of this span, sent as the <code>traceparent</code> header of HTTP calls made
+     * within it. {@link TraceParent#format} builds the value from trace and span IDs.
+     *
+     * @return The header value, or null to send none
+     */
+    default String getTraceparent() {
+        return null;
+    }
+}
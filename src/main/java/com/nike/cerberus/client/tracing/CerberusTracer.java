@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.tracing;
+
+/**
+ * Creates spans for the work the client does, so that calls to Cerberus show up in an application's distributed
+ * traces. The client opens a span per logical operation, e.g. a {@link com.nike.cerberus.client.CerberusClient#read}
+ * including its retries, a child span per HTTP attempt, and a span per token refresh by an AWS credentials provider.
+ * The {@link CerberusSpan#getTraceparent() traceparent} of each attempt span is sent to Cerberus with the request.
+ * <p>
+ * Implementations bridge to a tracing library, e.g. OpenTelemetry:
+ * </p>
+ * <pre>
+ * public CerberusSpan startSpan(String name, CerberusSpan parent) {
+ *     Context context = parent == null ? Context.current() : ((OtelSpan) parent).context;
+ *     Span span = tracer.spanBuilder(name).setParent(context).setSpanKind(SpanKind.CLIENT).startSpan();
+ *     return new OtelSpan(span, context.with(span));
+ * }
+ * </pre>
+ */
+@FunctionalInterface
+public interface CerberusTracer {
+
+    /**
+     * Tracer that creates {@link CerberusSpan#NOOP} spans.
+     */
+    CerberusTracer NOOP = (name, parent) -> CerberusSpan.NOOP;
+
+    /**
+     * Starts a span. Called on the thread doing the work.
+     *
+     * @param name   Name of the span, e.g. "cerberus.read" or "cerberus.read.attempt"
+     * @param parent The span of the enclosing operation, or null to use whatever the tracer considers current
+     * @return The started span, never null
+     */
+    CerberusSpan startSpan(String name, CerberusSpan parent);
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.tracing;
+
+import java.util.regex.Pattern;
+
+/**
+ * Builds W3C Trace Context <code>traceparent</code> header values, see https://www.w3.org/TR/trace-context/.
+ */
+public final class TraceParent {
+
+    private static final Pattern TRACE_ID = Pattern.compile("[0-9a-f]{32}");
+
+    private static final Pattern SPAN_ID = Pattern.compile("[0-9a-f]{16}");
+
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private TraceParent() {
+    }
+
+    /**
+     * Formats a version 00 <code>traceparent</code> value.
+     *
+     * @param traceId 32 lower case hex characters, not all zero
+     * @param spanId  16 lower case hex characters, not all zero
+     * @param sampled Whether the trace is sampled
+     * @return The header value, e.g. <code>00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01</code>
+     */
+    public static String format(String traceId, String spanId, boolean sampled) {
+        if (traceId == null || !TRACE_ID.matcher(traceId).matches() || INVALID_TRACE_ID.equals(traceId)) {
+            throw new IllegalArgumentException("Trace ID must be 32 lower case hex characters and not all zero.");
+        }
+
+        if (spanId == null || !SPAN_ID.matcher(spanId).matches() || INVALID_SPAN_ID.equals(spanId)) {
+            throw new IllegalArgumentException("Span ID must be 16 lower case hex characters and not all zero.");
+        }
+
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+}
@@ -19,20 +19,31 @@ package com.nike.cerberus.client;
 import com.nike.cerberus.client.auth.CerberusCredentials;
 import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
 import com.nike.cerberus.client.auth.DefaultCerberusCredentialsProviderChain;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.cache.SecretCache;
+import com.nike.cerberus.client.json.JacksonCerberusJsonCodec;
+import com.nike.cerberus.client.metrics.CerberusMetrics;
+import com.nike.cerberus.client.metrics.CerberusOperation;
 import com.nike.cerberus.client.model.CerberusCategoryResponse;
 import com.nike.cerberus.client.model.CerberusListResponse;
 import com.nike.cerberus.client.model.CerberusResponse;
 import com.nike.cerberus.client.model.CerberusRolePermission;
 import com.nike.cerberus.client.model.CerberusRoleResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
 import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
 import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.tracing.CerberusSpan;
+import com.nike.cerberus.client.tracing.TraceParent;
 import okhttp3.Call;
 import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
+import okhttp3.Response;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
@@ -42,10 +53,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.ServerSocket;
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.nike.cerberus.client.CerberusClient.DEFAULT_NUM_RETRIES;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -110,6 +129,15 @@ public class CerberusClientTest {
                 null);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_throws_error_if_no_json_codec() {
+        new CerberusClient(cerberusUrl,
+                new DefaultCerberusCredentialsProviderChain(cerberusUrl, region),
+                new OkHttpClient.Builder().build(),
+                new Headers.Builder().build(),
+                null);
+    }
+
     @Test
     public void list_returns_map_of_keys_for_specified_path_if_exists() {
         final MockResponse response = new MockResponse();
@@ -205,6 +233,59 @@ public class CerberusClientTest {
         assertEquals("ce2519e2-249a-4adc-a1ce-43ae9a4f9198", categoryMap.get("shared"));
     }
 
+    @Test
+    public void category_and_role_registries_are_loaded_once() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("role")));
+
+        assertEquals("053de0f6-7588-44e3-bcf7-1a648d0bc8f2", cerberusClient.getCategoryIdByPath("app"));
+        assertEquals("ce2519e2-249a-4adc-a1ce-43ae9a4f9198", cerberusClient.getCategoryRegistry().getIdByPath("shared"));
+        assertEquals(2, cerberusClient.getCategoryRegistry().getCategories().size());
+        assertEquals("451b4c06-3fb5-46b4-ad1b-258349e239ce", cerberusClient.getRoleRegistry().getId(CerberusRolePermission.READ));
+        assertEquals("ee5c7dea-9c82-4974-b712-086afe589671", cerberusClient.getRoleRegistry().getId(CerberusRolePermission.OWNER));
+
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void category_and_role_maps_are_listed_fresh_and_can_be_modified() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("role")));
+
+        cerberusClient.getCategoryMap().put("custom", "id");
+        Map<String, String> categoryMap = cerberusClient.getCategoryMap();
+        cerberusClient.getRolePermissionMap().remove(CerberusRolePermission.READ);
+
+        assertThat(categoryMap).doesNotContainKey("custom");
+        assertEquals("451b4c06-3fb5-46b4-ad1b-258349e239ce", cerberusClient.getRoleRegistry().getId(CerberusRolePermission.READ));
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void refresh_category_registry_reloads_the_categories() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[]"));
+
+        assertEquals("053de0f6-7588-44e3-bcf7-1a648d0bc8f2", cerberusClient.getCategoryIdByPath("app"));
+        cerberusClient.refreshCategoryRegistry();
+        assertThat(cerberusClient.getCategoryIdByPath("app")).isNull();
+
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void zero_metadata_cache_ttl_loads_the_categories_every_time() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("category")));
+
+        cerberusClient.setMetadataCacheTtl(Duration.ZERO);
+        cerberusClient.getCategoryIdByPath("app");
+        cerberusClient.getCategoryIdByPath("app");
+
+        assertEquals(2, mockWebServer.getRequestCount());
+    }
+
     @Test
     public void list_safe_deposit_boxes() {
         final MockResponse response = new MockResponse();
@@ -271,6 +352,58 @@ public class CerberusClientTest {
         assertThat(sdb).isNotNull();
     }
 
+    @Test
+    public void get_safe_deposit_box_by_name_lists_safe_deposit_boxes_once() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list-safe-deposit-boxes")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("safe-deposit-box")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("safe-deposit-box")));
+
+        cerberusClient.getSafeDepositBoxByName("test sdb 1");
+        cerberusClient.getSafeDepositBoxByName("test sdb 1");
+
+        assertEquals(3, mockWebServer.getRequestCount());
+        assertEquals("9e3d853c-1144-4b2a-82a1-2987b5e6dea0", cerberusClient.getSafeDepositBoxIdByPath("shared/test-sdb-2/"));
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test(expected = CerberusClientException.class)
+    public void get_safe_deposit_box_by_name_throws_if_the_name_is_unknown() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list-safe-deposit-boxes")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list-safe-deposit-boxes")));
+
+        cerberusClient.getSafeDepositBoxByName("unknown");
+    }
+
+    @Test
+    public void get_safe_deposit_box_by_name_finds_safe_deposit_boxes_created_elsewhere() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[]"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list-safe-deposit-boxes")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("safe-deposit-box")));
+
+        assertThat(cerberusClient.getSafeDepositBoxIndex().getSafeDepositBoxes()).isEmpty();
+        CerberusSafeDepositBoxResponse sdb = cerberusClient.getSafeDepositBoxByName("test sdb 1");
+
+        assertThat(sdb).isNotNull();
+        assertEquals(3, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void safe_deposit_box_index_reflects_create_and_delete() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[]"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(201).setBody(getResponseJson("safe-deposit-box")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[]"));
+
+        assertThat(cerberusClient.getSafeDepositBoxIndex().getSafeDepositBoxes()).isEmpty();
+        cerberusClient.createSafeDepositBox(CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("test sdb 1").withOwner("owner group").withCategoryId("category id").build());
+        assertEquals("cca549f9-768e-4e0a-b57c-b15098ebcdd8", cerberusClient.getSafeDepositBoxIdByName("test sdb 1"));
+        cerberusClient.deleteSafeDepositBox("cca549f9-768e-4e0a-b57c-b15098ebcdd8");
+        assertThat(cerberusClient.getSafeDepositBoxIdByName("test sdb 1")).isNull();
+
+        assertEquals(4, mockWebServer.getRequestCount());
+    }
+
 
     @Test
     public void read_returns_map_of_data_for_specified_path_if_exists() {
@@ -286,6 +419,194 @@ public class CerberusClientTest {
         assertThat(cerberusResponse.getData().get("value")).isEqualToIgnoringCase("world");
     }
 
+    @Test
+    public void read_returns_map_of_data_with_the_jackson_codec() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        CerberusClient jacksonClient = CerberusClientFactory.getClient(cerberusUrl,
+                cerberusClient.getCredentialsProvider(),
+                new HashMap<>(),
+                new OkHttpClient.Builder().build(),
+                new JacksonCerberusJsonCodec());
+        CerberusResponse cerberusResponse = jacksonClient.read("app/api-key");
+
+        assertThat(jacksonClient.getJsonCodec()).isInstanceOf(JacksonCerberusJsonCodec.class);
+        assertThat(cerberusResponse.getData().get("value")).isEqualToIgnoringCase("world");
+    }
+
+    @Test
+    public void read_with_keys_returns_only_the_requested_keys() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody("{\"renewable\":false,\"data\":{\"cert\":\"-----BEGIN CERTIFICATE-----\",\"value\":\"world\",\"other\":\"x\"}}");
+        mockWebServer.enqueue(response);
+
+        CerberusResponse cerberusResponse = cerberusClient.read("app/api-key", new HashSet<>(Arrays.asList("value", "missing")));
+
+        assertThat(cerberusResponse.getData()).hasSize(1);
+        assertThat(cerberusResponse.getData().get("value")).isEqualTo("world");
+    }
+
+    @Test
+    public void read_binds_the_data_to_the_class() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody("{\"data\":{\"value\":\"world\",\"port\":\"8080\",\"other\":\"x\"}}");
+        mockWebServer.enqueue(response);
+
+        BoundSecret secret = cerberusClient.read("app/api-key", BoundSecret.class);
+
+        assertThat(secret.value).isEqualTo("world");
+        assertThat(secret.port).isEqualTo(8080);
+    }
+
+    @Test
+    public void read_value_returns_the_value_of_the_key() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        assertThat(cerberusClient.readValue("app/api-key", "value")).isEqualTo("world");
+    }
+
+    @Test
+    public void read_value_returns_null_if_the_key_does_not_exist() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        assertThat(cerberusClient.readValue("app/api-key", "missing")).isNull();
+    }
+
+    @Test(expected = CerberusServerApiException.class)
+    public void read_value_throws_server_exception_if_response_is_not_ok() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(404);
+        response.setBody(getResponseJson("error"));
+        mockWebServer.enqueue(response);
+
+        cerberusClient.readValue("app/api-key", "value");
+    }
+
+    @Test
+    public void read_keys_returns_the_key_names_only() {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(200);
+        response.setBody(getResponseJson("secret"));
+        mockWebServer.enqueue(response);
+
+        assertThat(cerberusClient.readKeys("app/api-key")).containsExactly("value");
+    }
+
+    @Test
+    public void metrics_record_requests_retries_and_cache_lookups() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        final List<String> recorded = new ArrayList<>();
+        cerberusClient.setMetrics(new CerberusMetrics() {
+            @Override
+            public void recordRequest(CerberusOperation operation, int statusCode, long durationNanos) {
+                recorded.add(operation + " " + statusCode);
+            }
+
+            @Override
+            public void recordRetry(CerberusOperation operation) {
+                recorded.add("retry " + operation);
+            }
+
+            @Override
+            public void recordCacheAccess(String cache, boolean hit) {
+                recorded.add(cache + " " + hit);
+            }
+        });
+        cerberusClient.setSecretCache(new SecretCache(Duration.ofMinutes(1), 10));
+
+        cerberusClient.read("app/api-key");
+        cerberusClient.read("app/api-key");
+
+        assertThat(recorded).containsExactly("secret false", "READ 500", "retry READ", "READ 200", "secret true");
+    }
+
+    @Test
+    public void tracer_spans_operations_and_attempts_and_propagates_traceparent() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        final List<String> spans = new ArrayList<>();
+        final AtomicInteger spanIds = new AtomicInteger();
+        cerberusClient.setTracer((name, parent) -> new CerberusSpan() {
+            private final String spanId = String.format("%016x", spanIds.incrementAndGet());
+
+            private final Map<String, String> tags = new LinkedHashMap<>();
+
+            @Override
+            public void setTag(String key, String value) {
+                tags.put(key, value);
+            }
+
+            @Override
+            public void end() {
+                spans.add(name + (parent == null ? "" : " (child)") + " " + tags);
+            }
+
+            @Override
+            public String getTraceparent() {
+                return TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", spanId, true);
+            }
+        });
+        cerberusClient.setSecretCache(new SecretCache(Duration.ofMinutes(1), 10));
+
+        cerberusClient.read("app/api-key");
+        cerberusClient.read("app/api-key");
+
+        assertThat(spans).containsExactly(
+                "cerberus.read.attempt (child) {cerberus.operation=READ, http.method=GET, cerberus.path=/v1/secret/{path}, cerberus.attempt=1, http.status_code=500}",
+                "cerberus.read.attempt (child) {cerberus.operation=READ, http.method=GET, cerberus.path=/v1/secret/{path}, cerberus.attempt=2, http.status_code=200}",
+                "cerberus.read {cerberus.operation=READ, cerberus.path=/v1/secret/{path}, cerberus.cache_hit=false, http.status_code=200}",
+                "cerberus.read {cerberus.operation=READ, cerberus.path=/v1/secret/{path}, cerberus.cache_hit=true}");
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000002-01",
+                mockWebServer.takeRequest().getHeader("traceparent"));
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-0000000000000003-01",
+                mockWebServer.takeRequest().getHeader("traceparent"));
+    }
+
+    @Test
+    public void retries_go_through_the_overridable_execute() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        final AtomicInteger executions = new AtomicInteger();
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn(new TestCerberusCredentials());
+        final CerberusClient client = new CerberusClient(cerberusUrl, credentialsProvider, new OkHttpClient()) {
+            @Override
+            protected Response execute(HttpUrl httpUrl, String method, Object requestBody) {
+                executions.incrementAndGet();
+                return execute(buildRequest(httpUrl, method, requestBody).newBuilder()
+                        .header("X-Injected", "true")
+                        .build());
+            }
+        };
+        final List<String> spans = new ArrayList<>();
+        client.setTracer((name, parent) -> new CerberusSpan() {
+            @Override
+            public void end() {
+                spans.add(name + (parent == null ? "" : " (child)"));
+            }
+        });
+
+        client.read("app/api-key");
+
+        assertEquals(2, executions.get());
+        assertEquals("true", mockWebServer.takeRequest().getHeader("X-Injected"));
+        assertEquals("true", mockWebServer.takeRequest().getHeader("X-Injected"));
+        assertThat(spans).containsExactly("cerberus.read.attempt (child)", "cerberus.read.attempt (child)",
+                "cerberus.read");
+    }
+
     @Test
     public void read_does_not_retry_on_200() {
         mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
@@ -379,6 +700,199 @@ public class CerberusClientTest {
         cerberusClient.write("app/api-key", data);
     }
 
+    @Test
+    public void write_streams_the_data_as_json() throws InterruptedException {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(204);
+        mockWebServer.enqueue(response);
+
+        Map<String, String> data = new HashMap<>();
+        data.put("key", "<value & more>");
+        cerberusClient.write("app/api-key", data);
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertEquals("POST", request.getMethod());
+        assertEquals("/v1/secret/app/api-key", request.getPath());
+        assertEquals("{\"key\":\"<value & more>\"}", request.getBody().readUtf8());
+        assertThat(request.getHeader("Content-Type")).startsWith("application/json");
+    }
+
+    @Test
+    public void write_all_reports_each_path_and_stops_on_the_first_failure() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(403).setBody(getResponseJson("error")));
+
+        Map<String, Map<String, String>> data = new LinkedHashMap<>();
+        data.put("app/first", Collections.singletonMap("key", "value"));
+        data.put("app/not-allowed", Collections.singletonMap("key", "value"));
+        data.put("app/skipped", Collections.singletonMap("key", "value"));
+        List<BulkResult<String, Void>> results;
+        try (BulkExecutor bulkExecutor = new BulkExecutor(1, 100)) {
+            results = cerberusClient.writeAll(data, bulkExecutor, true);
+        }
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).isSuccessful()).isTrue();
+        assertThat(results.get(1).getItem()).isEqualTo("app/not-allowed");
+        assertThat(((CerberusServerApiException) results.get(1).getError()).getCode()).isEqualTo(403);
+        assertThat(results.get(2).getError()).isInstanceOf(CancellationException.class);
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void write_if_changed_skips_unchanged_data() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+
+        boolean written = cerberusClient.writeIfChanged("app/api-key", Collections.singletonMap("value", "world"));
+
+        assertThat(written).isFalse();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void write_if_changed_writes_changed_or_missing_data() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody(getResponseJson("error")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        assertThat(cerberusClient.writeIfChanged("app/api-key", Collections.singletonMap("value", "new"))).isTrue();
+        assertThat(cerberusClient.writeIfChanged("app/missing", Collections.singletonMap("value", "new"))).isTrue();
+
+        mockWebServer.takeRequest();
+        assertEquals("POST", mockWebServer.takeRequest().getMethod());
+        mockWebServer.takeRequest();
+        assertEquals("POST", mockWebServer.takeRequest().getMethod());
+    }
+
+    @Test
+    public void write_if_changed_uses_the_fingerprint_cache() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        cerberusClient.setFingerprintCacheEnabled(true);
+
+        cerberusClient.write("app/api-key", Collections.singletonMap("value", "world"));
+        boolean written = cerberusClient.writeIfChanged("app/api-key", Collections.singletonMap("value", "world"));
+
+        assertThat(written).isFalse();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void write_rejects_null_data_before_writing() {
+        cerberusClient.setFingerprintCacheEnabled(true);
+
+        cerberusClient.write("app/api-key", null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void write_file_rejects_null_contents_before_writing() {
+        cerberusClient.setFingerprintCacheEnabled(true);
+
+        cerberusClient.writeFile("app/sdb/cert.pem", null);
+    }
+
+    @Test
+    public void write_file_if_changed_compares_size_before_downloading() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Length", "4"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        boolean written = cerberusClient.writeFileIfChanged("app/sdb/cert.pem", "longer".getBytes());
+
+        assertThat(written).isTrue();
+        assertEquals("HEAD", mockWebServer.takeRequest().getMethod());
+        assertEquals("POST", mockWebServer.takeRequest().getMethod());
+    }
+
+    @Test
+    public void write_file_if_changed_skips_unchanged_contents() {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setHeader("Content-Length", "4"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("cert"));
+
+        boolean written = cerberusClient.writeFileIfChanged("app/sdb/cert.pem", "cert".getBytes());
+
+        assertThat(written).isFalse();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void secret_cache_serves_reads_and_reflects_own_writes_and_deletes() {
+        cerberusClient.setSecretCache(new SecretCache(Duration.ofMinutes(5), 100));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404).setBody(getResponseJson("error")));
+
+        assertThat(cerberusClient.read("app/api-key").getData()).containsEntry("value", "world");
+        assertThat(cerberusClient.read("app/api-key").getData()).containsEntry("value", "world");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+
+        cerberusClient.write("app/api-key", Collections.singletonMap("value", "new"));
+        assertThat(cerberusClient.read("app/api-key").getData()).containsEntry("value", "new");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(2);
+
+        cerberusClient.delete("app/api-key");
+        try {
+            cerberusClient.read("app/api-key");
+            throw new AssertionError("Expected the deleted secret to be read from Cerberus");
+        } catch (CerberusServerApiException e) {
+            assertThat(e.getCode()).isEqualTo(404);
+        }
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void write_if_changed_compares_against_cerberus_not_the_secret_cache() {
+        cerberusClient.setSecretCache(new SecretCache(Duration.ofMinutes(5), 100));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("secret")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{\"value\":\"changed\"}}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        cerberusClient.read("app/api-key");
+        boolean written = cerberusClient.writeIfChanged("app/api-key", Collections.singletonMap("value", "world"));
+
+        assertThat(written).isTrue();
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+        assertThat(cerberusClient.read("app/api-key").getData()).containsEntry("value", "world");
+    }
+
+    @Test
+    public void secret_cache_drops_the_parent_listing_on_write() {
+        cerberusClient.setSecretCache(new SecretCache(Duration.ofMinutes(5), 100));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list")));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(getResponseJson("list")));
+
+        cerberusClient.list("app/demo");
+        cerberusClient.list("app/demo/");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(1);
+
+        cerberusClient.write("app/demo/bar", Collections.singletonMap("value", "new"));
+        cerberusClient.list("app/demo");
+        assertThat(mockWebServer.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void create_safe_deposit_box_sends_the_request_as_json_with_a_content_length() throws InterruptedException {
+        final MockResponse response = new MockResponse();
+        response.setResponseCode(201);
+        response.setBody(getResponseJson("safe-deposit-box"));
+        mockWebServer.enqueue(response);
+
+        cerberusClient.createSafeDepositBox(CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("test sdb 1")
+                .withOwner("owner group")
+                .withCategoryId("c7e98da8-6d81-4a7d-a318-f26c14d990e1")
+                .withUserGroupPermission("read group", "152db5e5-68bf-4d5f-a08b-6ca4faaa393e")
+                .build());
+
+        RecordedRequest request = mockWebServer.takeRequest();
+        assertEquals("{\"name\":\"test sdb 1\",\"category_id\":\"c7e98da8-6d81-4a7d-a318-f26c14d990e1\","
+                + "\"owner\":\"owner group\",\"user_group_permissions\":[{\"name\":\"read group\","
+                + "\"role_id\":\"152db5e5-68bf-4d5f-a08b-6ca4faaa393e\"}]}", request.getBody().readUtf8());
+        assertEquals(String.valueOf(request.getBodySize()), request.getHeader("Content-Length"));
+        assertThat(request.getHeader("Transfer-Encoding")).isNull();
+    }
+
     @Test
     public void write_throws_cerberus_server_exception_if_response_is_not_204() {
         final MockResponse response = new MockResponse();
@@ -490,6 +1004,11 @@ public class CerberusClientTest {
                 .build();
     }
 
+    static class BoundSecret {
+        String value;
+        int port;
+    }
+
     private String getResponseJson(final String title) {
         InputStream inputStream = getClass().getResourceAsStream(
                 String.format("/com/nike/cerberus/client/%s.json", title));
@@ -0,0 +1,611 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.nike.cerberus.client.http.HttpHeader;
+import com.nike.cerberus.client.http.HttpStatus;
+import com.nike.cerberus.client.json.DateTimeTypeAdapter;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.MultipartReader;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stateful, in-memory stand-in for Cerberus, for tests and benchmarks that make many related calls, e.g. walking a
+ * tree of secrets, paging through files, creating and updating safe deposit boxes or re-authenticating when tokens
+ * expire, without enqueueing a canned response for each one.
+ * <p>
+ * Implements <code>v1/secret</code> (read, list, write, delete), <code>v1/secure-file</code> (read, HEAD, multipart
+ * write, delete), <code>v1/secure-files</code> (paginated listing), <code>v2/safe-deposit-box</code> (list, get,
+ * create, update, delete), <code>v1/role</code>, <code>v1/category</code> and <code>v2/auth/sts-identity</code>.
+ * Secrets and files can be written at any path; they do not need a safe deposit box. Deleting a safe deposit box
+ * deletes the secrets and files under its path. Any token is accepted unless {@link #setRequireIssuedTokens(boolean)}
+ * is set, in which case only unexpired tokens issued by <code>v2/auth/sts-identity</code> are.
+ * </p>
+ * <p>
+ * Responses are sent over sockets with Nagle's algorithm disabled, so a call costs well under a millisecond.
+ * </p>
+ */
+public class FakeCerberusServer extends Dispatcher implements Closeable {
+
+    public static final String APP_CATEGORY_ID = "053de0f6-7588-44e3-bcf7-1a648d0bc8f2";
+
+    public static final String SHARED_CATEGORY_ID = "ce2519e2-249a-4adc-a1ce-43ae9a4f9198";
+
+    public static final String OWNER_ROLE_ID = "ee5c7dea-9c82-4974-b712-086afe589671";
+
+    public static final String WRITE_ROLE_ID = "753142b9-a07c-47d4-ad3d-f5af0c2e398d";
+
+    public static final String READ_ROLE_ID = "451b4c06-3fb5-46b4-ad1b-258349e239ce";
+
+    private static final String SECRET_PREFIX = "/v1/secret/";
+
+    private static final String SECURE_FILE_PREFIX = "/v1/secure-file/";
+
+    private static final String SECURE_FILES_PREFIX = "/v1/secure-files/";
+
+    private static final String SAFE_DEPOSIT_BOX_PATH = "/v2/safe-deposit-box";
+
+    private static final String ROLE_PATH = "/v1/role";
+
+    private static final String CATEGORY_PATH = "/v1/category";
+
+    private static final String STS_AUTH_PATH = "/v2/auth/sts-identity";
+
+    private static final String CREATED_BY = "fake-cerberus";
+
+    private static final int DEFAULT_FILE_LIMIT = 100;
+
+    private final Gson gson = new GsonBuilder().serializeNulls().create();
+
+    private final MockWebServer server = new MockWebServer();
+
+    private final NavigableMap<String, Map<String, String>> secrets = new ConcurrentSkipListMap<>();
+
+    private final NavigableMap<String, StoredFile> files = new ConcurrentSkipListMap<>();
+
+    private final Map<String, JsonObject> safeDepositBoxes = new ConcurrentHashMap<>();
+
+    private final Map<String, Long> tokenExpirations = new ConcurrentHashMap<>();
+
+    private final Map<String, String> categoryPaths = new LinkedHashMap<>();
+
+    private final AtomicInteger authentications = new AtomicInteger();
+
+    private final AtomicInteger rejectedRequests = new AtomicInteger();
+
+    private volatile Duration tokenLeaseDuration = Duration.ofHours(1);
+
+    private volatile boolean requireIssuedTokens;
+
+    public FakeCerberusServer() {
+        categoryPaths.put(APP_CATEGORY_ID, "app");
+        categoryPaths.put(SHARED_CATEGORY_ID, "shared");
+        server.setServerSocketFactory(new NoDelayServerSocketFactory());
+        server.setDispatcher(this);
+    }
+
+    /**
+     * Starts the server on a free local port.
+     */
+    public void start() throws IOException {
+        server.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    /**
+     * @return Base URL of the server without a trailing slash, to pass to the client and credentials providers
+     */
+    public String getUrl() {
+        final String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    /**
+     * @return The underlying server, e.g. to take recorded requests
+     */
+    public MockWebServer getMockWebServer() {
+        return server;
+    }
+
+    /**
+     * Sets the lease duration of tokens issued from now on. Note that AWS credentials providers treat tokens as
+     * expired 60 seconds before the end of the lease, so a lease of 61 seconds is refreshed after about one second.
+     */
+    public void setTokenLeaseDuration(Duration tokenLeaseDuration) {
+        if (tokenLeaseDuration == null) {
+            throw new IllegalArgumentException("Token lease duration cannot be null.");
+        }
+        this.tokenLeaseDuration = tokenLeaseDuration;
+    }
+
+    /**
+     * When set, requests other than authentication are rejected with a 401 unless their token was issued by this
+     * server and its lease has not ended.
+     */
+    public void setRequireIssuedTokens(boolean requireIssuedTokens) {
+        this.requireIssuedTokens = requireIssuedTokens;
+    }
+
+    /**
+     * @return Number of tokens issued by <code>v2/auth/sts-identity</code>
+     */
+    public int getAuthenticationCount() {
+        return authentications.get();
+    }
+
+    /**
+     * @return Number of requests rejected for a missing, unknown or expired token
+     */
+    public int getRejectedRequestCount() {
+        return rejectedRequests.get();
+    }
+
+    /**
+     * @return Number of requests received, including authentication
+     */
+    public int getRequestCount() {
+        return server.getRequestCount();
+    }
+
+    public void putSecret(String path, Map<String, String> data) {
+        secrets.put(normalize(path), new LinkedHashMap<>(data));
+    }
+
+    /**
+     * @return The secret stored at the path, or null
+     */
+    public Map<String, String> getSecret(String path) {
+        return secrets.get(normalize(path));
+    }
+
+    public void putFile(String path, byte[] contents) {
+        files.put(normalize(path), new StoredFile(contents.clone()));
+    }
+
+    /**
+     * @return Contents of the file stored at the path, or null
+     */
+    public byte[] getFile(String path) {
+        final StoredFile file = files.get(normalize(path));
+        return file == null ? null : file.contents.clone();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        final String path = request.getRequestUrl().encodedPath();
+        try {
+            if (path.equals(STS_AUTH_PATH) && "POST".equals(request.getMethod())) {
+                return authenticate();
+            }
+            if (requireIssuedTokens && !isValidToken(request.getHeader(HttpHeader.CERBERUS_TOKEN))) {
+                rejectedRequests.incrementAndGet();
+                return error(HttpStatus.UNAUTHORIZED, "Token is missing, unknown or expired");
+            }
+            if (path.startsWith(SECRET_PREFIX)) {
+                return secret(request, decode(request.getRequestUrl(), SECRET_PREFIX));
+            } else if (path.startsWith(SECURE_FILE_PREFIX)) {
+                return secureFile(request, decode(request.getRequestUrl(), SECURE_FILE_PREFIX));
+            } else if (path.startsWith(SECURE_FILES_PREFIX) && "GET".equals(request.getMethod())) {
+                return listFiles(request.getRequestUrl(), decode(request.getRequestUrl(), SECURE_FILES_PREFIX));
+            } else if (path.equals(SAFE_DEPOSIT_BOX_PATH) || path.startsWith(SAFE_DEPOSIT_BOX_PATH + "/")) {
+                return safeDepositBox(request, normalize(path.substring(SAFE_DEPOSIT_BOX_PATH.length())));
+            } else if (path.equals(ROLE_PATH) && "GET".equals(request.getMethod())) {
+                return json(HttpStatus.OK, roles());
+            } else if (path.equals(CATEGORY_PATH) && "GET".equals(request.getMethod())) {
+                return json(HttpStatus.OK, categories());
+            }
+            return error(HttpStatus.NOT_FOUND, "No route for " + request.getMethod() + " " + path);
+        } catch (RuntimeException | IOException e) {
+            return error(HttpStatus.BAD_REQUEST, e.toString());
+        }
+    }
+
+    private MockResponse authenticate() {
+        final String token = UUID.randomUUID().toString();
+        final Duration lease = tokenLeaseDuration;
+        tokenExpirations.put(token, System.currentTimeMillis() + lease.toMillis());
+        authentications.incrementAndGet();
+
+        final JsonObject body = new JsonObject();
+        body.addProperty("client_token", token);
+        body.add("policies", new JsonArray());
+        final JsonObject metadata = new JsonObject();
+        metadata.addProperty("aws_iam_principal_arn", "arn:aws:iam::1234567890:role/fake-cerberus");
+        body.add("metadata", metadata);
+        body.addProperty("lease_duration", lease.getSeconds());
+        body.addProperty("renewable", false);
+        return json(HttpStatus.OK, body);
+    }
+
+    private boolean isValidToken(String token) {
+        final Long expiresAt = token == null ? null : tokenExpirations.get(token);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+
+    private MockResponse secret(RecordedRequest request, String path) {
+        switch (request.getMethod()) {
+            case "GET":
+                if ("true".equals(request.getRequestUrl().queryParameter("list"))) {
+                    return listSecrets(path);
+                }
+                final Map<String, String> data = secrets.get(path);
+                if (data == null) {
+                    return error(HttpStatus.NOT_FOUND, "Secret not found");
+                }
+                return json(HttpStatus.OK, Collections.singletonMap("data", data));
+            case "POST":
+                final Map<String, String> written = gson.fromJson(request.getBody().readUtf8(),
+                        new TypeToken<Map<String, String>>(){}.getType());
+                secrets.put(path, written);
+                return new MockResponse().setResponseCode(HttpStatus.NO_CONTENT);
+            case "DELETE":
+                secrets.remove(path);
+                return new MockResponse().setResponseCode(HttpStatus.NO_CONTENT);
+            default:
+                return error(HttpStatus.BAD_REQUEST, "Unsupported method " + request.getMethod());
+        }
+    }
+
+    private MockResponse listSecrets(String path) {
+        final String prefix = path.isEmpty() ? "" : path + "/";
+        final TreeSet<String> keys = new TreeSet<>();
+        for (String key : secrets.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            final String relative = key.substring(prefix.length());
+            final int slash = relative.indexOf('/');
+            keys.add(slash < 0 ? relative : relative.substring(0, slash + 1));
+        }
+        if (keys.isEmpty()) {
+            return error(HttpStatus.NOT_FOUND, "No secrets under " + path);
+        }
+        return json(HttpStatus.OK, Collections.singletonMap("data", Collections.singletonMap("keys", keys)));
+    }
+
+    private MockResponse secureFile(RecordedRequest request, String path) throws IOException {
+        final StoredFile file = files.get(path);
+        switch (request.getMethod()) {
+            case "GET":
+                if (file == null) {
+                    return error(HttpStatus.NOT_FOUND, "File not found");
+                }
+                return new MockResponse()
+                        .setResponseCode(HttpStatus.OK)
+                        .setHeader(HttpHeader.CONTENT_TYPE, "application/octet-stream")
+                        .setBody(new Buffer().write(file.contents));
+            case "HEAD":
+                if (file == null) {
+                    return new MockResponse().setResponseCode(HttpStatus.NOT_FOUND);
+                }
+                return new MockResponse()
+                        .setResponseCode(HttpStatus.OK)
+                        .setHeader(HttpHeader.CONTENT_LENGTH, file.contents.length);
+            case "POST":
+                files.put(path, new StoredFile(readFileContent(request), file));
+                return new MockResponse().setResponseCode(HttpStatus.NO_CONTENT);
+            case "DELETE":
+                files.remove(path);
+                return new MockResponse().setResponseCode(HttpStatus.NO_CONTENT);
+            default:
+                return error(HttpStatus.BAD_REQUEST, "Unsupported method " + request.getMethod());
+        }
+    }
+
+    private static byte[] readFileContent(RecordedRequest request) throws IOException {
+        final MediaType contentType = MediaType.parse(request.getHeader(HttpHeader.CONTENT_TYPE));
+        final String boundary = contentType == null ? null : contentType.parameter("boundary");
+        if (boundary == null) {
+            throw new IOException("Expected a multipart body");
+        }
+
+        try (MultipartReader reader = new MultipartReader(request.getBody(), boundary)) {
+            MultipartReader.Part part;
+            while ((part = reader.nextPart()) != null) {
+                final String disposition = part.headers().get("Content-Disposition");
+                if (disposition != null && disposition.contains("name=\"file-content\"")) {
+                    return part.body().readByteArray();
+                }
+            }
+        }
+        throw new IOException("Multipart body has no file-content part");
+    }
+
+    private MockResponse listFiles(HttpUrl url, String path) {
+        final String prefix = path.isEmpty() ? "" : path + "/";
+        final int limit = intParameter(url, "limit", DEFAULT_FILE_LIMIT);
+        final int offset = intParameter(url, "offset", 0);
+        final List<Map.Entry<String, StoredFile>> matching =
+                new ArrayList<>(files.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet());
+        final int end = Math.min(matching.size(), offset + limit);
+
+        final JsonArray summaries = new JsonArray();
+        for (Map.Entry<String, StoredFile> entry : matching.subList(Math.min(offset, end), end)) {
+            final String filePath = entry.getKey();
+            final StoredFile file = entry.getValue();
+            final JsonObject summary = new JsonObject();
+            summary.addProperty("sdbox_id", safeDepositBoxIdOf(filePath));
+            summary.addProperty("path", filePath);
+            summary.addProperty("size_in_bytes", file.contents.length);
+            summary.addProperty("name", filePath.substring(filePath.lastIndexOf('/') + 1));
+            summary.addProperty("created_by", CREATED_BY);
+            summary.addProperty("created_ts", file.createdTs);
+            summary.addProperty("last_updated_by", CREATED_BY);
+            summary.addProperty("last_updated_ts", file.lastUpdatedTs);
+            summaries.add(summary);
+        }
+
+        final JsonObject body = new JsonObject();
+        body.addProperty("has_next", end < matching.size());
+        body.addProperty("next_offset", end < matching.size() ? end : null);
+        body.addProperty("limit", limit);
+        body.addProperty("offset", offset);
+        body.addProperty("file_count_in_result", summaries.size());
+        body.addProperty("total_file_count", matching.size());
+        body.add("secure_file_summaries", summaries);
+        return json(HttpStatus.OK, body);
+    }
+
+    private MockResponse safeDepositBox(RecordedRequest request, String id) {
+        final JsonObject existing = id.isEmpty() ? null : safeDepositBoxes.get(id);
+        switch (request.getMethod()) {
+            case "GET":
+                if (id.isEmpty()) {
+                    return json(HttpStatus.OK, safeDepositBoxSummaries());
+                }
+                return existing == null ? error(HttpStatus.NOT_FOUND, "Safe deposit box not found")
+                        : json(HttpStatus.OK, existing);
+            case "POST":
+                if (!id.isEmpty()) {
+                    return error(HttpStatus.BAD_REQUEST, "Unsupported method POST");
+                }
+                return createSafeDepositBox(new JsonParser().parse(request.getBody().readUtf8()).getAsJsonObject());
+            case "PUT":
+                if (existing == null) {
+                    return error(HttpStatus.NOT_FOUND, "Safe deposit box not found");
+                }
+                return updateSafeDepositBox(existing,
+                        new JsonParser().parse(request.getBody().readUtf8()).getAsJsonObject());
+            case "DELETE":
+                if (existing == null) {
+                    return error(HttpStatus.NOT_FOUND, "Safe deposit box not found");
+                }
+                safeDepositBoxes.remove(id);
+                final String sdbPath = existing.get("path").getAsString();
+                secrets.subMap(sdbPath, true, sdbPath + Character.MAX_VALUE, false).clear();
+                files.subMap(sdbPath, true, sdbPath + Character.MAX_VALUE, false).clear();
+                return new MockResponse().setResponseCode(HttpStatus.OK);
+            default:
+                return error(HttpStatus.BAD_REQUEST, "Unsupported method " + request.getMethod());
+        }
+    }
+
+    private synchronized MockResponse createSafeDepositBox(JsonObject request) {
+        final String name = stringOf(request, "name");
+        final String categoryPath = categoryPaths.get(stringOf(request, "category_id"));
+        if (name == null || categoryPath == null) {
+            return error(HttpStatus.BAD_REQUEST, "A name and a known category_id are required");
+        }
+        for (JsonObject sdb : safeDepositBoxes.values()) {
+            if (name.equalsIgnoreCase(sdb.get("name").getAsString())) {
+                return error(HttpStatus.BAD_REQUEST, "A safe deposit box named " + name + " already exists");
+            }
+        }
+
+        final String now = now();
+        final JsonObject sdb = new JsonObject();
+        sdb.addProperty("id", UUID.randomUUID().toString());
+        sdb.addProperty("category_id", stringOf(request, "category_id"));
+        sdb.addProperty("name", name);
+        sdb.addProperty("description", stringOf(request, "description"));
+        sdb.addProperty("path", categoryPath + "/" + name.toLowerCase().replaceAll("[^a-z0-9]+", "-") + "/");
+        sdb.addProperty("created_ts", now);
+        sdb.addProperty("created_by", CREATED_BY);
+        applyUpdate(sdb, request, now);
+        safeDepositBoxes.put(sdb.get("id").getAsString(), sdb);
+        return json(HttpStatus.CREATED, sdb);
+    }
+
+    private synchronized MockResponse updateSafeDepositBox(JsonObject sdb, JsonObject request) {
+        if (request.has("description")) {
+            sdb.addProperty("description", stringOf(request, "description"));
+        }
+        applyUpdate(sdb, request, now());
+        return json(HttpStatus.OK, sdb);
+    }
+
+    private static void applyUpdate(JsonObject sdb, JsonObject request, String now) {
+        sdb.addProperty("owner", stringOf(request, "owner"));
+        sdb.add("user_group_permissions", permissions(request.get("user_group_permissions"), now));
+        sdb.add("iam_principal_permissions", permissions(request.get("iam_principal_permissions"), now));
+        sdb.addProperty("last_updated_ts", now);
+        sdb.addProperty("last_updated_by", CREATED_BY);
+    }
+
+    private static JsonArray permissions(JsonElement requested, String now) {
+        final JsonArray permissions = new JsonArray();
+        if (requested == null || !requested.isJsonArray()) {
+            return permissions;
+        }
+        for (JsonElement element : requested.getAsJsonArray()) {
+            final JsonObject permission = new JsonObject();
+            permission.addProperty("id", UUID.randomUUID().toString());
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                permission.add(field.getKey(), field.getValue());
+            }
+            permission.addProperty("created_ts", now);
+            permission.addProperty("last_updated_ts", now);
+            permission.addProperty("created_by", CREATED_BY);
+            permission.addProperty("last_updated_by", CREATED_BY);
+            permissions.add(permission);
+        }
+        return permissions;
+    }
+
+    private JsonArray safeDepositBoxSummaries() {
+        final JsonArray summaries = new JsonArray();
+        for (JsonObject sdb : safeDepositBoxes.values()) {
+            final JsonObject summary = new JsonObject();
+            summary.add("id", sdb.get("id"));
+            summary.add("name", sdb.get("name"));
+            summary.add("path", sdb.get("path"));
+            summary.add("category_id", sdb.get("category_id"));
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private String safeDepositBoxIdOf(String path) {
+        for (JsonObject sdb : safeDepositBoxes.values()) {
+            if (path.startsWith(sdb.get("path").getAsString())) {
+                return sdb.get("id").getAsString();
+            }
+        }
+        return null;
+    }
+
+    private static JsonArray roles() {
+        final JsonArray roles = new JsonArray();
+        roles.add(named("id", OWNER_ROLE_ID, "name", "owner"));
+        roles.add(named("id", WRITE_ROLE_ID, "name", "write"));
+        roles.add(named("id", READ_ROLE_ID, "name", "read"));
+        return roles;
+    }
+
+    private JsonArray categories() {
+        final JsonArray categories = new JsonArray();
+        for (Map.Entry<String, String> category : categoryPaths.entrySet()) {
+            final String path = category.getValue();
+            final JsonObject json = named("id", category.getKey(),
+                    "display_name", Character.toUpperCase(path.charAt(0)) + path.substring(1));
+            json.addProperty("path", path);
+            categories.add(json);
+        }
+        return categories;
+    }
+
+    private static JsonObject named(String idField, String id, String nameField, String name) {
+        final JsonObject json = new JsonObject();
+        json.addProperty(idField, id);
+        json.addProperty(nameField, name);
+        json.addProperty("created_ts", "2017-12-20T22:00:54Z");
+        json.addProperty("last_updated_ts", "2017-12-20T22:00:54Z");
+        json.addProperty("created_by", "system");
+        json.addProperty("last_updated_by", "system");
+        return json;
+    }
+
+    private MockResponse json(int code, Object body) {
+        return new MockResponse()
+                .setResponseCode(code)
+                .setHeader(HttpHeader.CONTENT_TYPE, "application/json")
+                .setBody(gson.toJson(body));
+    }
+
+    private MockResponse error(int code, String message) {
+        final JsonObject error = new JsonObject();
+        error.addProperty("code", 99999);
+        error.addProperty("message", message);
+        final JsonArray errors = new JsonArray();
+        errors.add(error);
+        final JsonObject body = new JsonObject();
+        body.addProperty("error_id", UUID.randomUUID().toString());
+        body.add("errors", errors);
+        return json(code, body);
+    }
+
+    private static String decode(HttpUrl url, String prefix) {
+        final int prefixSegments = prefix.split("/").length - 1;
+        final List<String> segments = url.pathSegments();
+        return normalize(String.join("/", segments.subList(prefixSegments, segments.size())));
+    }
+
+    private static String normalize(String path) {
+        String normalized = path;
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    private static int intParameter(HttpUrl url, String name, int defaultValue) {
+        final String value = url.queryParameter(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    private static String stringOf(JsonObject json, String field) {
+        final JsonElement value = json.get(field);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static String now() {
+        return DateTimeTypeAdapter.print(DateTime.now(DateTimeZone.UTC));
+    }
+
+    private static class StoredFile {
+
+        private final byte[] contents;
+
+        private final String createdTs;
+
+        private final String lastUpdatedTs;
+
+        StoredFile(byte[] contents) {
+            this(contents, null);
+        }
+
+        StoredFile(byte[] contents, StoredFile previous) {
+            this.contents = contents;
+            this.lastUpdatedTs = now();
+            this.createdTs = previous == null ? lastUpdatedTs : previous.createdTs;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client;
+
+import com.amazonaws.auth.AWSCredentialsProviderChain;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.aws.StsCerberusCredentialsProvider;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.SecureFileSummary;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.nike.cerberus.client.model.CerberusRolePermission.OWNER;
+import static com.nike.cerberus.client.model.CerberusRolePermission.READ;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests multi-call flows of the CerberusClient against the FakeCerberusServer
+ */
+public class FakeCerberusServerTest {
+
+    private FakeCerberusServer fakeCerberus;
+
+    private CerberusClient cerberusClient;
+
+    @Before
+    public void setUp() throws IOException {
+        fakeCerberus = new FakeCerberusServer();
+        fakeCerberus.start();
+        cerberusClient = CerberusClientFactory.getClient(fakeCerberus.getUrl(),
+                () -> (CerberusCredentials) () -> "TOKEN", new HashMap<>());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fakeCerberus.close();
+    }
+
+    @Test
+    public void safe_deposit_box_can_be_created_updated_and_deleted() {
+        CerberusSafeDepositBoxResponse created = cerberusClient.createSafeDepositBox(
+                CerberusSafeDepositBoxRequest.newBuilder()
+                        .withName("Test SDB")
+                        .withOwner("owner group")
+                        .withCategoryId(cerberusClient.getCategoryIdByPath("app"))
+                        .withRolePermissionMap(cerberusClient.getRolePermissionMap())
+                        .withUserGroupPermission("read group", READ)
+                        .build());
+
+        assertEquals("app/test-sdb/", created.getPath());
+        assertEquals(created.getId(), cerberusClient.getSafeDepositBoxIdByPath("app/test-sdb/"));
+
+        cerberusClient.write("app/test-sdb/config", Collections.singletonMap("key", "value"));
+        cerberusClient.updateSafeDepositBox(created.getId(), CerberusSafeDepositBoxRequest.newBuilder()
+                .withCerberusSafeDepositBoxResponse(created)
+                .withRolePermissionMap(cerberusClient.getRolePermissionMap())
+                .withIamPrincipalPermission("arn:aws:iam::1234567890:role/app", OWNER)
+                .build());
+
+        CerberusSafeDepositBoxResponse updated = cerberusClient.getSafeDepositBoxById(created.getId());
+        assertThat(updated.getUserGroupPermissions()).hasSize(1);
+        assertThat(updated.getIamPrincipalPermissions()).hasSize(1);
+        assertEquals(FakeCerberusServer.OWNER_ROLE_ID, updated.getIamPrincipalPermissions().get(0).getRoleId());
+
+        cerberusClient.deleteSafeDepositBox(created.getId());
+        assertThat(cerberusClient.listSafeDepositBoxes()).isEmpty();
+        assertThat(fakeCerberus.getSecret("app/test-sdb/config")).isNull();
+    }
+
+    @Test
+    public void secrets_can_be_walked_as_a_tree() {
+        fakeCerberus.putSecret("app/sdb/db", Collections.singletonMap("password", "1"));
+        fakeCerberus.putSecret("app/sdb/api/stripe", Collections.singletonMap("key", "2"));
+        fakeCerberus.putSecret("app/sdb/api/github", Collections.singletonMap("key", "3"));
+
+        List<String> secrets = new ArrayList<>();
+        walk("app/sdb/", secrets);
+
+        assertThat(secrets).containsExactly("app/sdb/api/github=3", "app/sdb/api/stripe=2", "app/sdb/db=1");
+        assertThat(cerberusClient.list("app/other/").getKeys()).isEmpty();
+    }
+
+    @Test
+    public void files_are_written_and_listed_page_by_page() {
+        for (int i = 0; i < 5; i++) {
+            cerberusClient.writeFile("app/sdb/file-" + i + ".pem", new byte[i]);
+        }
+        fakeCerberus.putFile("app/sdb-2/other.pem", new byte[1]);
+
+        assertThat(cerberusClient.writeFileIfChanged("app/sdb/file-3.pem", new byte[3])).isFalse();
+        assertThat(cerberusClient.readFileAsBytes("app/sdb/file-4.pem")).hasSize(4);
+
+        List<String> paths = new ArrayList<>();
+        Integer offset = 0;
+        while (offset != null) {
+            CerberusListFilesResponse page = cerberusClient.listFiles("app/sdb/", 2, offset);
+            for (SecureFileSummary summary : page.getSecureFileSummaries()) {
+                paths.add(summary.getPath());
+            }
+            offset = page.isHasNext() ? page.getNextOffset() : null;
+        }
+        assertThat(paths).containsExactly("app/sdb/file-0.pem", "app/sdb/file-1.pem", "app/sdb/file-2.pem",
+                "app/sdb/file-3.pem", "app/sdb/file-4.pem");
+    }
+
+    @Test
+    public void sts_tokens_are_refreshed_when_their_lease_ends() {
+        fakeCerberus.setRequireIssuedTokens(true);
+        fakeCerberus.putSecret("app/sdb/db", Collections.singletonMap("password", "1"));
+        CerberusClient client = CerberusClientFactory.getClient(fakeCerberus.getUrl(),
+                new StsCerberusCredentialsProvider(fakeCerberus.getUrl(), "us-west-2",
+                        new AWSCredentialsProviderChain(new AWSStaticCredentialsProvider(
+                                new BasicSessionCredentials("access key", "secret key", "session token")))),
+                new HashMap<>());
+
+        // The provider treats a token as expired 60 seconds before the end of its lease
+        fakeCerberus.setTokenLeaseDuration(Duration.ofSeconds(60));
+        client.read("app/sdb/db");
+        client.read("app/sdb/db");
+        assertEquals(2, fakeCerberus.getAuthenticationCount());
+
+        fakeCerberus.setTokenLeaseDuration(Duration.ofHours(1));
+        client.read("app/sdb/db");
+        client.read("app/sdb/db");
+        assertEquals(3, fakeCerberus.getAuthenticationCount());
+        assertEquals(0, fakeCerberus.getRejectedRequestCount());
+    }
+
+    @Test
+    public void tokens_not_issued_by_the_server_are_rejected() {
+        fakeCerberus.setRequireIssuedTokens(true);
+
+        try {
+            cerberusClient.read("app/sdb/db");
+            fail("Expected an exception");
+        } catch (CerberusServerApiException e) {
+            assertEquals(401, e.getCode());
+        }
+        assertEquals(1, fakeCerberus.getRejectedRequestCount());
+    }
+
+    private void walk(String path, List<String> secrets) {
+        for (String key : cerberusClient.list(path).getKeys()) {
+            if (key.endsWith("/")) {
+                walk(path + key, secrets);
+            } else {
+                secrets.add(path + key + "=" + cerberusClient.read(path + key).getData().values().iterator().next());
+            }
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.auth.aws;
+
+import com.amazonaws.auth.AWSCredentialsProviderChain;
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicSessionCredentials;
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.FakeCerberusServer;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.auth.CerberusCredentialsProviderChain;
+import com.nike.cerberus.client.auth.TokenCerberusCredentials;
+import okhttp3.OkHttpClient;
+import org.apache.commons.lang3.StringUtils;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calls getCredentials() from many threads while tokens expire, checking that each expired token is replaced by
+ * exactly one authentication, that no caller gets a null token and that no caller is left blocked. Run longer with
+ * <code>./gradlew test --tests '*StressTest' -PstressDurationMillis=60000</code> when changing the locking.
+ */
+public class CredentialsProviderStressTest {
+
+    private static final int THREADS = 16;
+
+    private static final long DURATION_MILLIS = Long.getLong("cerberus.stress.durationMillis", 1000);
+
+    private static final long TOKEN_LIFETIME_MILLIS = 10;
+
+    @Test
+    public void each_expired_token_is_refreshed_by_exactly_one_authentication() throws InterruptedException {
+        final ExpiringTokenProvider provider = new ExpiringTokenProvider(TOKEN_LIFETIME_MILLIS, 0);
+
+        final StressResult result = hammer(provider, DURATION_MILLIS);
+
+        assertThat(result.failures).isEmpty();
+        assertThat(result.blankTokens.get()).isEqualTo(0);
+        assertThat(provider.prematureAuthentications.get()).isEqualTo(0);
+        assertThat(provider.authentications.get())
+                .isGreaterThan(1)
+                .isLessThanOrEqualTo((int) (1 + result.elapsedMillis / TOKEN_LIFETIME_MILLIS));
+    }
+
+    @Test
+    public void failed_authentications_are_retried_without_deadlocking() throws InterruptedException {
+        final ExpiringTokenProvider provider = new ExpiringTokenProvider(TOKEN_LIFETIME_MILLIS, 3);
+
+        final StressResult result = hammer(provider, DURATION_MILLIS);
+
+        assertThat(result.blankTokens.get()).isEqualTo(0);
+        assertThat(provider.prematureAuthentications.get()).isEqualTo(0);
+        for (Throwable failure : result.failures) {
+            assertThat(failure).isInstanceOf(CerberusClientException.class).hasMessage("Simulated failure");
+        }
+        provider.failEvery = 0;
+        assertThat(provider.getCredentials().getToken()).startsWith("token-");
+    }
+
+    @Test
+    public void provider_chain_reuses_the_provider_that_succeeded() throws InterruptedException {
+        final ExpiringTokenProvider provider = new ExpiringTokenProvider(TOKEN_LIFETIME_MILLIS, 0);
+        final AtomicInteger skippedProviderCalls = new AtomicInteger();
+        final CerberusCredentialsProviderChain chain = new CerberusCredentialsProviderChain(
+                () -> {
+                    skippedProviderCalls.incrementAndGet();
+                    throw new CerberusClientException("No credentials");
+                },
+                provider);
+
+        final StressResult result = hammer(chain, DURATION_MILLIS);
+
+        assertThat(result.failures).isEmpty();
+        assertThat(result.blankTokens.get()).isEqualTo(0);
+        assertThat(provider.prematureAuthentications.get()).isEqualTo(0);
+        // Only threads that raced the first call may have walked the chain
+        assertThat(skippedProviderCalls.get()).isLessThanOrEqualTo(THREADS);
+    }
+
+    @Test
+    public void sts_provider_authenticates_once_per_lease_against_the_fake_server() throws Exception {
+        try (FakeCerberusServer fakeCerberus = new FakeCerberusServer()) {
+            fakeCerberus.start();
+            fakeCerberus.setRequireIssuedTokens(true);
+            // Tokens are treated as expired 60 seconds before the end of their lease, so they last one second
+            fakeCerberus.setTokenLeaseDuration(Duration.ofSeconds(61));
+            fakeCerberus.putSecret("app/sdb/config", Collections.singletonMap("key", "value"));
+
+            final StsCerberusCredentialsProvider provider = new StsCerberusCredentialsProvider(fakeCerberus.getUrl(),
+                    "us-west-2", new AWSCredentialsProviderChain(new AWSStaticCredentialsProvider(
+                            new BasicSessionCredentials("access key", "secret key", "session token"))));
+            final CerberusClient client = CerberusClientFactory.getClient(fakeCerberus.getUrl(), provider,
+                    THREADS, THREADS, CerberusClientFactory.DEFAULT_TIMEOUT, CerberusClientFactory.DEFAULT_TIMEOUT,
+                    CerberusClientFactory.DEFAULT_TIMEOUT, new HashMap<>());
+
+            final long elapsedMillis = hammer(() -> {
+                client.read("app/sdb/config");
+                return provider.getCredentials();
+            }, Math.max(DURATION_MILLIS, 2500)).elapsedMillis;
+
+            assertThat(fakeCerberus.getRejectedRequestCount()).isEqualTo(0);
+            assertThat(fakeCerberus.getAuthenticationCount())
+                    .isGreaterThan(1)
+                    .isLessThanOrEqualTo((int) (1 + elapsedMillis / 1000));
+        }
+    }
+
+    private static StressResult hammer(CerberusCredentialsProvider provider, long durationMillis)
+            throws InterruptedException {
+        final StressResult result = new StressResult();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final long startedAt = System.currentTimeMillis();
+        final long deadline = startedAt + durationMillis;
+        for (int i = 0; i < THREADS; i++) {
+            executor.execute(() -> {
+                while (System.currentTimeMillis() < deadline) {
+                    try {
+                        final CerberusCredentials credentials = provider.getCredentials();
+                        if (credentials == null || StringUtils.isBlank(credentials.getToken())) {
+                            result.blankTokens.incrementAndGet();
+                        }
+                        result.calls.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        result.failures.add(e);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(durationMillis + 30_000, TimeUnit.MILLISECONDS))
+                .as("all threads finished").isTrue();
+        result.elapsedMillis = System.currentTimeMillis() - startedAt;
+        return result;
+    }
+
+    private static class StressResult {
+
+        private final AtomicLong calls = new AtomicLong();
+
+        private final AtomicInteger blankTokens = new AtomicInteger();
+
+        private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        private long elapsedMillis;
+    }
+
+    /**
+     * Issues tokens that expire after a fixed lifetime, taking a millisecond to authenticate so that callers queue
+     * up behind the write lock, and failing every nth authentication when failEvery is set.
+     */
+    private static class ExpiringTokenProvider extends BaseAwsCredentialsProvider {
+
+        private final AtomicInteger authentications = new AtomicInteger();
+
+        private final AtomicInteger prematureAuthentications = new AtomicInteger();
+
+        private final long lifetimeMillis;
+
+        private volatile int failEvery;
+
+        ExpiringTokenProvider(long lifetimeMillis, int failEvery) {
+            super("http://localhost", new OkHttpClient());
+            this.lifetimeMillis = lifetimeMillis;
+            this.failEvery = failEvery;
+        }
+
+        @Override
+        protected void authenticate() {
+            if (credentials != null && !expireDateTime.isBeforeNow()) {
+                prematureAuthentications.incrementAndGet();
+            }
+            final int attempt = authentications.incrementAndGet();
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failEvery > 0 && attempt % failEvery == 0) {
+                throw new CerberusClientException("Simulated failure");
+            }
+            credentials = new TokenCerberusCredentials("token-" + attempt);
+            expireDateTime = DateTime.now().plus(lifetimeMillis);
+        }
+    }
+}
@@ -20,7 +20,10 @@ import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSCredentialsProviderChain;
 import com.amazonaws.auth.BasicSessionCredentials;
 import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.metrics.CerberusMetrics;
 import com.nike.cerberus.client.model.CerberusAuthResponse;
+import com.nike.cerberus.client.tracing.CerberusSpan;
+import com.nike.cerberus.client.tracing.TraceParent;
 import com.tngtech.java.junit.dataprovider.DataProviderRunner;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
@@ -31,6 +34,8 @@ import org.junit.runner.RunWith;
 import com.tngtech.java.junit.dataprovider.DataProvider;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -109,6 +114,62 @@ public class StsCerberusCredentialsProviderTest {
         assertThat(StringUtils.isNotEmpty(token.getClientToken()));
     }
 
+    @Test
+    public void get_credentials_reports_authentication_metrics() throws IOException {
+
+        when(chain.getCredentials()).thenReturn(credentials);
+
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        final String cerberusUrl = "http://localhost:" + mockWebServer.getPort();
+        StsCerberusCredentialsProvider credentialsProvider = new StsCerberusCredentialsProvider(cerberusUrl, REGION_STRING_EAST, chain);
+        final List<Boolean> authentications = new ArrayList<>();
+        credentialsProvider.setMetrics(new CerberusMetrics() {
+            @Override
+            public void recordAuthentication(long durationNanos, boolean successful) {
+                authentications.add(successful);
+            }
+        });
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(
+                "{\"client_token\":\"token\",\"lease_duration\":3600,\"metadata\":{\"username\":\"user\"}}"));
+        credentialsProvider.getCredentials();
+        credentialsProvider.getCredentials();
+
+        assertThat(authentications).containsExactly(true);
+    }
+
+    @Test
+    public void get_credentials_traces_authentication_and_propagates_traceparent() throws Exception {
+
+        when(chain.getCredentials()).thenReturn(credentials);
+
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        final String cerberusUrl = "http://localhost:" + mockWebServer.getPort();
+        StsCerberusCredentialsProvider credentialsProvider = new StsCerberusCredentialsProvider(cerberusUrl, REGION_STRING_EAST, chain);
+        final List<String> spans = new ArrayList<>();
+        credentialsProvider.setTracer((name, parent) -> new CerberusSpan() {
+            @Override
+            public void end() {
+                spans.add(name + (parent == null ? "" : " (child)"));
+            }
+
+            @Override
+            public String getTraceparent() {
+                return TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", true);
+            }
+        });
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(
+                "{\"client_token\":\"token\",\"lease_duration\":3600,\"metadata\":{\"username\":\"user\"}}"));
+        credentialsProvider.getCredentials();
+
+        assertThat(spans).containsExactly("cerberus.authenticate.attempt (child)", "cerberus.authenticate");
+        assertThat(mockWebServer.takeRequest().getHeader("traceparent"))
+                .isEqualTo("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+    }
+
     //@Test(expected = CerberusClientException.class)
     public void get_token_throws_exception_timeout() throws IOException {
 
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bind;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the SecretBinder class
+ */
+public class SecretBinderTest {
+
+    @Test
+    public void binds_values_to_fields_of_supported_types() {
+        Map<String, String> data = new HashMap<>();
+        data.put("url", "https://example.com");
+        data.put("password", "hunter2");
+        data.put("port", " 8443 ");
+        data.put("maxConnections", "20");
+        data.put("ratio", "0.5");
+        data.put("enabled", "TRUE");
+        data.put("timeout", "30s");
+        data.put("ttl", "PT1M");
+        data.put("key", Base64.getEncoder().encodeToString("key".getBytes(StandardCharsets.UTF_8)));
+        data.put("unit", "SECONDS");
+        data.put("api-key", "abc");
+        data.put("not-bound", "ignored");
+
+        TestConfig config = SecretBinder.of(TestConfig.class).bind(data);
+
+        assertEquals("https://example.com", config.url);
+        assertArrayEquals("hunter2".toCharArray(), config.password);
+        assertEquals(8443, config.port);
+        assertEquals(Long.valueOf(20), config.maxConnections);
+        assertEquals(0.5, config.ratio, 0);
+        assertThat(config.enabled).isTrue();
+        assertEquals(Duration.ofSeconds(30), config.timeout);
+        assertEquals(Duration.ofMinutes(1), config.ttl);
+        assertArrayEquals("key".getBytes(StandardCharsets.UTF_8), config.key);
+        assertEquals(TimeUnit.SECONDS, config.unit);
+        assertEquals("abc", config.apiKey);
+        assertEquals("inherited", config.inherited);
+    }
+
+    @Test
+    public void missing_and_null_values_keep_defaults_of_primitive_fields() {
+        Map<String, String> data = new HashMap<>();
+        data.put("port", null);
+        data.put("url", null);
+
+        TestConfig config = SecretBinder.of(TestConfig.class).bind(data);
+
+        assertEquals(443, config.port);
+        assertNull(config.url);
+    }
+
+    @Test
+    public void binder_is_cached_per_class() {
+        assertSame(SecretBinder.of(TestConfig.class), SecretBinder.of(TestConfig.class));
+        assertThat(SecretBinder.of(TestConfig.class).getKeys()).contains("api-key", "inherited").doesNotContain("apiKey", "IGNORED");
+    }
+
+    @Test
+    public void conversion_errors_do_not_contain_the_value() {
+        try {
+            SecretBinder.of(TestConfig.class).bind(singleton("port", "s3cr3t"));
+            fail("expected exception");
+        } catch (SecretBindingException e) {
+            assertThat(e.getMessage()).contains("port").doesNotContain("s3cr3t");
+            assertNull(e.getCause());
+        }
+    }
+
+    @Test(expected = SecretBindingException.class)
+    public void invalid_booleans_are_rejected() {
+        SecretBinder.of(TestConfig.class).bind(singleton("enabled", "yes"));
+    }
+
+    @Test(expected = SecretBindingException.class)
+    public void unsupported_field_types_are_rejected() {
+        SecretBinder.of(UnsupportedConfig.class);
+    }
+
+    @Test(expected = SecretBindingException.class)
+    public void final_fields_are_rejected() {
+        SecretBinder.of(FinalConfig.class);
+    }
+
+    private static Map<String, String> singleton(String key, String value) {
+        Map<String, String> data = new HashMap<>();
+        data.put(key, value);
+        return data;
+    }
+
+    static class BaseConfig {
+        String inherited = "inherited";
+    }
+
+    static class TestConfig extends BaseConfig {
+        static final String IGNORED = "ignored";
+        String url;
+        char[] password;
+        int port = 443;
+        Long maxConnections;
+        double ratio;
+        boolean enabled;
+        Duration timeout;
+        Duration ttl;
+        byte[] key;
+        TimeUnit unit;
+        transient String cached;
+
+        @SecretKey("api-key")
+        String apiKey;
+
+        private TestConfig() {
+        }
+    }
+
+    static class UnsupportedConfig {
+        Object value;
+    }
+
+    static class FinalConfig {
+        final String value = "value";
+    }
+}
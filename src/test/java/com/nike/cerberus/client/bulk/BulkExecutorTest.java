@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the BulkExecutor class
+ */
+public class BulkExecutorTest {
+
+    private final BulkExecutor bulkExecutor = new BulkExecutor(4, 1000);
+
+    @After
+    public void teardown() {
+        bulkExecutor.close();
+    }
+
+    @Test
+    public void results_are_returned_in_item_order() {
+        List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        List<BulkResult<Integer, Integer>> results = bulkExecutor.execute(items, item -> item * 2);
+
+        assertEquals(50, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(Integer.valueOf(i), results.get(i).getItem());
+            assertEquals(Integer.valueOf(i * 2), results.get(i).getResult());
+            assertTrue(results.get(i).isSuccessful());
+        }
+    }
+
+    @Test
+    public void failures_are_reported_per_item() {
+        List<BulkResult<String, Integer>> results = bulkExecutor.execute(Arrays.asList("1", "x", "3"), Integer::valueOf);
+
+        assertTrue(results.get(0).isSuccessful());
+        assertFalse(results.get(1).isSuccessful());
+        assertNull(results.get(1).getResult());
+        assertThat(results.get(1).getError()).isInstanceOf(NumberFormatException.class);
+        assertEquals(Integer.valueOf(3), results.get(2).getResult());
+    }
+
+    @Test
+    public void remaining_items_are_skipped_after_the_first_failure() {
+        try (BulkExecutor sequentialExecutor = new BulkExecutor(1, 1000)) {
+            List<BulkResult<String, Integer>> results = sequentialExecutor.execute(
+                    Arrays.asList("1", "x", "3"), Integer::valueOf, true);
+
+            assertTrue(results.get(0).isSuccessful());
+            assertThat(results.get(1).getError()).isInstanceOf(NumberFormatException.class);
+            assertThat(results.get(2).getError()).isInstanceOf(CancellationException.class);
+        }
+    }
+
+    @Test
+    public void concurrency_is_limited() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Integer> items = IntStream.range(0, 40).boxed().collect(Collectors.toList());
+
+        bulkExecutor.execute(items, item -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            return running.decrementAndGet();
+        });
+
+        assertThat(maxRunning.get()).isLessThanOrEqualTo(4).isGreaterThan(1);
+    }
+
+    @Test
+    public void calls_are_rate_limited() {
+        try (BulkExecutor limited = new BulkExecutor(4, 10)) {
+            long start = System.nanoTime();
+            limited.execute(IntStream.range(0, 15).boxed().collect(Collectors.toList()), item -> item);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // the first 10 permits are available immediately, the rest once the limit refreshes a second later
+            assertThat(elapsedMillis).isGreaterThan(500);
+        }
+    }
+
+    @Test
+    public void close_fails_queued_items_instead_of_leaving_them_pending() throws Exception {
+        BulkExecutor closing = new BulkExecutor(1, 1000);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<List<BulkResult<Integer, Integer>>> results = new AtomicReference<>();
+        Thread caller = new Thread(() -> results.set(closing.execute(Arrays.asList(1, 2, 3), item -> {
+            started.countDown();
+            sleep(10_000);
+            return item;
+        })));
+        caller.start();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        closing.close();
+        caller.join(5_000);
+
+        assertFalse(caller.isAlive());
+        assertThat(results.get()).hasSize(3);
+        assertThat(results.get().get(1).getError()).isInstanceOf(CancellationException.class);
+        assertThat(results.get().get(2).getError()).isInstanceOf(CancellationException.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void concurrency_must_be_positive() {
+        new BulkExecutor(0, 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
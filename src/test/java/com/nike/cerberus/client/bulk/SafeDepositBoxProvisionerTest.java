@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the SafeDepositBoxProvisioner class
+ */
+public class SafeDepositBoxProvisionerTest {
+
+    private static final String APP_CATEGORY_ID = "053de0f6-7588-44e3-bcf7-1a648d0bc8f2";
+
+    private static final String OWNER_ROLE_ID = "ee5c7dea-9c82-4974-b712-086afe589671";
+
+    private MockWebServer mockWebServer;
+
+    private BulkExecutor bulkExecutor;
+
+    private SafeDepositBoxProvisioner provisioner;
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger listCalls = new AtomicInteger();
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requests.add(request.getMethod() + " " + request.getPath());
+                String path = request.getPath();
+                if (path.equals("/v1/category")) {
+                    return new MockResponse().setBody(getResponseJson("category"));
+                } else if (path.equals("/v1/role")) {
+                    return new MockResponse().setBody(getResponseJson("role"));
+                } else if (path.equals("/v2/safe-deposit-box/") && request.getMethod().equals("GET")) {
+                    listCalls.incrementAndGet();
+                    return new MockResponse().setBody(getResponseJson("list-safe-deposit-boxes"));
+                } else if (path.startsWith("/v2/safe-deposit-box/")) {
+                    return new MockResponse().setResponseCode(request.getMethod().equals("POST") ? 201 : 200)
+                            .setBody(getResponseJson("safe-deposit-box"));
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        mockWebServer.start();
+
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn((CerberusCredentials) () -> "TOKEN");
+        CerberusClient cerberusClient = CerberusClientFactory.getClient("http://localhost:" + mockWebServer.getPort(),
+                credentialsProvider);
+
+        bulkExecutor = new BulkExecutor(4, 100);
+        provisioner = new SafeDepositBoxProvisioner(cerberusClient, bulkExecutor);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        bulkExecutor.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void existing_safe_deposit_boxes_are_updated_and_new_ones_created() {
+        List<BulkResult<CerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse>> results = provisioner.provision(
+                Arrays.asList(request("test sdb 1"), request("new sdb 1"), request("new sdb 2")));
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(BulkResult::isSuccessful));
+        assertEquals(1, listCalls.get());
+        assertThat(requests).contains(
+                "PUT /v2/safe-deposit-box/cca549f9-768e-4e0a-b57c-b15098ebcdd8",
+                "POST /v2/safe-deposit-box/");
+        assertEquals(2, requests.stream().filter(request -> request.startsWith("POST")).count());
+        assertEquals(1, requests.stream().filter(request -> request.equals("GET /v1/category")).count());
+        assertEquals(1, requests.stream().filter(request -> request.equals("GET /v1/role")).count());
+    }
+
+    @Test
+    public void requests_with_unknown_ids_fail_without_a_call() {
+        CerberusSafeDepositBoxRequest unknownRole = CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("new sdb")
+                .withOwner("owner group")
+                .withCategoryId(APP_CATEGORY_ID)
+                .withUserGroupPermission("group", "not a role")
+                .build();
+        CerberusSafeDepositBoxRequest unknownCategory = CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("new sdb")
+                .withOwner("owner group")
+                .withCategoryId("not a category")
+                .build();
+
+        List<BulkResult<CerberusSafeDepositBoxRequest, CerberusSafeDepositBoxResponse>> results =
+                provisioner.provision(Arrays.asList(unknownRole, unknownCategory));
+
+        assertThat(results.get(0).getError()).isInstanceOf(CerberusClientException.class).hasMessageContaining("not a role");
+        assertThat(results.get(1).getError()).isInstanceOf(CerberusClientException.class).hasMessageContaining("not a category");
+        assertTrue(requests.stream().noneMatch(request -> request.startsWith("POST") || request.startsWith("PUT")));
+    }
+
+    private static CerberusSafeDepositBoxRequest request(String name) {
+        return CerberusSafeDepositBoxRequest.newBuilder()
+                .withName(name)
+                .withOwner("owner group")
+                .withCategoryId(APP_CATEGORY_ID)
+                .withIamPrincipalPermission("arn:aws:iam::1234567890:role/test-role", OWNER_ROLE_ID)
+                .build();
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.bulk;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.CerberusServerApiException;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the WriteCoalescingBuffer class
+ */
+public class WriteCoalescingBufferTest {
+
+    private MockWebServer mockWebServer;
+
+    private CerberusClient cerberusClient;
+
+    private final List<String> writes = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                if (request.getMethod().equals("POST")) {
+                    writes.add(path + " " + request.getBody().readUtf8());
+                    return path.endsWith("not-allowed")
+                            ? new MockResponse().setResponseCode(403).setBody("{\"error_id\":\"id\",\"errors\":[]}")
+                            : new MockResponse().setResponseCode(204);
+                } else if (path.equals("/v1/secret/app/existing")) {
+                    return new MockResponse().setBody("{\"data\":{\"kept\":\"value\",\"a\":\"old\"}}");
+                }
+                return new MockResponse().setResponseCode(404).setBody("{\"error_id\":\"id\",\"errors\":[]}");
+            }
+        });
+        mockWebServer.start();
+
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn((CerberusCredentials) () -> "TOKEN");
+        cerberusClient = CerberusClientFactory.getClient("http://localhost:" + mockWebServer.getPort(),
+                credentialsProvider);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void updates_within_the_window_are_merged_into_one_write() throws Exception {
+        try (WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient, Duration.ofMillis(200), 100)) {
+            CompletableFuture<Void> first = buffer.update("app/existing", "a", "1");
+            CompletableFuture<Void> second = buffer.update("app/existing", "b", "2");
+
+            second.get(5, TimeUnit.SECONDS);
+
+            assertTrue(first.isDone());
+            assertEquals(0, buffer.getPendingPaths());
+        }
+
+        assertThat(writes).containsExactly("/v1/secret/app/existing {\"kept\":\"value\",\"a\":\"1\",\"b\":\"2\"}");
+    }
+
+    @Test
+    public void paths_are_written_when_they_reach_the_size_threshold() throws Exception {
+        try (WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient, Duration.ofMinutes(1), 2)) {
+            buffer.update("app/new", "a", "1");
+            buffer.update("app/new", "b", "2").get(5, TimeUnit.SECONDS);
+        }
+
+        assertThat(writes).containsExactly("/v1/secret/app/new {\"a\":\"1\",\"b\":\"2\"}");
+    }
+
+    @Test
+    public void the_window_of_a_written_path_does_not_cut_a_later_window_short() throws Exception {
+        try (WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient, Duration.ofMillis(500), 2)) {
+            buffer.update("app/new", "a", "1");
+            buffer.update("app/new", "b", "2").get(5, TimeUnit.SECONDS);
+            Thread.sleep(200);
+            buffer.update("app/new", "c", "3");
+
+            Thread.sleep(350);
+
+            assertEquals(1, buffer.getPendingPaths());
+        }
+
+        assertThat(writes).containsExactly("/v1/secret/app/new {\"a\":\"1\",\"b\":\"2\"}",
+                "/v1/secret/app/new {\"c\":\"3\"}");
+    }
+
+    @Test
+    public void close_writes_pending_updates() {
+        CompletableFuture<Void> written;
+        try (WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient, Duration.ofMinutes(1), 100)) {
+            written = buffer.update("app/new", "a", "1");
+        }
+
+        assertTrue(written.isDone());
+        assertThat(writes).containsExactly("/v1/secret/app/new {\"a\":\"1\"}");
+    }
+
+    @Test
+    public void failed_writes_complete_the_future_exceptionally() throws Exception {
+        try (WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient, Duration.ofMinutes(1), 100)) {
+            CompletableFuture<Void> written = buffer.update("app/not-allowed", "a", "1");
+            buffer.flush().exceptionally(e -> null).get(5, TimeUnit.SECONDS);
+
+            written.get();
+            fail("expected the write to fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(CerberusServerApiException.class);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void updates_are_rejected_after_close() {
+        WriteCoalescingBuffer buffer = new WriteCoalescingBuffer(cerberusClient);
+        buffer.close();
+
+        buffer.update("app/new", "a", "1");
+    }
+}
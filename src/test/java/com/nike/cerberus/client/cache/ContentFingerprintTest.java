@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests the ContentFingerprint class
+ */
+public class ContentFingerprintTest {
+
+    @Test
+    public void fingerprint_does_not_depend_on_map_order() {
+        Map<String, String> first = new LinkedHashMap<>();
+        first.put("a", "1");
+        first.put("b", "2");
+        Map<String, String> second = new LinkedHashMap<>();
+        second.put("b", "2");
+        second.put("a", "1");
+
+        assertEquals(ContentFingerprint.of(first), ContentFingerprint.of(second));
+    }
+
+    @Test
+    public void keys_and_values_cannot_be_shifted_into_each_other() {
+        Map<String, String> first = new HashMap<>();
+        first.put("ab", "c");
+        Map<String, String> second = new HashMap<>();
+        second.put("a", "bc");
+
+        assertNotEquals(ContentFingerprint.of(first), ContentFingerprint.of(second));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void null_keys_are_rejected() {
+        Map<String, String> data = new HashMap<>();
+        data.put(null, "1");
+
+        ContentFingerprint.of(data);
+    }
+
+    @Test
+    public void file_fingerprint_is_the_hex_sha256() {
+        assertEquals("e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855",
+                ContentFingerprint.of(new byte[0]));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the RefreshingValue class
+ */
+public class RefreshingValueTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final RefreshingValue<Integer> value =
+            new RefreshingValue<>(loads::incrementAndGet, Duration.ofNanos(100), clock::get);
+
+    @Test
+    public void value_is_loaded_lazily_and_reused_until_it_expires() {
+        assertEquals(0, loads.get());
+        assertEquals(1, (int) value.get());
+        clock.set(99);
+        assertEquals(1, (int) value.get());
+        clock.set(100);
+        assertEquals(2, (int) value.get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void refresh_and_invalidate_load_the_value_again() {
+        assertEquals(1, (int) value.get());
+        assertEquals(2, (int) value.refresh());
+        assertEquals(2, (int) value.get());
+        value.invalidate();
+        assertEquals(3, (int) value.get());
+    }
+
+    @Test
+    public void update_changes_the_cached_value_without_loading() {
+        value.update(v -> v + 10);
+        assertEquals(1, (int) value.get());
+        value.update(v -> v + 10);
+        assertEquals(11, (int) value.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void zero_ttl_disables_caching() {
+        value.setTtl(Duration.ZERO);
+        value.get();
+        value.get();
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void load_racing_with_invalidate_is_not_cached() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch invalidated = new CountDownLatch(1);
+        AtomicInteger count = new AtomicInteger();
+        RefreshingValue<Integer> racing = new RefreshingValue<>(() -> {
+            if (count.incrementAndGet() == 1) {
+                loading.countDown();
+                await(invalidated);
+            }
+            return count.get();
+        }, Duration.ofHours(1));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> first = executor.submit(racing::get);
+            await(loading);
+            racing.invalidate();
+            invalidated.countDown();
+
+            assertEquals(1, (int) first.get(5, TimeUnit.SECONDS));
+            assertEquals(2, (int) racing.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrent_callers_share_one_load() throws Exception {
+        RefreshingValue<Integer> slow = new RefreshingValue<>(() -> {
+            sleep();
+            return loads.incrementAndGet();
+        }, Duration.ofHours(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < 8; i++) {
+                executor.submit(slow::get);
+            }
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negative_ttl_is_rejected() {
+        value.setTtl(Duration.ofSeconds(-1));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
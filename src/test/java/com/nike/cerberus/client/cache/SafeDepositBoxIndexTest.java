@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the SafeDepositBoxIndex class
+ */
+public class SafeDepositBoxIndexTest {
+
+    private final SafeDepositBoxIndex index = new SafeDepositBoxIndex(Arrays.asList(
+            sdb("id-1", "sdb 1", "app/sdb-1/"),
+            sdb("id-2", "sdb 2", "shared/sdb-2/"),
+            sdb("id-3", "sdb 1", "app/sdb-1-copy/")));
+
+    @Test
+    public void ids_are_looked_up_by_name_and_path() {
+        assertEquals("id-1", index.getIdByName("sdb 1"));
+        assertEquals("id-2", index.getIdByPath("shared/sdb-2/"));
+        assertEquals("id-2", index.getIdByPath("shared/sdb-2"));
+        assertNull(index.getIdByName("missing"));
+        assertNull(index.getIdByPath(null));
+        assertEquals("sdb 2", index.getById("id-2").getName());
+    }
+
+    @Test
+    public void with_safe_deposit_box_adds_or_replaces_by_id() {
+        SafeDepositBoxIndex updated = index
+                .withSafeDepositBox(sdb("id-4", "sdb 4", "app/sdb-4/"))
+                .withSafeDepositBox(sdb("id-2", "renamed", "shared/sdb-2/"));
+
+        assertEquals("id-4", updated.getIdByName("sdb 4"));
+        assertEquals("id-2", updated.getIdByName("renamed"));
+        assertNull(updated.getIdByName("sdb 2"));
+        assertNull(index.getIdByName("sdb 4"));
+        assertThat(updated.getSafeDepositBoxes()).hasSize(4);
+    }
+
+    @Test
+    public void without_safe_deposit_box_removes_by_id() {
+        SafeDepositBoxIndex updated = index.withoutSafeDepositBox("id-1");
+
+        assertEquals("id-3", updated.getIdByName("sdb 1"));
+        assertNull(updated.getIdByPath("app/sdb-1/"));
+        assertSame(updated, updated.withoutSafeDepositBox("missing"));
+    }
+
+    private static CerberusSafeDepositBoxSummaryResponse sdb(String id, String name, String path) {
+        return new CerberusSafeDepositBoxSummaryResponse().setId(id).setName(name).setPath(path);
+    }
+}
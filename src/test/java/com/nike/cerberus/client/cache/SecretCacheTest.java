@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.cache;
+
+import com.nike.cerberus.client.cache.SecretCache.EntryType;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the SecretCache class
+ */
+public class SecretCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final SecretCache cache = new SecretCache(Duration.ofSeconds(10), 100, clock::get);
+
+    @Test
+    public void entries_expire_after_the_ttl() {
+        cache.putSecret("app/sdb/a", Collections.singletonMap("k", "v"),
+                cache.getVersion(EntryType.SECRET, "app/sdb/a"));
+        assertEquals("v", cache.getSecret("app/sdb/a").get("k"));
+
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertNull(cache.getSecret("app/sdb/a"));
+    }
+
+    @Test
+    public void least_recently_used_entries_are_evicted() {
+        SecretCache small = new SecretCache(Duration.ofSeconds(10), 2, clock::get);
+        small.putFile("a", new byte[]{1}, small.getVersion(EntryType.FILE, "a"));
+        small.putFile("b", new byte[]{2}, small.getVersion(EntryType.FILE, "b"));
+        small.getFile("a");
+        small.putFile("c", new byte[]{3}, small.getVersion(EntryType.FILE, "c"));
+
+        assertNull(small.getFile("b"));
+        assertThat(small.getFile("a")).containsExactly((byte) 1);
+    }
+
+    @Test
+    public void writes_replace_the_data_and_remove_ancestor_listings() {
+        cache.putSecret("app/sdb/folder/a", Collections.singletonMap("k", "old"),
+                cache.getVersion(EntryType.SECRET, "app/sdb/folder/a"));
+        cache.putKeys("app/sdb/folder", Collections.singletonList("a"),
+                cache.getVersion(EntryType.LIST, "app/sdb/folder"));
+        cache.putKeys("app/sdb/", Collections.singletonList("folder/"), cache.getVersion(EntryType.LIST, "app/sdb/"));
+        cache.putKeys("app/other/", Collections.singletonList("b"), cache.getVersion(EntryType.LIST, "app/other/"));
+
+        cache.secretWritten("app/sdb/folder/a", Collections.singletonMap("k", "new"));
+
+        assertEquals("new", cache.getSecret("app/sdb/folder/a").get("k"));
+        assertNull(cache.getKeys("app/sdb/folder/"));
+        assertNull(cache.getKeys("app/sdb"));
+        assertThat(cache.getKeys("app/other/")).containsExactly("b");
+    }
+
+    @Test
+    public void values_loaded_during_a_change_are_not_cached() {
+        long version = cache.getVersion(EntryType.SECRET, "app/sdb/a");
+        cache.secretDeleted("app/sdb/a");
+
+        cache.putSecret("app/sdb/a", Collections.singletonMap("k", "stale"), version);
+
+        assertNull(cache.getSecret("app/sdb/a"));
+    }
+
+    @Test
+    public void changes_to_other_paths_do_not_hold_back_puts() {
+        long version = cache.getVersion(EntryType.SECRET, "app/sdb/a");
+        cache.secretWritten("app/sdb/b", Collections.singletonMap("k", "v"));
+        cache.fileWritten("app/sdb/cert.pem", new byte[]{1});
+
+        cache.putSecret("app/sdb/a", Collections.singletonMap("k", "loaded"), version);
+
+        assertEquals("loaded", cache.getSecret("app/sdb/a").get("k"));
+    }
+
+    @Test
+    public void values_loaded_during_invalidate_all_are_not_cached() {
+        long version = cache.getVersion(EntryType.LIST, "app/sdb/");
+        cache.invalidateAll();
+
+        cache.putKeys("app/sdb", Collections.singletonList("a"), version);
+
+        assertNull(cache.getKeys("app/sdb/"));
+    }
+
+    @Test
+    public void listeners_are_told_about_changed_entries() {
+        List<String> invalidations = new ArrayList<>();
+        cache.addInvalidationListener((type, path) -> invalidations.add(type + " " + path));
+
+        cache.secretDeleted("app/sdb/a");
+        cache.fileWritten("app/sdb/cert.pem", new byte[]{1});
+
+        assertEquals(Arrays.asList("SECRET app/sdb/a", "LIST app/sdb/", "LIST app/", "FILE app/sdb/cert.pem"),
+                invalidations);
+    }
+
+    @Test
+    public void cached_file_contents_cannot_be_modified_by_callers() {
+        byte[] contents = {1, 2};
+        cache.putFile("app/sdb/file", contents, cache.getVersion(EntryType.FILE, "app/sdb/file"));
+        contents[0] = 9;
+        cache.getFile("app/sdb/file")[1] = 9;
+
+        assertThat(cache.getFile("app/sdb/file")).containsExactly((byte) 1, (byte) 2);
+    }
+}
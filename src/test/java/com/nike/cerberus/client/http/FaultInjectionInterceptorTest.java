@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.http;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientException;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.CerberusServerApiException;
+import com.nike.cerberus.client.FakeCerberusServer;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.http.FaultInjectionInterceptor.Fault;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests the FaultInjectionInterceptor class
+ */
+public class FaultInjectionInterceptorTest {
+
+    private FakeCerberusServer fakeCerberus;
+
+    @Before
+    public void setUp() throws IOException {
+        fakeCerberus = new FakeCerberusServer();
+        fakeCerberus.start();
+        fakeCerberus.putSecret("app/sdb/config", Collections.singletonMap("key", "value"));
+        fakeCerberus.putFile("app/sdb/cert.pem", new byte[1024]);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        fakeCerberus.close();
+    }
+
+    @Test
+    public void error_responses_are_returned_without_calling_cerberus() {
+        FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+                .withErrorResponse("/v1/secret/.*", 1, HttpStatus.TOO_MANY_REQUESTS)
+                .build();
+        CerberusClient client = newClient(faults);
+
+        try {
+            client.read("app/sdb/config");
+            fail("Expected an exception");
+        } catch (CerberusServerApiException e) {
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getCode());
+            assertEquals("Injected fault", e.getErrors().get(0).getMessage());
+        }
+        assertThat(client.readFileAsBytes("app/sdb/cert.pem")).hasSize(1024);
+        assertEquals(1, fakeCerberus.getRequestCount());
+        assertEquals(1, faults.getInjectedCount(Fault.ERROR_RESPONSE));
+    }
+
+    @Test
+    public void connection_resets_fail_every_attempt() {
+        FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+                .withConnectionReset(".*", 1)
+                .build();
+        CerberusClient client = newClient(faults);
+
+        try {
+            client.read("app/sdb/config");
+            fail("Expected an exception");
+        } catch (CerberusClientException e) {
+            assertThat(e.getCause()).isInstanceOf(SocketException.class);
+        }
+        assertEquals(0, fakeCerberus.getRequestCount());
+        assertEquals(3, faults.getInjectedCount(Fault.CONNECTION_RESET));
+    }
+
+    @Test
+    public void truncated_bodies_fail_while_reading() {
+        FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+                .withTruncatedBody("/v1/secure-file/.*", 1)
+                .build();
+        CerberusClient client = newClient(faults);
+
+        try {
+            client.readFileAsBytes("app/sdb/cert.pem");
+            fail("Expected an exception");
+        } catch (CerberusClientException e) {
+            assertEquals(1, fakeCerberus.getRequestCount());
+        }
+        assertEquals("value", client.read("app/sdb/config").getData().get("key"));
+    }
+
+    @Test
+    public void latency_is_added_before_the_call() {
+        FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+                .withLatency(".*", 1, Duration.ofMillis(100))
+                .build();
+        CerberusClient client = newClient(faults);
+
+        long startedAt = System.nanoTime();
+        client.read("app/sdb/config");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt).toMillis()).isGreaterThanOrEqualTo(100);
+        assertEquals(1, faults.getInjectedCount(Fault.LATENCY));
+    }
+
+    @Test
+    public void disabled_interceptor_passes_calls_through() {
+        FaultInjectionInterceptor faults = FaultInjectionInterceptor.newBuilder()
+                .withErrorResponse(".*", 1, HttpStatus.TOO_MANY_REQUESTS)
+                .build();
+        faults.setEnabled(false);
+
+        assertEquals("value", newClient(faults).read("app/sdb/config").getData().get("key"));
+        assertEquals(0, faults.getInjectedCount(Fault.ERROR_RESPONSE));
+    }
+
+    @Test
+    public void seeded_interceptors_fail_the_same_calls() {
+        assertEquals(outcomes(42), outcomes(42));
+        assertThat(outcomes(42)).contains(true, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void probability_must_be_between_zero_and_one() {
+        FaultInjectionInterceptor.newBuilder().withConnectionReset(".*", 1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void error_response_must_be_an_error_status() {
+        FaultInjectionInterceptor.newBuilder().withErrorResponse(".*", 1, HttpStatus.OK);
+    }
+
+    private List<Boolean> outcomes(long seed) {
+        CerberusClient client = newClient(FaultInjectionInterceptor.newBuilder()
+                .withErrorResponse(".*", 0.5, HttpStatus.TOO_MANY_REQUESTS)
+                .withSeed(seed)
+                .build());
+        List<Boolean> outcomes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            try {
+                client.read("app/sdb/config");
+                outcomes.add(true);
+            } catch (CerberusServerApiException e) {
+                outcomes.add(false);
+            }
+        }
+        return outcomes;
+    }
+
+    private CerberusClient newClient(FaultInjectionInterceptor faults) {
+        return CerberusClientFactory.getClient(fakeCerberus.getUrl(),
+                () -> (CerberusCredentials) () -> "TOKEN", new HashMap<>(), faults);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the InventoryCrawler class
+ */
+public class InventoryCrawlerTest {
+
+    private static final String APP_CATEGORY_ID = "053de0f6-7588-44e3-bcf7-1a648d0bc8f2";
+
+    private static final String READ_ROLE_ID = "451b4c06-3fb5-46b4-ad1b-258349e239ce";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+
+    private InventoryCrawler crawler;
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    private final AtomicInteger throttledResponses = new AtomicInteger();
+
+    private final AtomicBoolean secretForbidden = new AtomicBoolean();
+
+    private final AtomicBoolean secretFailing = new AtomicBoolean();
+
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+
+    private final AtomicInteger maxRequestsInFlight = new AtomicInteger();
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxRequestsInFlight.accumulateAndGet(requestsInFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                    return respond(request);
+                } finally {
+                    requestsInFlight.decrementAndGet();
+                }
+            }
+
+            private MockResponse respond(RecordedRequest request) {
+                String path = request.getPath();
+                requests.add(path);
+                if (path.equals("/v1/category")) {
+                    return new MockResponse().setBody(getResponseJson("category"));
+                } else if (path.equals("/v1/role")) {
+                    return new MockResponse().setBody(getResponseJson("role"));
+                } else if (path.equals("/v2/safe-deposit-box/")) {
+                    return new MockResponse().setBody("[{\"id\":\"sdb-id\",\"name\":\"test sdb\","
+                            + "\"path\":\"app/test-sdb/\",\"category_id\":\"" + APP_CATEGORY_ID + "\"}]");
+                } else if (path.equals("/v2/safe-deposit-box/sdb-id")) {
+                    return new MockResponse().setBody("{\"id\":\"sdb-id\",\"name\":\"test sdb\","
+                            + "\"path\":\"app/test-sdb/\",\"category_id\":\"" + APP_CATEGORY_ID + "\","
+                            + "\"owner\":\"owner group\",\"user_group_permissions\":"
+                            + "[{\"name\":\"read group\",\"role_id\":\"" + READ_ROLE_ID + "\"}]}");
+                } else if (path.equals("/v1/secret/app/test-sdb/?list=true")) {
+                    return new MockResponse().setBody("{\"data\":{\"keys\":[\"foo\",\"nested/\"]}}");
+                } else if (path.equals("/v1/secret/app/test-sdb/nested/?list=true")) {
+                    if (throttledResponses.getAndIncrement() < 2) {
+                        return new MockResponse().setResponseCode(429).setBody(getResponseJson("error"));
+                    }
+                    return new MockResponse().setBody("{\"data\":{\"keys\":[\"bar\"]}}");
+                } else if (path.equals("/v1/secret/app/test-sdb/foo")) {
+                    return new MockResponse().setBody(getResponseJson("secret"));
+                } else if (path.equals("/v1/secret/app/test-sdb/nested/bar")) {
+                    if (secretFailing.get()) {
+                        return new MockResponse().setResponseCode(500).setBody(getResponseJson("error"));
+                    }
+                    return secretForbidden.get()
+                            ? new MockResponse().setResponseCode(403).setBody(getResponseJson("error"))
+                            : new MockResponse().setBody("{\"data\":{\"user\":\"admin\",\"password\":\"hunter2\"}}");
+                } else if (path.startsWith("/v1/secure-files/app/test-sdb/")) {
+                    return new MockResponse().setBody("{\"has_next\":false,\"limit\":100,\"offset\":0,"
+                            + "\"secure_file_summaries\":[{\"path\":\"app/test-sdb/cert.pem\",\"size_in_bytes\":4}]}");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        mockWebServer.start();
+
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn((CerberusCredentials) () -> "TOKEN");
+        CerberusClient cerberusClient = CerberusClientFactory.getClient("http://localhost:" + mockWebServer.getPort(),
+                credentialsProvider);
+        crawler = new InventoryCrawler(cerberusClient,
+                new AdaptiveBackoff(Duration.ofMillis(1), Duration.ofMillis(10), 3));
+        crawler.setConcurrency(4);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void crawl_emits_permissions_and_key_names_but_not_values() {
+        List<InventoryRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+        InventoryReport report = crawler.crawl(records::add);
+
+        assertTrue(report.isSuccessful());
+        assertEquals(1, report.getSafeDepositBoxes());
+        assertEquals(2, report.getSecrets());
+        assertEquals(1, report.getFiles());
+        Map<String, InventoryRecord> byPath = records.stream()
+                .collect(Collectors.toMap(InventoryRecord::getPath, Function.identity()));
+        assertEquals("read", byPath.get("app/test-sdb/").getUserGroupPermissions().get("read group"));
+        assertThat(byPath.get("app/test-sdb/foo").getKeys()).containsExactly("value");
+        assertThat(byPath.get("app/test-sdb/nested/bar").getKeys()).containsExactly("user", "password");
+        assertNull(byPath.get("app/test-sdb/nested/bar").getData());
+        assertEquals(Integer.valueOf(4), byPath.get("app/test-sdb/cert.pem").getSizeInBytes());
+        assertEquals(3, throttledResponses.get());
+    }
+
+    @Test
+    public void crawl_skips_safe_deposit_boxes_in_the_checkpoint_file() throws IOException {
+        Path checkpoint = temporaryFolder.getRoot().toPath().resolve("checkpoint");
+        crawler.setCheckpointFile(checkpoint);
+        crawler.crawl(record -> { });
+        assertThat(Files.readAllLines(checkpoint, StandardCharsets.UTF_8)).containsExactly("sdb-id");
+        requests.clear();
+
+        List<InventoryRecord> records = new ArrayList<>();
+        InventoryReport report = crawler.crawl(records::add);
+
+        assertTrue(records.isEmpty());
+        assertTrue(report.isSuccessful());
+        assertThat(requests).doesNotContain("/v2/safe-deposit-box/sdb-id");
+    }
+
+    @Test
+    public void safe_deposit_boxes_with_failures_are_not_checkpointed() throws IOException {
+        secretForbidden.set(true);
+        Path checkpoint = temporaryFolder.getRoot().toPath().resolve("checkpoint");
+        crawler.setCheckpointFile(checkpoint);
+
+        InventoryReport report = crawler.crawl(record -> { });
+
+        assertEquals(1, report.getFailures().size());
+        assertEquals("app/test-sdb/nested/bar", report.getFailures().get(0).getPath());
+        assertTrue(Files.readAllLines(checkpoint, StandardCharsets.UTF_8).isEmpty());
+    }
+
+    @Test
+    public void failed_calls_are_only_retried_by_the_client() {
+        secretFailing.set(true);
+
+        InventoryReport report = crawler.crawl(record -> { });
+
+        assertEquals(1, report.getFailures().size());
+        assertEquals(3, requests.stream().filter("/v1/secret/app/test-sdb/nested/bar"::equals).count());
+    }
+
+    @Test
+    public void crawl_makes_at_most_concurrency_calls_at_a_time() {
+        crawler.setConcurrency(2);
+
+        InventoryReport report = crawler.crawl(record -> { });
+
+        assertTrue(report.isSuccessful());
+        assertThat(maxRequestsInFlight.get()).isBetween(1, 2);
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
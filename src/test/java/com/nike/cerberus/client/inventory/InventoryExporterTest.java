@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.inventory;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the InventoryExporter and InventoryImporter classes
+ */
+public class InventoryExporterTest {
+
+    private static final String APP_CATEGORY_ID = "053de0f6-7588-44e3-bcf7-1a648d0bc8f2";
+
+    private static final String READ_ROLE_ID = "451b4c06-3fb5-46b4-ad1b-258349e239ce";
+
+    private static final String SDB_JSON = "{\"id\":\"sdb-id\",\"name\":\"test sdb\",\"path\":\"app/test-sdb/\","
+            + "\"category_id\":\"" + APP_CATEGORY_ID + "\",\"owner\":\"owner group\",\"description\":\"test\","
+            + "\"user_group_permissions\":[{\"name\":\"read group\",\"role_id\":\"" + READ_ROLE_ID + "\"}],"
+            + "\"iam_principal_permissions\":[]}";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+
+    private BulkExecutor bulkExecutor;
+
+    private CerberusClient cerberusClient;
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String path = request.getPath();
+                requests.add(request.getMethod() + " " + path);
+                if (request.getMethod().equals("POST")) {
+                    return path.equals("/v2/safe-deposit-box/")
+                            ? new MockResponse().setResponseCode(201).setBody(SDB_JSON)
+                            : new MockResponse().setResponseCode(204);
+                } else if (path.equals("/v1/category")) {
+                    return new MockResponse().setBody(getResponseJson("category"));
+                } else if (path.equals("/v1/role")) {
+                    return new MockResponse().setBody(getResponseJson("role"));
+                } else if (path.equals("/v2/safe-deposit-box/")) {
+                    return new MockResponse().setBody("[{\"id\":\"sdb-id\",\"name\":\"test sdb\","
+                            + "\"path\":\"app/test-sdb/\",\"category_id\":\"" + APP_CATEGORY_ID + "\"}]");
+                } else if (path.equals("/v2/safe-deposit-box/sdb-id")) {
+                    return new MockResponse().setBody(SDB_JSON);
+                } else if (path.equals("/v1/secret/app/test-sdb/?list=true")) {
+                    return new MockResponse().setBody("{\"data\":{\"keys\":[\"foo\",\"nested/\"]}}");
+                } else if (path.equals("/v1/secret/app/test-sdb/nested/?list=true")) {
+                    return new MockResponse().setBody("{\"data\":{\"keys\":[\"bar\"]}}");
+                } else if (path.equals("/v1/secret/app/test-sdb/foo")) {
+                    return new MockResponse().setBody(getResponseJson("secret"));
+                } else if (path.equals("/v1/secret/app/test-sdb/nested/bar")) {
+                    return new MockResponse().setResponseCode(500).setBody(getResponseJson("error"));
+                } else if (path.startsWith("/v1/secure-files/app/test-sdb/")) {
+                    return new MockResponse().setBody("{\"has_next\":false,\"limit\":100,\"offset\":0,"
+                            + "\"secure_file_summaries\":[{\"path\":\"app/test-sdb/cert.pem\"}]}");
+                } else if (path.equals("/v1/secure-file/app/test-sdb/cert.pem")) {
+                    return new MockResponse().setBody("cert");
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        mockWebServer.start();
+
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn((CerberusCredentials) () -> "TOKEN");
+        cerberusClient = CerberusClientFactory.getClient("http://localhost:" + mockWebServer.getPort(),
+                credentialsProvider);
+        bulkExecutor = new BulkExecutor(4, 100);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        bulkExecutor.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void export_writes_one_record_per_safe_deposit_box_secret_and_file() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        InventoryReport report = new InventoryExporter(cerberusClient, bulkExecutor).export(out);
+
+        List<InventoryRecord> records = parse(out);
+        assertEquals(3, records.size());
+        InventoryRecord sdb = records.get(0);
+        assertEquals(InventoryRecord.TYPE_SAFE_DEPOSIT_BOX, sdb.getType());
+        assertEquals("app", sdb.getCategoryPath());
+        assertEquals("read", sdb.getUserGroupPermissions().get("read group"));
+        InventoryRecord secret = records.get(1);
+        assertEquals("app/test-sdb/foo", secret.getPath());
+        assertEquals("world", secret.getData().get("value"));
+        InventoryRecord file = records.get(2);
+        assertEquals("Y2VydA==", file.getContentBase64());
+        assertEquals(Integer.valueOf(4), file.getSizeInBytes());
+
+        assertEquals(1, report.getSafeDepositBoxes());
+        assertEquals(1, report.getSecrets());
+        assertEquals(1, report.getFiles());
+        assertEquals(1, report.getFailures().size());
+        assertEquals("app/test-sdb/nested/bar", report.getFailures().get(0).getPath());
+    }
+
+    @Test
+    public void export_writes_file_contents_to_the_blob_directory() throws IOException {
+        Path blobs = temporaryFolder.newFolder().toPath();
+        InventoryExporter exporter = new InventoryExporter(cerberusClient, bulkExecutor);
+        exporter.setBlobDirectory(blobs);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exporter.export(out);
+
+        InventoryRecord file = parse(out).get(2);
+        assertNull(file.getContentBase64());
+        assertEquals("cert", new String(Files.readAllBytes(blobs.resolve(file.getBlob())), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void import_replays_an_export() throws IOException {
+        Path blobs = temporaryFolder.newFolder().toPath();
+        InventoryExporter exporter = new InventoryExporter(cerberusClient, bulkExecutor);
+        exporter.setBlobDirectory(blobs);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+        String export = new String(out.toByteArray(), StandardCharsets.UTF_8)
+                .replace("\"name\":\"test sdb\"", "\"name\":\"new sdb\"");
+        requests.clear();
+
+        InventoryImporter importer = new InventoryImporter(cerberusClient, bulkExecutor);
+        importer.setBlobDirectory(blobs);
+        importer.setChunkSize(2);
+        InventoryReport report = importer.importFrom(
+                new ByteArrayInputStream((export + "not json\n").getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, report.getSafeDepositBoxes());
+        assertEquals(1, report.getSecrets());
+        assertEquals(1, report.getFiles());
+        assertEquals(1, report.getFailures().size());
+        assertEquals("line 4", report.getFailures().get(0).getPath());
+        assertThat(requests).contains(
+                "POST /v2/safe-deposit-box/",
+                "POST /v1/secret/app/test-sdb/foo",
+                "POST /v1/secure-file/app/test-sdb/cert.pem");
+        assertTrue(requests.indexOf("POST /v2/safe-deposit-box/") < requests.indexOf("POST /v1/secret/app/test-sdb/foo"));
+    }
+
+    private List<InventoryRecord> parse(ByteArrayOutputStream out) {
+        return Arrays.stream(new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n"))
+                .map(line -> cerberusClient.getJsonCodec().<InventoryRecord>fromJson(line, InventoryRecord.class))
+                .collect(Collectors.toList());
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.jfr;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the CerberusFlightRecorder class
+ */
+public class CerberusFlightRecorderTest {
+
+    private MockWebServer mockWebServer;
+
+    private CerberusClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = CerberusClientFactory.getClient(mockWebServer.url("/").toString(),
+                () -> (CerberusCredentials) () -> "TOKEN", new HashMap<>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void requests_are_recorded_with_templated_paths_and_retries() throws Exception {
+        assertThat(CerberusFlightRecorder.isAvailable()).isTrue();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{\"key\":\"value\"}}"));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.nike.cerberus.Request").withThreshold(Duration.ZERO);
+            recording.start();
+            client.read("app/sdb/secret");
+            recording.stop();
+            events = read(recording);
+        }
+
+        assertEquals(2, events.size());
+        RecordedEvent failed = events.get(0);
+        assertEquals("READ", failed.getString("operation"));
+        assertEquals("GET", failed.getString("method"));
+        assertEquals("/v1/secret/{path}", failed.getString("path"));
+        assertEquals(500, failed.getInt("statusCode"));
+        assertEquals(0, failed.getInt("retryCount"));
+        assertEquals(0, failed.getLong("bytesSent"));
+        assertEquals(2, failed.getLong("bytesReceived"));
+
+        RecordedEvent succeeded = events.get(1);
+        assertEquals(200, succeeded.getInt("statusCode"));
+        assertEquals(1, succeeded.getInt("retryCount"));
+    }
+
+    @Test
+    public void nothing_is_recorded_while_the_event_is_disabled() {
+        assertSame(CerberusFlightRecorder.RequestRecording.DISABLED, CerberusFlightRecorder.beginRequest());
+        assertSame(CerberusFlightRecorder.AuthenticationRecording.DISABLED,
+                CerberusFlightRecorder.beginAuthentication());
+    }
+
+    private static List<RecordedEvent> read(Recording recording) throws Exception {
+        Path file = Files.createTempFile("cerberus", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().equals("com.nike.cerberus.Request"))
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
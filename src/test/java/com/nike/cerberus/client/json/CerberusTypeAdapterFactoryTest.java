@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.nike.cerberus.client.model.CerberusAuthResponse;
+import com.nike.cerberus.client.model.CerberusCategoryResponse;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import com.nike.cerberus.client.model.SecureFileSummary;
+import org.apache.commons.io.IOUtils;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the CerberusTypeAdapterFactory class against Gson's reflective adapters
+ */
+public class CerberusTypeAdapterFactoryTest {
+
+    private final Gson reflectiveGson = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .disableHtmlEscaping()
+            .create();
+
+    private final Gson gson = new GsonBuilder()
+            .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+            .disableHtmlEscaping()
+            .registerTypeAdapterFactory(new CerberusTypeAdapterFactory())
+            .create();
+
+    @Test
+    public void secret_is_decoded_the_same_as_the_reflective_adapter() {
+        assertSameAsReflective("secret", CerberusResponse.class);
+    }
+
+    @Test
+    public void safe_deposit_box_is_decoded_the_same_as_the_reflective_adapter() {
+        assertSameAsReflective("safe-deposit-box", CerberusSafeDepositBoxResponse.class);
+    }
+
+    @Test
+    public void safe_deposit_box_list_is_decoded_the_same_as_the_reflective_adapter() {
+        assertSameAsReflective("list-safe-deposit-boxes", new TypeToken<List<CerberusSafeDepositBoxSummaryResponse>>(){}.getType());
+    }
+
+    @Test
+    public void categories_are_decoded_the_same_as_the_reflective_adapter() {
+        assertSameAsReflective("category", new TypeToken<List<CerberusCategoryResponse>>(){}.getType());
+    }
+
+    @Test
+    public void auth_response_accepts_lease_duration_as_a_string() {
+        CerberusAuthResponse response = gson.fromJson(
+                "{\"client_token\":\"token\",\"lease_duration\":\"3600\",\"renewable\":\"true\",\"unknown\":{\"a\":[1]}}",
+                CerberusAuthResponse.class);
+
+        assertEquals("token", response.getClientToken());
+        assertEquals(3600, response.getLeaseDuration());
+        assertThat(response.isRenewable()).isTrue();
+        assertNull(response.getPolicies());
+    }
+
+    @Test
+    public void list_files_response_parses_dates() {
+        CerberusListFilesResponse response = gson.fromJson(getResponseJson("list-files"), CerberusListFilesResponse.class);
+        CerberusListFilesResponse expected = new GsonBuilder()
+                .setFieldNamingPolicy(FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES)
+                .registerTypeAdapter(DateTime.class,
+                        (JsonDeserializer<DateTime>) (json, typeOfT, context) -> new DateTime(json.getAsString()))
+                .create()
+                .fromJson(getResponseJson("list-files"), CerberusListFilesResponse.class);
+
+        assertNull(response.getNextOffset());
+        assertEquals(100, response.getLimit());
+        assertEquals(2, response.getSecureFileSummaries().size());
+        for (int i = 0; i < expected.getSecureFileSummaries().size(); i++) {
+            SecureFileSummary actualSummary = response.getSecureFileSummaries().get(i);
+            SecureFileSummary expectedSummary = expected.getSecureFileSummaries().get(i);
+            assertEquals(expectedSummary.getPath(), actualSummary.getPath());
+            assertEquals(expectedSummary.getSizeInBytes(), actualSummary.getSizeInBytes());
+            assertEquals(expectedSummary.getCreatedTs(), actualSummary.getCreatedTs());
+            assertEquals(expectedSummary.getLastUpdatedTs(), actualSummary.getLastUpdatedTs());
+        }
+    }
+
+    @Test
+    public void safe_deposit_box_request_is_encoded_the_same_as_the_reflective_adapter() {
+        CerberusSafeDepositBoxRequest request = CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("test sdb")
+                .withOwner("owner group")
+                .withCategoryId("category id")
+                .withUserGroupPermission("read group", "role id 1")
+                .withIamPrincipalPermission("arn:aws:iam::1234567890:role/test-role", "role id 2")
+                .build();
+
+        assertEquals(reflectiveGson.toJson(request), gson.toJson(request));
+    }
+
+    private void assertSameAsReflective(String title, Type type) {
+        String json = getResponseJson(title);
+        Object expected = reflectiveGson.fromJson(json, type);
+        Object actual = gson.fromJson(json, type);
+
+        assertEquals(new JsonParser().parse(reflectiveGson.toJson(expected)),
+                new JsonParser().parse(reflectiveGson.toJson(actual)));
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
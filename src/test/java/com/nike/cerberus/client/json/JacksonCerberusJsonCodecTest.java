@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.nike.cerberus.client.model.CerberusCategoryResponse;
+import com.nike.cerberus.client.model.CerberusListFilesResponse;
+import com.nike.cerberus.client.model.CerberusResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxSummaryResponse;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the JacksonCerberusJsonCodec class against the default Gson codec
+ */
+public class JacksonCerberusJsonCodecTest {
+
+    private final GsonCerberusJsonCodec gsonCodec = new GsonCerberusJsonCodec();
+
+    private final JacksonCerberusJsonCodec jacksonCodec = new JacksonCerberusJsonCodec();
+
+    @Test
+    public void secret_is_decoded_the_same_as_gson() throws IOException {
+        assertSameAsGson("secret", CerberusResponse.class);
+    }
+
+    @Test
+    public void safe_deposit_box_is_decoded_the_same_as_gson() throws IOException {
+        assertSameAsGson("safe-deposit-box", CerberusSafeDepositBoxResponse.class);
+    }
+
+    @Test
+    public void safe_deposit_box_list_is_decoded_the_same_as_gson() throws IOException {
+        assertSameAsGson("list-safe-deposit-boxes", new TypeToken<List<CerberusSafeDepositBoxSummaryResponse>>(){}.getType());
+    }
+
+    @Test
+    public void categories_are_decoded_the_same_as_gson() throws IOException {
+        assertSameAsGson("category", new TypeToken<List<CerberusCategoryResponse>>(){}.getType());
+    }
+
+    @Test
+    public void list_files_response_is_decoded_the_same_as_gson() throws IOException {
+        assertSameAsGson("list-files", CerberusListFilesResponse.class);
+    }
+
+    @Test
+    public void safe_deposit_box_request_is_encoded_the_same_as_gson() throws IOException {
+        CerberusSafeDepositBoxRequest request = CerberusSafeDepositBoxRequest.newBuilder()
+                .withName("test sdb")
+                .withOwner("owner group")
+                .withCategoryId("category id")
+                .withUserGroupPermission("read group", "role id 1")
+                .withIamPrincipalPermission("arn:aws:iam::1234567890:role/test-role", "role id 2")
+                .build();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        jacksonCodec.toJson(request, out);
+
+        assertEquals(new JsonParser().parse(gsonCodec.toJson(request)),
+                new JsonParser().parse(new String(out.toByteArray(), StandardCharsets.UTF_8)));
+        assertEquals(new JsonParser().parse(gsonCodec.toJson(request)),
+                new JsonParser().parse(jacksonCodec.toJson(request)));
+    }
+
+    @Test
+    public void blank_json_is_decoded_as_null() {
+        assertNull(jacksonCodec.fromJson("", CerberusResponse.class));
+        assertNull(gsonCodec.fromJson("", CerberusResponse.class));
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void malformed_json_throws_codec_exception() {
+        jacksonCodec.fromJson("{\"data\":", CerberusResponse.class);
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void gson_codec_throws_codec_exception_for_malformed_json() {
+        gsonCodec.fromJson("{\"data\":", CerberusResponse.class);
+    }
+
+    @Test
+    public void secret_data_is_projected_the_same_as_gson() throws IOException {
+        String json = "{\"lease_id\":\"\",\"data\":{\"a\":\"1\",\"b\":{\"nested\":[1,2]},\"c\":true,\"d\":null,\"e\":42},\"auth\":null}";
+        Predicate<String> keyFilter = key -> !"b".equals(key);
+
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("a", "1");
+        expected.put("c", "true");
+        expected.put("d", null);
+        expected.put("e", "42");
+
+        assertEquals(expected, readSecretData(gsonCodec, json, keyFilter));
+        assertEquals(expected, readSecretData(jacksonCodec, json, keyFilter));
+        assertEquals(Collections.emptyMap(), readSecretData(gsonCodec, "", keyFilter));
+        assertEquals(Collections.emptyMap(), readSecretData(jacksonCodec, "", keyFilter));
+    }
+
+    @Test
+    public void secret_data_projection_matches_default_implementation() throws IOException {
+        String json = getResponseJson("secret");
+        CerberusJsonCodec defaultCodec = new CerberusJsonCodec() {
+            public <T> T fromJson(String json, Type type) { return gsonCodec.fromJson(json, type); }
+            public <T> T fromJson(InputStream json, Type type) throws IOException { return gsonCodec.fromJson(json, type); }
+            public String toJson(Object value) { return gsonCodec.toJson(value); }
+            public void toJson(Object value, OutputStream out) throws IOException { gsonCodec.toJson(value, out); }
+        };
+
+        assertEquals(readSecretData(defaultCodec, json, "value"::equals), readSecretData(gsonCodec, json, "value"::equals));
+        assertEquals(readSecretData(defaultCodec, json, "value"::equals), readSecretData(jacksonCodec, json, "value"::equals));
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void gson_secret_data_projection_throws_codec_exception_for_non_string_value() throws IOException {
+        readSecretData(gsonCodec, "{\"data\":{\"a\":[1]}}", key -> true);
+    }
+
+    @Test(expected = JsonCodecException.class)
+    public void jackson_secret_data_projection_throws_codec_exception_for_non_string_value() throws IOException {
+        readSecretData(jacksonCodec, "{\"data\":{\"a\":[1]}}", key -> true);
+    }
+
+    private Map<String, String> readSecretData(CerberusJsonCodec codec, String json, Predicate<String> keyFilter) throws IOException {
+        Map<String, String> data = new LinkedHashMap<>();
+        codec.readSecretData(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), keyFilter, data::put);
+        return data;
+    }
+
+    private void assertSameAsGson(String title, Type type) throws IOException {
+        String json = getResponseJson(title);
+        Gson gson = gsonCodec.getGson();
+        Object expected = gsonCodec.fromJson(json, type);
+        Object actual = jacksonCodec.fromJson(json, type);
+        Object streamed = jacksonCodec.fromJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), type);
+
+        assertEquals(new JsonParser().parse(gson.toJson(expected)), new JsonParser().parse(gson.toJson(actual)));
+        assertEquals(new JsonParser().parse(gson.toJson(expected)), new JsonParser().parse(gson.toJson(streamed)));
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
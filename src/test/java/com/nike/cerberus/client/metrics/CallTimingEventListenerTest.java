@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tests the CallTimingEventListener class
+ */
+public class CallTimingEventListenerTest {
+
+    private MockWebServer mockWebServer;
+
+    private final List<CallPhases> phases = new CopyOnWriteArrayList<>();
+
+    private final List<CerberusOperation> operations = new CopyOnWriteArrayList<>();
+
+    private final List<Boolean> connections = new CopyOnWriteArrayList<>();
+
+    private final CerberusMetrics metrics = new CerberusMetrics() {
+        @Override
+        public void recordCallPhases(CerberusOperation operation, CallPhases callPhases) {
+            operations.add(operation);
+            phases.add(callPhases);
+        }
+
+        @Override
+        public void recordConnectionAcquired(boolean reused) {
+            connections.add(reused);
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void phases_and_connection_reuse_are_reported_for_client_calls() {
+        CerberusClient client = CerberusClientFactory.getClient(mockWebServer.url("/").toString(),
+                () -> (CerberusCredentials) () -> "TOKEN", new HashMap<>());
+        client.setMetrics(metrics);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{\"key\":\"value\"}}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{\"key\":\"value\"}}"));
+
+        client.read("app/sdb/first");
+        client.read("app/sdb/second");
+
+        assertThat(connections).containsExactly(false, true);
+        assertThat(operations).containsExactly(CerberusOperation.READ, CerberusOperation.READ);
+
+        CallPhases first = phases.get(0);
+        assertThat(first.isConnectionReused()).isFalse();
+        assertThat(first.isFailed()).isFalse();
+        assertThat(first.getConnectNanos()).isGreaterThanOrEqualTo(0);
+        assertEquals(-1, first.getTlsNanos());
+        assertThat(first.getServerNanos()).isGreaterThanOrEqualTo(0);
+        assertThat(first.getTotalNanos()).isGreaterThanOrEqualTo(first.getServerNanos());
+
+        CallPhases second = phases.get(1);
+        assertThat(second.isConnectionReused()).isTrue();
+        assertEquals(-1, second.getDnsNanos());
+        assertEquals(-1, second.getConnectNanos());
+        assertThat(second.getPreConnectNanos()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    public void failed_calls_are_reported() throws Exception {
+        OkHttpClient httpClient = new OkHttpClient.Builder().eventListenerFactory(CallTimingEventListener.FACTORY).build();
+        String url = mockWebServer.url("/v1/secret/app/sdb/key").toString();
+        mockWebServer.shutdown();
+
+        try {
+            httpClient.newCall(new Request.Builder().url(url).tag(CerberusMetrics.class, metrics).build()).execute();
+        } catch (IOException expected) {
+            // connection refused
+        }
+
+        assertEquals(1, phases.size());
+        assertThat(phases.get(0).isFailed()).isTrue();
+        assertThat(phases.get(0).getConnectNanos()).isGreaterThanOrEqualTo(0);
+        assertThat(connections).isEmpty();
+    }
+
+    @Test
+    public void untagged_calls_are_not_measured() {
+        Request request = new Request.Builder().url(mockWebServer.url("/")).build();
+
+        assertSame(EventListener.NONE,
+                CallTimingEventListener.FACTORY.create(new OkHttpClient().newCall(request)));
+    }
+}
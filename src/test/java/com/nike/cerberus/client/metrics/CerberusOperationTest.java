@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import okhttp3.HttpUrl;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the CerberusOperation class
+ */
+public class CerberusOperationTest {
+
+    @Test
+    public void secret_operations_are_determined_by_method_and_query() {
+        assertEquals(CerberusOperation.READ, of("GET", "/v1/secret/app/sdb/key"));
+        assertEquals(CerberusOperation.LIST, of("GET", "/v1/secret/app/sdb/?list=true"));
+        assertEquals(CerberusOperation.WRITE, of("POST", "/v1/secret/app/sdb/key"));
+        assertEquals(CerberusOperation.DELETE, of("DELETE", "/v1/secret/app/sdb/key"));
+    }
+
+    @Test
+    public void file_operations_are_determined_by_method_and_path() {
+        assertEquals(CerberusOperation.READ_FILE, of("HEAD", "/v1/secure-file/app/sdb/cert.pem"));
+        assertEquals(CerberusOperation.WRITE_FILE, of("POST", "/v1/secure-file/app/sdb/cert.pem"));
+        assertEquals(CerberusOperation.DELETE_FILE, of("DELETE", "/v1/secure-file/app/sdb/cert.pem"));
+        assertEquals(CerberusOperation.LIST_FILES, of("GET", "/v1/secure-files/app/sdb/?limit=100&offset=0"));
+    }
+
+    @Test
+    public void admin_operations_are_grouped() {
+        assertEquals(CerberusOperation.SAFE_DEPOSIT_BOX, of("PUT", "/v2/safe-deposit-box/id"));
+        assertEquals(CerberusOperation.METADATA, of("GET", "/v1/role"));
+        assertEquals(CerberusOperation.METADATA, of("GET", "/v1/category"));
+        assertEquals(CerberusOperation.AUTHENTICATE, of("POST", "/v2/auth/sts-identity"));
+        assertEquals(CerberusOperation.OTHER, of("GET", "/healthcheck"));
+    }
+
+    @Test
+    public void base_paths_are_ignored() {
+        assertEquals(CerberusOperation.READ, of("GET", "/cerberus/v1/secret/app/sdb/key"));
+    }
+
+    @Test
+    public void path_templates_hide_secret_paths_and_ids() {
+        assertEquals("/v1/secret/{path}", pathTemplate("/v1/secret/app/sdb/key?list=true"));
+        assertEquals("/cerberus/v1/secure-file/{path}", pathTemplate("/cerberus/v1/secure-file/app/sdb/cert.pem"));
+        assertEquals("/v2/safe-deposit-box/{id}", pathTemplate("/v2/safe-deposit-box/1234"));
+        assertEquals("/v2/safe-deposit-box", pathTemplate("/v2/safe-deposit-box"));
+        assertEquals("/v1/category", pathTemplate("/v1/category"));
+    }
+
+    private static String pathTemplate(String path) {
+        return CerberusOperation.pathTemplate(HttpUrl.parse("https://cerberus.example.com" + path));
+    }
+
+    private static CerberusOperation of(String method, String path) {
+        return CerberusOperation.of(method, HttpUrl.parse("https://cerberus.example.com" + path));
+    }
+}
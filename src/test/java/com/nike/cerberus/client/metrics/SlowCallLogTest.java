@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.metrics;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the SlowCallLog class
+ */
+public class SlowCallLogTest {
+
+    private static final HttpUrl URL = HttpUrl.parse("https://cerberus.example.com/v1/secret/app/sdb/key");
+
+    private final List<String> lines = new CopyOnWriteArrayList<>();
+
+    private MockWebServer mockWebServer;
+
+    private CerberusClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = CerberusClientFactory.getClient(mockWebServer.url("/").toString(),
+                () -> (CerberusCredentials) () -> "TOKEN", new HashMap<>());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void slow_calls_are_logged_with_their_phases() {
+        client.setSlowCallLog(new SlowCallLog(Duration.ofMillis(50), 1.0, 10, lines::add, () -> 0.0));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500).setBody("{}"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200)
+                .setBody("{\"data\":{\"key\":\"value\"}}")
+                .setHeadersDelay(100, TimeUnit.MILLISECONDS));
+
+        client.read("app/sdb/secret");
+
+        assertEquals(1, lines.size());
+        String line = lines.get(0);
+        assertThat(line).startsWith("Slow Cerberus call: operation=READ path=/v1/secret/{path} status=200 durationMs=");
+        assertThat(line).contains(" attempts=2 ", " bytesSent=0 ", " bytesReceived=24 ", " suppressed=0");
+        assertThat(line).doesNotContain("app/sdb/secret");
+        assertThat(line).doesNotContain("serverMs=-");
+        assertThat(line).containsPattern(" serverMs=\\d{3,}\\.\\d ");
+        assertThat(line).contains(" preConnectMs=");
+    }
+
+    @Test
+    public void fast_calls_are_not_logged() {
+        client.setSlowCallLog(new SlowCallLog(Duration.ofSeconds(10), 1.0, 10, lines::add, () -> 0.0));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("{\"data\":{}}"));
+
+        client.read("app/sdb/secret");
+
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void unsampled_calls_are_not_logged() {
+        SlowCallLog log = new SlowCallLog(Duration.ZERO, 0.5, 10, lines::add, () -> 0.7);
+
+        log.start(CerberusOperation.READ, URL).finish();
+
+        assertThat(lines).isEmpty();
+    }
+
+    @Test
+    public void lines_over_the_rate_limit_are_counted_as_suppressed() {
+        SlowCallLog log = new SlowCallLog(Duration.ZERO, 1.0, 2, lines::add, () -> 0.0);
+
+        for (int i = 0; i < 5; i++) {
+            log.start(CerberusOperation.READ, URL).finish();
+        }
+
+        assertEquals(2, lines.size());
+        assertThat(lines.get(0)).contains(" dnsMs=- ", " attempts=0 ", " suppressed=0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void sample_rate_must_be_a_fraction() {
+        new SlowCallLog(Duration.ofSeconds(1), 1.5, 10);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.reconcile;
+
+import com.nike.cerberus.client.CerberusClient;
+import com.nike.cerberus.client.CerberusClientFactory;
+import com.nike.cerberus.client.auth.CerberusCredentials;
+import com.nike.cerberus.client.auth.CerberusCredentialsProvider;
+import com.nike.cerberus.client.bulk.BulkExecutor;
+import com.nike.cerberus.client.bulk.BulkResult;
+import com.nike.cerberus.client.json.GsonCerberusJsonCodec;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxRequest;
+import com.nike.cerberus.client.model.CerberusSafeDepositBoxResponse;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests the SafeDepositBoxReconciler and SafeDepositBoxDiff classes
+ */
+public class SafeDepositBoxReconcilerTest {
+
+    private static final String READ_ROLE_ID = "152db5e5-68bf-4d5f-a08b-6ca4faaa393e";
+
+    private static final String OWNER_ROLE_ID = "eb639d7e-89ad-4084-87ce-4d9b6ee81341";
+
+    private static final String ROLE_ARN = "arn:aws:iam::1234567890:role/test-role";
+
+    private MockWebServer mockWebServer;
+
+    private BulkExecutor bulkExecutor;
+
+    private SafeDepositBoxReconciler reconciler;
+
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setup() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                requests.add(request.getMethod() + " " + request.getPath());
+                if (request.getMethod().equals("GET") && request.getPath().equals("/v2/safe-deposit-box/")) {
+                    return new MockResponse().setBody(getResponseJson("list-safe-deposit-boxes"));
+                }
+                return new MockResponse().setBody(getResponseJson("safe-deposit-box"));
+            }
+        });
+        mockWebServer.start();
+
+        final CerberusCredentialsProvider credentialsProvider = mock(CerberusCredentialsProvider.class);
+        when(credentialsProvider.getCredentials()).thenReturn((CerberusCredentials) () -> "TOKEN");
+        CerberusClient cerberusClient = CerberusClientFactory.getClient("http://localhost:" + mockWebServer.getPort(),
+                credentialsProvider);
+
+        bulkExecutor = new BulkExecutor(4, 100);
+        reconciler = new SafeDepositBoxReconciler(cerberusClient, bulkExecutor);
+    }
+
+    @After
+    public void teardown() throws IOException {
+        bulkExecutor.close();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    public void diff_is_empty_when_only_permission_order_and_ids_differ() {
+        CerberusSafeDepositBoxResponse current = currentSafeDepositBox();
+        CerberusSafeDepositBoxRequest desired = desired("test sdb 1")
+                .withIamPrincipalPermission(ROLE_ARN, OWNER_ROLE_ID)
+                .withUserGroupPermission("read group", READ_ROLE_ID)
+                .build();
+
+        assertTrue(SafeDepositBoxDiff.between(current, desired).isEmpty());
+    }
+
+    @Test
+    public void diff_reports_added_changed_and_removed_permissions() {
+        CerberusSafeDepositBoxResponse current = currentSafeDepositBox();
+        CerberusSafeDepositBoxRequest desired = desired("test sdb 1")
+                .withDescription("new description")
+                .withIamPrincipalPermission(ROLE_ARN, READ_ROLE_ID)
+                .withUserGroupPermission("write group", OWNER_ROLE_ID)
+                .build();
+
+        SafeDepositBoxDiff diff = SafeDepositBoxDiff.between(current, desired);
+
+        assertFalse(diff.isEmpty());
+        assertFalse(diff.isOwnerChanged());
+        assertTrue(diff.isDescriptionChanged());
+        assertEquals(READ_ROLE_ID, diff.getIamPrincipalPermissions().getChanged().get(ROLE_ARN));
+        assertThat(diff.getIamPrincipalPermissions().getAdded()).isEmpty();
+        assertEquals(OWNER_ROLE_ID, diff.getUserGroupPermissions().getAdded().get("write group"));
+        assertThat(diff.getUserGroupPermissions().getRemoved()).containsExactly("read group");
+    }
+
+    @Test
+    public void reconcile_skips_updates_that_would_be_no_ops() {
+        List<BulkResult<CerberusSafeDepositBoxRequest, ReconciliationResult>> results = reconciler.reconcileAll(Arrays.asList(
+                desired("test sdb 1")
+                        .withUserGroupPermission("read group", READ_ROLE_ID)
+                        .withIamPrincipalPermission(ROLE_ARN, OWNER_ROLE_ID)
+                        .build(),
+                desired("test sdb 2").build(),
+                desired("new sdb").build()));
+
+        assertEquals(ReconciliationResult.Action.UNCHANGED, results.get(0).getResult().getAction());
+        assertEquals(ReconciliationResult.Action.UPDATED, results.get(1).getResult().getAction());
+        assertEquals(ReconciliationResult.Action.CREATED, results.get(2).getResult().getAction());
+        assertThat(requests).contains(
+                "GET /v2/safe-deposit-box/cca549f9-768e-4e0a-b57c-b15098ebcdd8",
+                "GET /v2/safe-deposit-box/9e3d853c-1144-4b2a-82a1-2987b5e6dea0",
+                "PUT /v2/safe-deposit-box/9e3d853c-1144-4b2a-82a1-2987b5e6dea0",
+                "POST /v2/safe-deposit-box/");
+        assertThat(requests).doesNotContain("PUT /v2/safe-deposit-box/cca549f9-768e-4e0a-b57c-b15098ebcdd8");
+    }
+
+    private static CerberusSafeDepositBoxRequest.Builder desired(String name) {
+        return CerberusSafeDepositBoxRequest.newBuilder()
+                .withName(name)
+                .withOwner("owner group")
+                .withDescription("test description")
+                .withCategoryId("c7e98da8-6d81-4a7d-a318-f26c14d990e1");
+    }
+
+    private CerberusSafeDepositBoxResponse currentSafeDepositBox() {
+        return new GsonCerberusJsonCodec().fromJson(getResponseJson("safe-deposit-box"), CerberusSafeDepositBoxResponse.class);
+    }
+
+    private String getResponseJson(final String title) {
+        InputStream inputStream = getClass().getResourceAsStream(
+                String.format("/com/nike/cerberus/client/%s.json", title));
+        try {
+            return IOUtils.toString(inputStream, Charset.forName("UTF-8"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            IOUtils.closeQuietly(inputStream);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2020 Nike, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.nike.cerberus.client.tracing;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the TraceParent class
+ */
+public class TraceParentTest {
+
+    @Test
+    public void format_builds_a_version_00_header() {
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01",
+                TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", true));
+        assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-00",
+                TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa0ba902b7", false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void format_rejects_upper_case_trace_ids() {
+        TraceParent.format("4BF92F3577B34DA6A3CE929D0E0E4736", "00f067aa0ba902b7", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void format_rejects_all_zero_span_ids() {
+        TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", "0000000000000000", true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void format_rejects_short_span_ids() {
+        TraceParent.format("4bf92f3577b34da6a3ce929d0e0e4736", "00f067aa", true);
+    }
+}